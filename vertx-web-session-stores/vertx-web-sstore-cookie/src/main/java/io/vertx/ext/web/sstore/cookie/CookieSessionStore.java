@@ -21,12 +21,15 @@ import io.vertx.ext.web.sstore.SessionStore;
 import io.vertx.ext.web.sstore.cookie.impl.CookieSessionStoreImpl;
 
 /**
- * A SessionStore that uses a Cookie to store the session data. All data is stored in
+ * A SessionStore that uses a Cookie to store the session data. By default all data is stored in
  * plain sight and signed using a HMAC using the given secret.
  *
  * The signature ensures that the cookie payload is not tampered when returning from
  * the user agent (browser) back to the server.
  *
+ * Optionally the payload can be encrypted using AES-GCM, in this mode the data is both kept
+ * private and authenticated in a single pass, so sensitive data can be stored in the session.
+ *
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
  */
 @VertxGen
@@ -46,4 +49,20 @@ public interface CookieSessionStore extends SessionStore {
   static CookieSessionStore create(Vertx vertx, String secret) {
     return new CookieSessionStoreImpl(vertx, secret);
   }
+
+  /**
+   * Creates a CookieSessionStore.
+   *
+   * When {@code encrypt} is {@code true} cookie data will be encrypted and authenticated using AES-GCM
+   * with a key derived from the given secret, otherwise the data is only signed as in
+   * {@link #create(Vertx, String)}.
+   *
+   * @param vertx a vert.x instance
+   * @param secret a secret to derive the cipher key or feed the HMAC algorithm
+   * @param encrypt if {@code true} the session payload is encrypted
+   * @return the store
+   */
+  static CookieSessionStore create(Vertx vertx, String secret, boolean encrypt) {
+    return new CookieSessionStoreImpl(vertx, secret, encrypt);
+  }
 }
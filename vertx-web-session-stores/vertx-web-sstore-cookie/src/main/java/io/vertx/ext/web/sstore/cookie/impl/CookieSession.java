@@ -20,32 +20,25 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.VertxContextPRNG;
 import io.vertx.ext.web.sstore.AbstractSession;
 
-import javax.crypto.Mac;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
-
 /**
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
  */
 public class CookieSession extends AbstractSession {
 
-  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
-  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
-
-  private final Mac mac;
+  private final CookieSessionStoreImpl store;
   // track the original version
   private int oldVersion = 0;
   // track the original crc
   private int oldCrc = 0;
 
-  public CookieSession(Mac mac, VertxContextPRNG prng, long timeout, int length) {
+  public CookieSession(CookieSessionStoreImpl store, VertxContextPRNG prng, long timeout, int length) {
     super(prng, timeout, length);
-    this.mac = mac;
+    this.store = store;
   }
 
-  public CookieSession(Mac mac, VertxContextPRNG prng) {
+  public CookieSession(CookieSessionStoreImpl store, VertxContextPRNG prng) {
     super(prng);
-    this.mac = mac;
+    this.store = store;
   }
 
   @Override
@@ -59,10 +52,7 @@ public class CookieSession extends AbstractSession {
       .put("data", data())
       .toBuffer();
 
-    String b64 = ENCODER.encodeToString(payload.getBytes());
-    String signature = ENCODER.encodeToString(mac.doFinal(b64.getBytes(StandardCharsets.US_ASCII)));
-
-    return b64 + "." + signature;
+    return store.encode(payload);
   }
 
   @Override
@@ -82,21 +72,15 @@ public class CookieSession extends AbstractSession {
       throw new NullPointerException();
     }
 
-    String[] tokens = payload.split("\\.");
-    if (tokens.length != 2) {
-      // no signature present, force a regeneration
+    Buffer verified = store.decode(payload);
+    if (verified == null) {
+      // not a valid cookie value, force a regeneration
       // by claiming this session as invalid
       return null;
     }
 
-    String signature = ENCODER.encodeToString(mac.doFinal(tokens[0].getBytes(StandardCharsets.US_ASCII)));
-
-    if(!signature.equals(tokens[1])) {
-      throw new RuntimeException("Session data was Tampered!");
-    }
-
     // reconstruct the session
-    JsonObject decoded = new JsonObject(Buffer.buffer(DECODER.decode(tokens[0])));
+    JsonObject decoded = new JsonObject(verified);
 
     setId(decoded.getString("id"));
     setTimeout(decoded.getLong("timeout"));
@@ -20,23 +20,41 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.VertxContextPRNG;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.sstore.SessionStore;
 import io.vertx.ext.web.sstore.cookie.CookieSessionStore;
 
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
 import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
 
 /**
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
  */
 public class CookieSessionStoreImpl implements CookieSessionStore {
 
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  /**
+   * Default salt used to derive the AES key from the secret when none is configured.
+   */
+  private static final String DEFAULT_SALT = "vertx-web.sstore.cookie";
+
+  private static final int GCM_IV_LENGTH = 12;
+  private static final int GCM_TAG_LENGTH = 128;
+
   public CookieSessionStoreImpl() {
     // required for the service loader
   }
@@ -45,7 +63,14 @@ public class CookieSessionStoreImpl implements CookieSessionStore {
     init(vertx, new JsonObject().put("secret", secret));
   }
 
-  private Mac mac;
+  public CookieSessionStoreImpl(Vertx vertx, String secret, boolean encrypt) {
+    init(vertx, new JsonObject().put("secret", secret).put("encrypt", encrypt));
+  }
+
+  // Mac and Cipher instances are not thread safe, each thread gets its own copy
+  private ThreadLocal<Mac> mac;
+  private ThreadLocal<Cipher> cipher;
+  private SecretKeySpec aesKey;
   private VertxContextPRNG random;
 
   @Override
@@ -53,16 +78,132 @@ public class CookieSessionStoreImpl implements CookieSessionStore {
     // initialize a secure random
     this.random = VertxContextPRNG.current(vertx);
 
+    final String secret = options.getString("secret");
+
     try {
-      mac = Mac.getInstance("HmacSHA256");
-      mac.init(new SecretKeySpec(options.getString("secret").getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
-    } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+      if (options.getBoolean("encrypt", false)) {
+        // derive a 256 bit AES key from the secret
+        aesKey = new SecretKeySpec(
+          SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256")
+            .generateSecret(new PBEKeySpec(
+              secret.toCharArray(),
+              options.getString("salt", DEFAULT_SALT).getBytes(StandardCharsets.UTF_8),
+              65536,
+              256))
+            .getEncoded(),
+          "AES");
+
+        // fail fast if the algorithm isn't available
+        Cipher.getInstance("AES/GCM/NoPadding");
+
+        // the instances are re-initialized with the message IV on every use
+        cipher = ThreadLocal.withInitial(() -> {
+          try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+          } catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+          }
+        });
+      } else {
+        final SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        // fail fast if the algorithm or key are invalid
+        Mac.getInstance("HmacSHA256").init(key);
+
+        mac = ThreadLocal.withInitial(() -> {
+          try {
+            final Mac instance = Mac.getInstance("HmacSHA256");
+            instance.init(key);
+            return instance;
+          } catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+          }
+        });
+      }
+    } catch (GeneralSecurityException e) {
       throw new RuntimeException(e);
     }
 
     return this;
   }
 
+  /**
+   * Encodes the serialized session into a cookie value, the payload is either signed or encrypted
+   * depending on the store configuration.
+   */
+  String encode(Buffer payload) {
+    if (cipher != null) {
+      // a fresh IV per message, GCM must never reuse an IV with the same key
+      final byte[] iv = new byte[GCM_IV_LENGTH];
+      random.nextBytes(iv);
+
+      try {
+        final Cipher aes = cipher.get();
+        aes.init(Cipher.ENCRYPT_MODE, aesKey, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
+
+        final byte[] plain = payload.getBytes();
+        final byte[] sealed = new byte[GCM_IV_LENGTH + aes.getOutputSize(plain.length)];
+        System.arraycopy(iv, 0, sealed, 0, GCM_IV_LENGTH);
+        aes.doFinal(plain, 0, plain.length, sealed, GCM_IV_LENGTH);
+
+        return ENCODER.encodeToString(sealed);
+      } catch (GeneralSecurityException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    String b64 = ENCODER.encodeToString(payload.getBytes());
+    String signature = ENCODER.encodeToString(mac.get().doFinal(b64.getBytes(StandardCharsets.US_ASCII)));
+
+    return b64 + "." + signature;
+  }
+
+  /**
+   * Decodes and verifies a cookie value.
+   *
+   * @return the serialized session or {@code null} if the value is not in the expected format.
+   * @throws RuntimeException when the payload was tampered.
+   */
+  Buffer decode(String value) {
+    if (cipher != null) {
+      final byte[] sealed;
+      try {
+        sealed = DECODER.decode(value);
+      } catch (IllegalArgumentException e) {
+        return null;
+      }
+
+      if (sealed.length <= GCM_IV_LENGTH) {
+        return null;
+      }
+
+      try {
+        final Cipher aes = cipher.get();
+        aes.init(Cipher.DECRYPT_MODE, aesKey, new GCMParameterSpec(GCM_TAG_LENGTH, sealed, 0, GCM_IV_LENGTH));
+        return Buffer.buffer(aes.doFinal(sealed, GCM_IV_LENGTH, sealed.length - GCM_IV_LENGTH));
+      } catch (AEADBadTagException e) {
+        throw new RuntimeException("Session data was Tampered!");
+      } catch (GeneralSecurityException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    int idx = value.indexOf('.');
+    if (idx == -1 || idx == value.length() - 1 || value.indexOf('.', idx + 1) != -1) {
+      // no signature present, force a regeneration
+      // by claiming this session as invalid
+      return null;
+    }
+
+    String payload = value.substring(0, idx);
+    byte[] signature = ENCODER.encode(mac.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+
+    if (!MessageDigest.isEqual(signature, value.substring(idx + 1).getBytes(StandardCharsets.US_ASCII))) {
+      throw new RuntimeException("Session data was Tampered!");
+    }
+
+    return Buffer.buffer(DECODER.decode(payload));
+  }
+
   @Override
   public long retryTimeout() {
     return -1;
@@ -70,18 +211,18 @@ public class CookieSessionStoreImpl implements CookieSessionStore {
 
   @Override
   public Session createSession(long timeout) {
-    return new CookieSession(mac, random, timeout, DEFAULT_SESSIONID_LENGTH);
+    return new CookieSession(this, random, timeout, DEFAULT_SESSIONID_LENGTH);
   }
 
   @Override
   public Session createSession(long timeout, int length) {
-    return new CookieSession(mac, random, timeout, length);
+    return new CookieSession(this, random, timeout, length);
   }
 
   @Override
   public void get(String cookieValue, Handler<AsyncResult<@Nullable Session>> resultHandler) {
     try {
-      Session session = new CookieSession(mac, random).setValue(cookieValue);
+      Session session = new CookieSession(this, random).setValue(cookieValue);
 
       if (session == null) {
         resultHandler.handle(Future.succeededFuture());
@@ -65,6 +65,60 @@ public class CookieSessionHandlerTest extends SessionHandlerTestBase {
     await();
   }
 
+  @Test
+  public void testEncryptedParse() {
+    store = CookieSessionStore.create(vertx, "KeyboardCat!", true);
+    Session session = store.createSession(30_000);
+    session.put("secret", "hidden-value");
+    String cookieValue = session.value();
+
+    // the payload must not be readable nor carry a detached signature
+    assertFalse(cookieValue.contains("."));
+
+    store.get(cookieValue, get -> {
+      if (get.failed()) {
+        fail(get.cause());
+      } else {
+        assertEquals(session.id(), get.result().id());
+        assertEquals("hidden-value", get.result().get("secret"));
+        testComplete();
+      }
+    });
+
+    await();
+  }
+
+  @Test
+  public void testEncryptedTampered() {
+    store = CookieSessionStore.create(vertx, "KeyboardCat!", true);
+    Session session = store.createSession(30_000);
+    char[] cookieValue = session.value().toCharArray();
+    // flip a character in the middle of the cipher text
+    int idx = cookieValue.length / 2;
+    cookieValue[idx] = cookieValue[idx] == 'A' ? 'B' : 'A';
+
+    store.get(new String(cookieValue), get -> {
+      assertTrue(get.failed());
+      testComplete();
+    });
+
+    await();
+  }
+
+  @Test
+  public void testSignedTampered() {
+    Session session = store.createSession(30_000);
+    String cookieValue = session.value();
+    String tampered = "e30" + cookieValue.substring(cookieValue.indexOf('.'));
+
+    store.get(tampered, get -> {
+      assertTrue(get.failed());
+      testComplete();
+    });
+
+    await();
+  }
+
   /**
    * This test overrides the original as at the end there is no way to guarantee that the session cannot be
    * reused as Cookies do not preserve state across clients
@@ -26,6 +26,11 @@ public class SockJSBridgeOptionsConverter {
             obj.setMaxHandlersPerSocket(((Number)member.getValue()).intValue());
           }
           break;
+        case "multiplexConsumers":
+          if (member.getValue() instanceof Boolean) {
+            obj.setMultiplexConsumers((Boolean)member.getValue());
+          }
+          break;
         case "pingTimeout":
           if (member.getValue() instanceof Number) {
             obj.setPingTimeout(((Number)member.getValue()).longValue());
@@ -47,6 +52,7 @@ public class SockJSBridgeOptionsConverter {
   public static void toJson(SockJSBridgeOptions obj, java.util.Map<String, Object> json) {
     json.put("maxAddressLength", obj.getMaxAddressLength());
     json.put("maxHandlersPerSocket", obj.getMaxHandlersPerSocket());
+    json.put("multiplexConsumers", obj.isMultiplexConsumers());
     json.put("pingTimeout", obj.getPingTimeout());
     json.put("replyTimeout", obj.getReplyTimeout());
   }
@@ -29,7 +29,9 @@ import io.vertx.ext.bridge.PermittedOptions;
 import io.vertx.ext.web.*;
 import io.vertx.ext.web.common.template.TemplateEngine;
 import io.vertx.ext.web.handler.*;
+import io.vertx.ext.web.handler.sockjs.SlowConsumerPolicy;
 import io.vertx.ext.web.handler.sockjs.SockJSBridgeOptions;
+import io.vertx.ext.web.handler.sockjs.SockJSBroadcastGroup;
 import io.vertx.ext.web.handler.sockjs.SockJSHandler;
 import io.vertx.ext.web.handler.sockjs.SockJSHandlerOptions;
 import io.vertx.ext.web.sstore.ClusteredSessionStore;
@@ -1032,6 +1034,17 @@ public class WebExamples {
 
   }
 
+  public void sockJsBroadcast(Vertx vertx, Router router) {
+
+    SockJSBroadcastGroup group = SockJSBroadcastGroup.create(SlowConsumerPolicy.DISCONNECT);
+
+    SockJSHandler sockJSHandler = SockJSHandler.create(vertx);
+
+    router.mountSubRouter("/news", sockJSHandler.socketHandler(group::add));
+
+    vertx.eventBus().<String>consumer("news", msg -> group.broadcast(msg.body()));
+  }
+
 
   public void example45(Vertx vertx) {
 
@@ -1926,4 +1939,22 @@ public class WebExamples {
     // X-Frame-Options header with the value "DENY"
     router.route().handler(XFrameHandler.create(XFrameHandler.DENY));
   }
+
+  public void example86(Router router) {
+
+    // a single handler adds the CSP, HSTS and X-Frame-Options
+    // headers, each script tag is expected to carry the nonce
+    // found in the routing context
+    router.route().handler(
+      SecurityHeadersHandler.create()
+        .addDirective("default-src", "*.trusted.com")
+        .setCSPNonce(true)
+        .setHSTS(HSTSHandler.DEFAULT_MAX_AGE, true)
+        .setXFrame(XFrameHandler.DENY));
+
+    router.get("/").handler(ctx -> {
+      String nonce = ctx.get(SecurityHeadersHandler.CSP_NONCE);
+      ctx.end("<script nonce=\"" + nonce + "\">console.log('hi')</script>");
+    });
+  }
 }
@@ -16,6 +16,8 @@ import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.authorization.Authorization;
 import io.vertx.ext.auth.authorization.AuthorizationContext;
 import io.vertx.ext.auth.authorization.AuthorizationProvider;
@@ -23,6 +25,7 @@ import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.impl.AuthorizationHandlerImpl;
 
 import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
 
 /**
  * Base interface for authorization handlers that provide authorization support.
@@ -70,4 +73,51 @@ public interface AuthorizationHandler extends Handler<RoutingContext> {
   @Fluent
   @GenIgnore
   AuthorizationHandler variableConsumer(BiConsumer<RoutingContext, AuthorizationContext> handler);
+
+  /**
+   * Cache the authorizations fetched from the providers, so users without a session (for example bearer token users)
+   * do not hit the providers on every request. Entries are kept per principal and provider id for at most
+   * {@code maxAge} ms, but never past the user {@code exp}. Principals are compared by all their claims except the
+   * ones that change on every issue ({@code iat}, {@code exp}, {@code nbf}, {@code jti}, the raw tokens...), so tokens
+   * issued to the same subject with the same roles, groups or scopes share the entries, while tokens with different
+   * claims never do. Concurrent fetches for the same principal and provider are coalesced into a single call.
+   *
+   * While cached, changes to the permissions in the backing store are not noticed, use one of the
+   * {@code evictAuthorizations} methods when permissions change.
+   *
+   * @param maxSize max number of cached principal and provider pairs.
+   * @param maxAge max time in ms fetched authorizations are cached.
+   * @return fluent self.
+   */
+  @Fluent
+  AuthorizationHandler authorizationCache(int maxSize, long maxAge);
+
+  /**
+   * Evict the cached authorizations of the given user, for all the providers of this handler.
+   *
+   * @param user the user.
+   * @return fluent self.
+   */
+  @Fluent
+  AuthorizationHandler evictAuthorizations(User user);
+
+  /**
+   * Evict the cached authorizations matching the given filter. The filter is called with the provider id and the user
+   * principal of each entry, for example to evict all the entries of a provider:
+   * {@code (providerId, principal) -> "my-provider".equals(providerId) }
+   *
+   * @param filter a bi predicate.
+   * @return fluent self.
+   */
+  @Fluent
+  @GenIgnore
+  AuthorizationHandler evictAuthorizations(BiPredicate<String, JsonObject> filter);
+
+  /**
+   * Evict all the cached authorizations.
+   *
+   * @return fluent self.
+   */
+  @Fluent
+  AuthorizationHandler evictAuthorizations();
 }
@@ -16,6 +16,7 @@
 
 package io.vertx.ext.web.handler;
 
+import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.ext.auth.authentication.AuthenticationProvider;
 import io.vertx.ext.web.handler.impl.BasicAuthHandlerImpl;
@@ -53,4 +54,38 @@ public interface BasicAuthHandler extends AuthenticationHandler {
   static BasicAuthHandler create(AuthenticationProvider authProvider, String realm) {
     return new BasicAuthHandlerImpl(authProvider, realm);
   }
+
+  /**
+   * Cache the users of successfully verified credentials, so repeated requests with the same {@code Authorization}
+   * header do not hit the authentication provider (and its password hashing) again. Entries are keyed by a salted
+   * digest of the header value, the plain credentials are never kept, and live at most {@code maxAge} ms. Concurrent
+   * verifications of the same credentials are coalesced into a single verification.
+   *
+   * Note that while cached, a password change in the backing store is not noticed, use
+   * {@link #invalidateCredentials(String)} to evict the entries of a given user.
+   *
+   * @param maxSize max number of cached credentials.
+   * @param maxAge max time in ms verified credentials are cached.
+   * @return fluent self.
+   */
+  @Fluent
+  BasicAuthHandler credentialsCache(int maxSize, long maxAge);
+
+  /**
+   * Evict all the cached credentials of the user with the given name, as reported by the {@code username} property
+   * of the user principal. This is a no-op when no credentials cache is configured.
+   *
+   * @param username the user name.
+   * @return fluent self.
+   */
+  @Fluent
+  BasicAuthHandler invalidateCredentials(String username);
+
+  /**
+   * Evict all the cached credentials. This is a no-op when no credentials cache is configured.
+   *
+   * @return fluent self.
+   */
+  @Fluent
+  BasicAuthHandler invalidateCredentials();
 }
@@ -107,4 +107,16 @@ public interface CSRFHandler extends Handler<RoutingContext> {
    */
   @Fluent
   CSRFHandler setTimeout(long timeout);
+
+  /**
+   * Use stateless tokens. Stateless tokens are compact, have a fixed binary layout and carry everything needed to
+   * verify them (the issue time and its signature), so the session is never read or modified. This avoids a session
+   * store write on every unsafe request, but tokens are no longer bound to a session and remain valid until they
+   * expire, even after being used once. Tokens are still refreshed after each valid unsafe request.
+   *
+   * @param stateless {@code true} to use stateless tokens.
+   * @return fluent
+   */
+  @Fluent
+  CSRFHandler setStateless(boolean stateless);
 }
@@ -17,6 +17,7 @@ package io.vertx.ext.web.handler;
 
 import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.json.JsonArray;
 import io.vertx.ext.web.handler.impl.ChainAuthHandlerImpl;
 
 /**
@@ -60,4 +61,41 @@ public interface ChainAuthHandler extends AuthenticationHandler {
    */
   @Fluent
   ChainAuthHandler add(AuthenticationHandler other);
+
+  /**
+   * Evaluate the handlers of the chain concurrently instead of one after the other. For {@link #any()} chains the
+   * first handler to succeed wins (an error that is not a validation error only fails the chain when no handler
+   * succeeds), for {@link #all()} chains the first handler to fail aborts the chain. Results of
+   * the remaining handlers are discarded. A handler performing a redirect is always evaluated last, once the outcome
+   * of the other handlers is known.
+   *
+   * Only enable this when the handlers of the chain can safely process the same request at the same time.
+   *
+   * @param parallel {@code true} to evaluate the handlers concurrently.
+   * @return self
+   */
+  @Fluent
+  ChainAuthHandler parallel(boolean parallel);
+
+  /**
+   * Like {@link #parallel(boolean)}, but with {@code ordered} set the outcome of {@link #any()} chains is the one of
+   * the sequential evaluation: the first handler in declaration order that succeeds (or fails with an error that is
+   * not a validation error) decides, so a handler declared first is preferred even when a later one completes sooner.
+   * This costs latency, as a fast success has to wait for the slower handlers declared before it.
+   *
+   * @param parallel {@code true} to evaluate the handlers concurrently.
+   * @param ordered {@code true} to resolve the results of {@link #any()} chains in declaration order.
+   * @return self
+   */
+  @Fluent
+  ChainAuthHandler parallel(boolean parallel, boolean ordered);
+
+  /**
+   * Returns a snapshot of the statistics of each handler of the chain, in chain order: the number of evaluations
+   * ({@code count}), how many failed ({@code failures}) and the total time spent in the handler ({@code timeNanos}).
+   * These can be used to order the chain so cheap or likely handlers come first.
+   *
+   * @return the per handler statistics
+   */
+  JsonArray stats();
 }
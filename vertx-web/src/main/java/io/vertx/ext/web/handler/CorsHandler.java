@@ -56,6 +56,7 @@ public interface CorsHandler extends Handler<RoutingContext> {
   /**
    * Add an origin to the list of allowed Origins. An origin follows rfc6454#section-7
    * and is expected to have the format: {@code <scheme> "://" <hostname> [ ":" <port> ]}
+   * The hostname may start with {@code *.} to allow any subdomain, e.g.: {@code https://*.example.com}
    * @param origin the well formatted static origin
    * @return self
    */
@@ -151,4 +152,15 @@ public interface CorsHandler extends Handler<RoutingContext> {
   @Fluent
   CorsHandler maxAgeSeconds(int maxAgeSeconds);
 
+  /**
+   * Remember the outcome of matching the allowed origin pattern for up to {@code maxSize} distinct origins, so the
+   * regular expression is only evaluated once per origin. This only applies to handlers created with an origin
+   * pattern, origin lists are always matched with a hash lookup.
+   *
+   * @param maxSize max number of origins to remember, {@code 0} to disable.
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  CorsHandler originCache(int maxSize);
+
 }
@@ -16,6 +16,7 @@
 
 package io.vertx.ext.web.handler;
 
+import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Vertx;
 import io.vertx.ext.auth.htdigest.HtdigestAuth;
@@ -56,4 +57,14 @@ public interface DigestAuthHandler extends AuthenticationHandler {
   static DigestAuthHandler create(Vertx vertx, HtdigestAuth authProvider, long nonceExpireTimeout) {
     return new DigestAuthHandlerImpl(vertx, authProvider, nonceExpireTimeout);
   }
+
+  /**
+   * Keep the issued nonces in the vert.x async map with the given name instead of the vert.x instance local store.
+   * When vert.x is clustered this allows a client to answer a challenge issued by one node on any other node.
+   *
+   * @param mapName the async map name
+   * @return fluent self.
+   */
+  @Fluent
+  DigestAuthHandler sharedNonceStore(String mapName);
 }
@@ -80,4 +80,19 @@ public interface JWTAuthHandler extends AuthenticationHandler {
    */
   @Fluent
   JWTAuthHandler withScopes(List<String> scopes);
+
+  /**
+   * Cache the users of successfully verified tokens, so the signature of a token is only verified once. Entries are
+   * keyed by a digest of the token and live at most {@code maxAge} ms, but never past the token {@code exp} claim.
+   * Concurrent verifications of the same token are coalesced into a single verification.
+   *
+   * Instances created from this handler with {@link #withScope(String)}, {@link #withScopes(List)} or
+   * {@link #scopeDelimiter(String)} after this call share the same cache.
+   *
+   * @param maxSize max number of cached tokens.
+   * @param maxAge max time in ms a verified token is cached.
+   * @return fluent self.
+   */
+  @Fluent
+  JWTAuthHandler tokenCache(int maxSize, long maxAge);
 }
@@ -43,5 +43,14 @@ public enum LoggerFormat {
   /**
    * Will use user defined formatter function.
    */
-  CUSTOM
+  CUSTOM,
+
+  /**
+   * One JSON object per line using the Elastic Common Schema field names: <i>@timestamp</i>,
+   * <i>http.request.method</i>, <i>url.path</i>, <i>http.route</i> (the path of the current route),
+   * <i>http.response.status_code</i>, <i>http.response.body.bytes</i>, <i>event.duration</i> (in nanoseconds),
+   * <i>client.address</i>, <i>user_agent.original</i>, <i>trace.id</i> and <i>span.id</i> (from the W3C
+   * <i>traceparent</i> or B3 headers). Fields without a value are omitted.
+   */
+  JSON
 }
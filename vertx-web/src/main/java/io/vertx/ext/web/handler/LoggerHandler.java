@@ -18,10 +18,13 @@ package io.vertx.ext.web.handler;
 import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.handler.impl.LoggerHandlerImpl;
 import io.vertx.ext.web.RoutingContext;
 
+import java.util.List;
 import java.util.function.Function;
 
 /**
@@ -87,4 +90,40 @@ public interface LoggerHandler extends Handler<RoutingContext> {
    */
   @Fluent
   LoggerHandler customFormatter(LoggerFormatter formatter);
+
+  /**
+   * Set the fields, and their order, emitted by the {@link LoggerFormat#JSON} format. By default all the fields are
+   * emitted.
+   *
+   * @param fields the field names, as documented in {@link LoggerFormat#JSON}
+   * @return fluent self
+   * @throws IllegalStateException if current format is not {@link LoggerFormat#JSON}
+   * @throws IllegalArgumentException if a field is unknown
+   */
+  @Fluent
+  LoggerHandler jsonFields(List<String> fields);
+
+  /**
+   * Write the log lines asynchronously instead of using the Vert.x logger. Lines are queued without blocking and
+   * written in batches by a dedicated thread to the given file (or the standard output when the path is {@code "-"}).
+   * Handlers writing to the same path on the same Vert.x instance share the queue and the thread.
+   *
+   * When the queue is full, lines are dropped and counted in the {@link #logStats()}. As the Vert.x logger is not
+   * used, the status based severity levels do not apply in this mode.
+   *
+   * @param vertx the vertx instance
+   * @param path the file to append to or {@code "-"} for the standard output
+   * @param queueSize the max number of lines waiting to be written
+   * @return fluent self
+   */
+  @Fluent
+  LoggerHandler writeAsync(Vertx vertx, String path, int queueSize);
+
+  /**
+   * Get the counters of the asynchronous writer: {@code accepted}, {@code dropped}, {@code written}, {@code failed}
+   * and {@code pending} lines. Empty when {@link #writeAsync(Vertx, String, int)} is not used.
+   *
+   * @return the counters
+   */
+  JsonObject logStats();
 }
@@ -18,8 +18,10 @@ package io.vertx.ext.web.handler;
 import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.impl.MultiTenantHandlerImpl;
+import io.vertx.ext.web.handler.impl.TenantExtractor;
 
 import java.util.function.Function;
 
@@ -33,7 +35,7 @@ import java.util.function.Function;
  * the precondition is met. There are 2 way of defining a precondition:
  *
  * <ul>
- *     <li>A http header value for example <pre>X-Tenant</pre></li>
+ *     <li>A http header value for example <pre>X-Tenant</pre>, the host or a path segment</li>
  *     <li>A custom extractor function that can return a String from the context</li>
  * </ul>
  *
@@ -57,7 +59,28 @@ public interface MultiTenantHandler extends Handler<RoutingContext> {
    * @return the new handler.
    */
   static MultiTenantHandler create(String header) {
-    return create((ctx) -> ctx.request().getHeader(header));
+    return create(TenantExtractor.header(header));
+  }
+
+  /**
+   * Create a MultiTenant handler that will extract the tenant id from the first label of the request host, for
+   * example {@code acme} for {@code acme.example.com}.
+   *
+   * @return the new handler.
+   */
+  static MultiTenantHandler createForHost() {
+    return create(TenantExtractor.host());
+  }
+
+  /**
+   * Create a MultiTenant handler that will extract the tenant id from a segment of the request path, for example
+   * {@code acme} for the segment {@code 0} of {@code /acme/users}.
+   *
+   * @param index the zero based index of the path segment
+   * @return the new handler.
+   */
+  static MultiTenantHandler createForPathSegment(int index) {
+    return create(TenantExtractor.pathSegment(index));
   }
 
   /**
@@ -94,6 +117,21 @@ public interface MultiTenantHandler extends Handler<RoutingContext> {
   @Fluent
   MultiTenantHandler addTenantHandler(String tenant, Handler<RoutingContext> handler);
 
+  /**
+   * Add a handler for a given tenant to this handler, limiting the number of requests of the tenant processed
+   * concurrently. Requests over the limit fail with a status code {@code 429}.
+   *
+   * Both tenant and handler cannot be null.
+   *
+   * @param tenant the tenant id
+   * @param handler the handler to register.
+   * @param maxConcurrent the max number of concurrent requests, {@code -1} for no limit
+   * @throws IllegalStateException In case a handler is already present for that tenant.
+   * @return a fluent reference to self.
+   */
+  @Fluent
+  MultiTenantHandler addTenantHandler(String tenant, Handler<RoutingContext> handler, int maxConcurrent);
+
   /**
    * Remove a handler for a given tenant from this handler.
    *
@@ -115,4 +153,12 @@ public interface MultiTenantHandler extends Handler<RoutingContext> {
    */
   @Fluent
   MultiTenantHandler addDefaultHandler(Handler<RoutingContext> handler);
+
+  /**
+   * Get the counters of each tenant (and {@code default} for the default handler): {@code requests}, {@code active}
+   * requests, {@code rejected} requests and {@code timeNanos} spent until the responses ended.
+   *
+   * @return the counters keyed by tenant id
+   */
+  JsonObject stats();
 }
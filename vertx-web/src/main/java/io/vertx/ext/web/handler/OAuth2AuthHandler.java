@@ -130,4 +130,34 @@ public interface OAuth2AuthHandler extends AuthenticationHandler {
    */
   @Fluent
   OAuth2AuthHandler setupCallback(Route route);
+
+  /**
+   * Cache the result of bearer token validation (for opaque tokens, the introspection against the IdP). Successful
+   * results are keyed by a digest of the token (and the handler scopes) and live at most {@code maxAge} ms, but never
+   * past the token {@code exp}. Rejected tokens (inactive, invalid or expired) are remembered for {@code failureMaxAge}
+   * ms, so they do not hammer the IdP either, while errors reaching the IdP are never cached. Concurrent validations
+   * of the same token are coalesced into a single call.
+   *
+   * Instances created from this handler with {@link #withScope(String)} or {@link #withScopes(List)} after this call
+   * share the same cache.
+   *
+   * @param maxSize max number of cached tokens.
+   * @param maxAge max time in ms a valid token is cached.
+   * @param failureMaxAge time in ms a failed validation is cached, {@code 0} disables negative caching.
+   * @return self
+   */
+  @Fluent
+  OAuth2AuthHandler tokenCache(int maxSize, long maxAge, long failureMaxAge);
+
+  /**
+   * Add a shared tier to the token cache configured with {@link #tokenCache(int, long, long)}. The tier is a vert.x
+   * async map, which is cluster wide when vert.x is clustered, and is consulted when a token is not found in the
+   * local cache, before contacting the IdP. The local cache is replaced by an empty one, so this is meant to be called
+   * right after {@link #tokenCache(int, long, long)}.
+   *
+   * @param mapName the name of the shared async map.
+   * @return self
+   */
+  @Fluent
+  OAuth2AuthHandler sharedTokenCache(String mapName);
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler;
+
+import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.Handler;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.impl.SecurityHeadersHandlerImpl;
+
+/**
+ * A single handler that adds the Content Security Policy, HTTP Strict Transport Security and X-Frame-Options headers
+ * to the response. It behaves like the combination of {@link CSPHandler}, {@link HSTSHandler} and
+ * {@link XFrameHandler}, but takes a single step in the route and renders the header values once, when the
+ * configuration changes, instead of on every request.
+ *
+ * By default only the CSP header with the directive {@code default-src 'self'} is added.
+ *
+ * The headers are added when the response headers are written, but a header the response already has is left as is,
+ * so later handlers can still override them, for example with a route specific policy.
+ *
+ * When CSP nonces are enabled, a fresh nonce is generated for each request, added to the {@code script-src}
+ * directive and stored in the routing context under the key {@link #CSP_NONCE}, so templates can render it in the
+ * {@code nonce} attribute of inline scripts.
+ */
+@VertxGen
+public interface SecurityHeadersHandler extends Handler<RoutingContext> {
+
+  /**
+   * The routing context key holding the CSP nonce of the current request.
+   */
+  String CSP_NONCE = "csp-nonce";
+
+  /**
+   * Creates a new instance of the handler.
+   *
+   * @return a new security headers handler.
+   */
+  static SecurityHeadersHandler create() {
+    return new SecurityHeadersHandlerImpl();
+  }
+
+  /**
+   * Sets a single CSP directive entry. All previously set or added values of the directive will be replaced.
+   *
+   * @param name the directive name
+   * @param value the directive value.
+   * @return fluent self
+   * @see CSPHandler#setDirective(String, String)
+   */
+  @Fluent
+  SecurityHeadersHandler setDirective(String name, String value);
+
+  /**
+   * Adds a single CSP directive entry. All previously set or added values of the directive will be preserved.
+   *
+   * @param name the directive name
+   * @param value the directive value.
+   * @return fluent self
+   * @see CSPHandler#addDirective(String, String)
+   */
+  @Fluent
+  SecurityHeadersHandler addDirective(String name, String value);
+
+  /**
+   * Emit the CSP in report-only mode, a {@code report-uri} directive is then required.
+   *
+   * @param reportOnly enable report only
+   * @return fluent self.
+   * @see CSPHandler#setReportOnly(boolean)
+   */
+  @Fluent
+  SecurityHeadersHandler setReportOnly(boolean reportOnly);
+
+  /**
+   * Generate a nonce for each request and allow it in the {@code script-src} directive. When the policy has no
+   * {@code script-src} directive, one is created from the {@code default-src} sources.
+   *
+   * @param enable enable nonces
+   * @return fluent self.
+   */
+  @Fluent
+  SecurityHeadersHandler setCSPNonce(boolean enable);
+
+  /**
+   * Add the {@code Strict-Transport-Security} header to secure requests.
+   *
+   * @param maxAge max age to attribute to the header
+   * @param includeSubDomains consider sub domains when adding the header
+   * @return fluent self.
+   * @see HSTSHandler#create(long, boolean)
+   */
+  @Fluent
+  SecurityHeadersHandler setHSTS(long maxAge, boolean includeSubDomains);
+
+  /**
+   * Add the {@code X-Frame-Options} header.
+   *
+   * @param action a string value either {@code DENY} or {@code SAMEORIGIN}.
+   * @return fluent self.
+   * @see XFrameHandler#create(String)
+   */
+  @Fluent
+  SecurityHeadersHandler setXFrame(String action);
+}
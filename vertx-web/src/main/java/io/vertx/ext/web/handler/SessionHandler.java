@@ -24,6 +24,7 @@ import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.core.http.CookieSameSite;
 import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.User;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.Session;
@@ -91,6 +92,17 @@ public interface SessionHandler extends Handler<RoutingContext> {
    */
 	boolean DEFAULT_LAZY_SESSION = false;
 
+  /**
+   * Default of whether concurrent lookups of the same session should share a single store call
+   */
+  boolean DEFAULT_COALESCE_REQUESTS = false;
+
+  /**
+   * Default window, in ms, during which writes of the same session are merged into a single store call. A value of
+   * {@code 0} disables write merging.
+   */
+  long DEFAULT_FLUSH_WINDOW = 0;
+
 	/**
 	 * Create a session handler
 	 *
@@ -199,6 +211,67 @@ public interface SessionHandler extends Handler<RoutingContext> {
   @Fluent
   SessionHandler setCookieMaxAge(long cookieMaxAge);
 
+  /**
+   * Coalesce concurrent lookups of the same session id. When enabled, requests carrying the same session id that
+   * arrive on the same event loop while a lookup is still in flight will not issue a new
+   * {@link SessionStore#get(String, Handler)} but share the result of the pending one. This means these requests will
+   * share the same {@link Session} object, just like it happens with the local session store. As sessions are not
+   * thread safe, requests handled on other event loops do their own lookup.
+   *
+   * This is mostly useful for stores where each call is a network round trip, for example clustered or redis stores.
+   *
+   * @param coalesce true to share in flight lookups.
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  SessionHandler setCoalesceRequests(boolean coalesce);
+
+  /**
+   * Set a window, in ms, during which automatic writes of the same session are merged into a single
+   * {@link SessionStore#put(Session, Handler)}. While a write is pending, lookups of that session id on the same
+   * event loop are served from the pending session, so subsequent requests always observe the latest state. Explicit
+   * flushes will only complete once the merged write completes. Regenerated or destroyed sessions are always written
+   * immediately.
+   *
+   * @param flushWindow the window in ms, {@code 0} disables write merging.
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  SessionHandler setFlushWindow(long flushWindow);
+
+  /**
+   * Protect request processing from an unhealthy session store. Calls to the store that take longer than
+   * {@code callTimeout} are failed and count as a failure. After {@code maxFailures} consecutive failures the circuit
+   * opens and all store calls fail immediately for {@code resetTimeout} ms, after which a single call is allowed to
+   * probe the store again.
+   *
+   * @param maxFailures consecutive failures before opening the circuit, a non positive value disables the breaker.
+   * @param callTimeout the max time in ms a single store call may take, a non positive value disables the timeout.
+   * @param resetTimeout the time in ms the circuit stays open before probing the store again.
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  SessionHandler setStoreCircuitBreaker(int maxFailures, long callTimeout, long resetTimeout);
+
+  /**
+   * When the session store cannot be reached (failure, timeout or open circuit), continue the request with a new
+   * anonymous session instead of failing the request with a {@code 503} status code.
+   *
+   * @param degrade true to fallback to anonymous sessions.
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  SessionHandler setDegradeOnStoreFailure(boolean degrade);
+
+  /**
+   * Returns a snapshot of the session store metrics collected by this handler: number, failures and accumulated
+   * latency (in nanoseconds) of lookups and writes, lookup hits and misses, writes of unchanged sessions (same
+   * checksum), calls rejected by the circuit breaker and the circuit state.
+   *
+   * @return the metrics snapshot
+   */
+  JsonObject storeMetrics();
+
   /**
    * Flush a context session earlier to the store, this will allow the end user to have full control on the event of
    * a failure at the store level. Once a session is flushed no automatic save will be performed at end of request.
@@ -25,6 +25,9 @@ import io.vertx.ext.web.handler.impl.TimeoutHandlerImpl;
  * Handler that will timeout requests if the response has not been written after a certain time.
  * Timeout requests will be ended with an HTTP status code `503`.
  *
+ * The deadline of the request is stored in the routing context, so downstream handlers can bound the work they do, for
+ * example by setting the timeout of a web client request to the {@link #remainingTime(RoutingContext)}.
+ *
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
 @VertxGen
@@ -40,6 +43,11 @@ public interface TimeoutHandler extends Handler<RoutingContext> {
    */
   int DEFAULT_ERRORCODE = 503;
 
+  /**
+   * The routing context data key holding the request deadline, as an absolute time in ms since epoch
+   */
+  String DEADLINE = "deadline";
+
   /**
    * Create a handler
    *
@@ -68,4 +76,18 @@ public interface TimeoutHandler extends Handler<RoutingContext> {
   static TimeoutHandler create(long timeout, int errorCode) {
     return new TimeoutHandlerImpl(timeout, errorCode);
   }
+
+  /**
+   * Get the time left before the request deadline set by a timeout handler.
+   *
+   * @param ctx the routing context
+   * @return the remaining time in ms, {@code 0} when the deadline has passed or {@code -1} when there is no deadline
+   */
+  static long remainingTime(RoutingContext ctx) {
+    final Long deadline = ctx.get(DEADLINE);
+    if (deadline == null) {
+      return -1;
+    }
+    return Math.max(0, deadline - System.currentTimeMillis());
+  }
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.impl;
+
+import io.netty.util.internal.PlatformDependent;
+import io.vertx.core.Closeable;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.Shareable;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes access log lines off the event loop.
+ *
+ * Lines are either strings or already UTF-8 encoded bytes. Event loops hand over lines through a bounded multi producer single consumer queue, a single writer thread drains
+ * the queue in batches to a file or the standard output and flushes once per batch. When the queue is full, lines
+ * are dropped and counted instead of blocking the event loop.
+ *
+ * When writing fails, the output is closed and reopened with an exponential backoff, the lines queued meanwhile are
+ * kept (up to the queue capacity).
+ *
+ * A writer is shared by all the handlers of a vert.x instance logging to the same destination and is closed along
+ * with vert.x, once the queued lines are written.
+ */
+final class AccessLogWriter implements Shareable, Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AccessLogWriter.class);
+
+  private static final String MAP_NAME = "vertx-web.access-log";
+  private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+  private final String path;
+  // String or UTF-8 encoded byte[] lines
+  private final Queue<Object> queue;
+  private final Thread thread;
+
+  private final LongAdder accepted = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  // only updated by the writer thread
+  private volatile long written;
+  private volatile long failed;
+  private volatile boolean closed;
+  // set before closed, completed by the writer thread once done
+  private volatile Promise<Void> completion;
+
+  private AccessLogWriter(String path, int capacity) {
+    this.path = path;
+    this.queue = PlatformDependent.newFixedMpscQueue(capacity);
+    this.thread = new Thread(this::run, "vertx-web-access-log");
+    this.thread.setDaemon(true);
+  }
+
+  /**
+   * Get the writer for the given destination, creating and starting it if needed.
+   *
+   * @param path the file to append to or {@code "-"} for the standard output.
+   * @param capacity the max number of lines waiting to be written.
+   */
+  static AccessLogWriter get(Vertx vertx, String path, int capacity) {
+    return vertx.sharedData()
+      .<String, AccessLogWriter>getLocalMap(MAP_NAME)
+      .computeIfAbsent(path, key -> {
+        final AccessLogWriter writer = new AccessLogWriter(path, capacity);
+        ((VertxInternal) vertx).addCloseHook(writer);
+        writer.thread.start();
+        return writer;
+      });
+  }
+
+  /**
+   * Queue a line, never blocks.
+   *
+   * @return {@code false} when the line was dropped.
+   */
+  boolean offer(String line) {
+    return enqueue(line);
+  }
+
+  /**
+   * Queue an already UTF-8 encoded line, never blocks.
+   *
+   * @return {@code false} when the line was dropped.
+   */
+  boolean offer(byte[] line) {
+    return enqueue(line);
+  }
+
+  private boolean enqueue(Object line) {
+    if (!closed && queue.offer(line)) {
+      accepted.increment();
+      return true;
+    }
+    dropped.increment();
+    return false;
+  }
+
+  JsonObject stats() {
+    return new JsonObject()
+      .put("accepted", accepted.sum())
+      .put("dropped", dropped.sum())
+      .put("written", written)
+      .put("failed", failed)
+      .put("pending", queue.size());
+  }
+
+  @Override
+  public void close(Promise<Void> completion) {
+    this.completion = completion;
+    closed = true;
+    LockSupport.unpark(thread);
+  }
+
+  private OutputStream open() throws IOException {
+    return new BufferedOutputStream("-".equals(path) ? System.out : new FileOutputStream(path, true), 64 * 1024);
+  }
+
+  private void run() {
+    OutputStream out = null;
+    long backoff = 0;
+    long retryAt = 0;
+    while (true) {
+      // read the flag before draining, so the lines queued before closing are still written
+      final boolean last = closed;
+      // when closing, make a last attempt regardless of the backoff
+      if (!queue.isEmpty() && (last || System.nanoTime() - retryAt >= 0)) {
+        long count = 0;
+        try {
+          if (out == null) {
+            out = open();
+          }
+          Object line;
+          while ((line = queue.poll()) != null) {
+            count++;
+            if (line instanceof byte[]) {
+              out.write((byte[]) line);
+            } else {
+              out.write(((String) line).getBytes(StandardCharsets.UTF_8));
+            }
+            out.write('\n');
+          }
+          out.flush();
+          written += count;
+          backoff = 0;
+        } catch (IOException | RuntimeException e) {
+          // the lines of this batch may not have reached the output, the queued ones are retried after reopening it
+          failed += count;
+          out = closeOutput(out);
+          backoff = backoff == 0 ? PARK_NANOS : Math.min(2 * backoff, MAX_BACKOFF_NANOS);
+          retryAt = System.nanoTime() + backoff;
+          LOG.error("Failed to write access log to " + path + ", retrying in " + TimeUnit.NANOSECONDS.toMillis(backoff) + "ms", e);
+        }
+      }
+      if (last) {
+        break;
+      }
+      LockSupport.parkNanos(this, PARK_NANOS);
+    }
+
+    // lines that could not be written by the last attempt or that raced with closing are lost
+    long lost = 0;
+    while (queue.poll() != null) {
+      lost++;
+    }
+    failed += lost;
+
+    closeOutput(out);
+    completion.complete();
+  }
+
+  private OutputStream closeOutput(OutputStream out) {
+    if (out != null && !"-".equals(path)) {
+      try {
+        out.close();
+      } catch (IOException e) {
+        LOG.error("Failed to close access log " + path, e);
+      }
+    }
+    return null;
+  }
+}
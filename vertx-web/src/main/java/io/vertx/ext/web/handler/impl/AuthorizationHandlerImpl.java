@@ -13,19 +13,34 @@
 package io.vertx.ext.web.handler.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
 
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.authorization.Authorization;
 import io.vertx.ext.auth.authorization.AuthorizationContext;
 import io.vertx.ext.auth.authorization.AuthorizationProvider;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.AuthorizationHandler;
 import io.vertx.ext.web.handler.HttpException;
+import io.vertx.ext.web.impl.ExpiringLRUCache;
 
 /**
  * Implementation of the {@link io.vertx.ext.web.handler.AuthorizationHandler}
@@ -39,10 +54,30 @@ public class AuthorizationHandlerImpl implements AuthorizationHandler {
   private final static int FORBIDDEN_CODE = 403;
   private final static HttpException FORBIDDEN_EXCEPTION = new HttpException(FORBIDDEN_CODE);
 
+  /**
+   * The authorizations a provider returned for a principal.
+   */
+  private static final class CachedAuthorizations {
+    final String providerId;
+    final JsonObject principal;
+    final Set<Authorization> authorizations;
+    final long expiresAt;
+
+    CachedAuthorizations(String providerId, JsonObject principal, Set<Authorization> authorizations, long expiresAt) {
+      this.providerId = providerId;
+      this.principal = principal;
+      this.authorizations = authorizations;
+      this.expiresAt = expiresAt;
+    }
+  }
+
   private final Authorization authorization;
   private final Collection<AuthorizationProvider> authorizationProviders;
   private BiConsumer<RoutingContext, AuthorizationContext> variableHandler;
 
+  private volatile ExpiringLRUCache<String, CachedAuthorizations> cache;
+  private long maxAge;
+
   public AuthorizationHandlerImpl(Authorization authorization) {
     this.authorization = Objects.requireNonNull(authorization);
     this.authorizationProviders = new ArrayList<>();
@@ -91,7 +126,7 @@ public class AuthorizationHandlerImpl implements AuthorizationHandler {
       AuthorizationProvider provider = providers.next();
       // we haven't fetch authorization from this provider yet
       if (! routingContext.user().authorizations().getProviderIds().contains(provider.getId())) {
-        provider.getAuthorizations(routingContext.user(), authorizationResult -> {
+        fetchAuthorizations(routingContext, provider, authorizationResult -> {
           if (authorizationResult.failed()) {
             LOG.warn("An error occured getting authorization - providerId: " + provider.getId(), authorizationResult.cause());
             // note that we don't 'record' the fact that we tried to fetch the authorization provider. therefore it will be re-fetched later-on
@@ -104,6 +139,100 @@ public class AuthorizationHandlerImpl implements AuthorizationHandler {
     }
   }
 
+  private void fetchAuthorizations(RoutingContext routingContext, AuthorizationProvider provider, Handler<AsyncResult<Void>> handler) {
+    final User user = routingContext.user();
+    final ExpiringLRUCache<String, CachedAuthorizations> cache = this.cache;
+
+    if (cache == null) {
+      provider.getAuthorizations(user, handler);
+      return;
+    }
+
+    cache
+      .getOrLoad(routingContext.vertx(), key(user, provider.getId()), key -> {
+        final Promise<Void> promise = Promise.promise();
+        provider.getAuthorizations(user, promise);
+        return promise.future()
+          .map(v -> {
+            final Set<Authorization> authorizations = user.authorizations().get(provider.getId());
+            // take a snapshot, the user authorizations are mutable
+            return new CachedAuthorizations(
+              provider.getId(),
+              user.principal().copy(),
+              authorizations == null ? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(authorizations)),
+              expiresAt(user));
+          });
+      }, cached -> cached.expiresAt)
+      .onComplete(res -> {
+        if (res.failed()) {
+          handler.handle(Future.failedFuture(res.cause()));
+        } else {
+          // an empty set still records that the provider was contacted
+          user.authorizations().add(provider.getId(), res.result().authorizations);
+          handler.handle(Future.succeededFuture());
+        }
+      });
+  }
+
+  /**
+   * Claims that change every time a token is issued to the same user. They are left out of the keys, so the cache is
+   * not per token.
+   */
+  private static final Set<String> VOLATILE_CLAIMS = new HashSet<>(Arrays.asList(
+    "iat", "exp", "nbf", "jti", "auth_time", "access_token", "id_token", "refresh_token", "expires_in", "expires_at"));
+
+  /**
+   * Keys are a digest of the user principal and attributes, minus the {@link #VOLATILE_CLAIMS}. Anything else a
+   * provider could derive authorizations from (roles, groups, scopes, permissions...) is part of the key, so two tokens
+   * of the same subject with different claims never share an entry.
+   */
+  private static String key(User user, String providerId) {
+    final StringBuilder identity = new StringBuilder();
+    canonical(user.principal(), identity);
+    identity.append(',');
+    canonical(user.attributes(), identity);
+    // the digest has a fixed length and no separator, so keys cannot collide
+    return UserCache.digest(identity.toString()) + ':' + providerId;
+  }
+
+  /**
+   * Encodes a value with the keys of the objects sorted, so equal values have the same encoding whatever the order
+   * their claims were added in.
+   */
+  private static void canonical(Object value, StringBuilder sb) {
+    if (value instanceof JsonObject) {
+      final JsonObject json = (JsonObject) value;
+      sb.append('{');
+      for (String name : new TreeSet<>(json.fieldNames())) {
+        if (!VOLATILE_CLAIMS.contains(name)) {
+          sb.append(Json.encode(name)).append(':');
+          canonical(json.getValue(name), sb);
+          sb.append(',');
+        }
+      }
+      sb.append('}');
+    } else if (value instanceof JsonArray) {
+      sb.append('[');
+      for (Object item : (JsonArray) value) {
+        canonical(item, sb);
+        sb.append(',');
+      }
+      sb.append(']');
+    } else {
+      sb.append(Json.encode(value));
+    }
+  }
+
+  private long expiresAt(User user) {
+    final long expiresAt = System.currentTimeMillis() + maxAge;
+    // never past the expiration of the user token, exp is in seconds
+    final Object exp = user.containsKey("exp") ? user.get("exp") : null;
+    if (exp instanceof Number) {
+      return Math.min(expiresAt, ((Number) exp).longValue() * 1000);
+    }
+    return expiresAt;
+  }
+
   private AuthorizationContext getAuthorizationContext(RoutingContext event) {
     final AuthorizationContext result = AuthorizationContext.create(event.user());
     if (variableHandler != null) {
@@ -119,4 +248,40 @@ public class AuthorizationHandlerImpl implements AuthorizationHandler {
     this.authorizationProviders.add(authorizationProvider);
     return this;
   }
+
+  @Override
+  public AuthorizationHandler authorizationCache(int maxSize, long maxAge) {
+    this.maxAge = maxAge;
+    this.cache = new ExpiringLRUCache<>(maxSize);
+    return this;
+  }
+
+  @Override
+  public AuthorizationHandler evictAuthorizations(User user) {
+    final ExpiringLRUCache<String, CachedAuthorizations> cache = this.cache;
+    if (cache != null) {
+      for (AuthorizationProvider provider : authorizationProviders) {
+        cache.remove(key(user, provider.getId()));
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public AuthorizationHandler evictAuthorizations(BiPredicate<String, JsonObject> filter) {
+    final ExpiringLRUCache<String, CachedAuthorizations> cache = this.cache;
+    if (cache != null) {
+      cache.removeIf((key, cached) -> filter.test(cached.providerId, cached.principal));
+    }
+    return this;
+  }
+
+  @Override
+  public AuthorizationHandler evictAuthorizations() {
+    final ExpiringLRUCache<String, CachedAuthorizations> cache = this.cache;
+    if (cache != null) {
+      cache.clear();
+    }
+    return this;
+  }
 }
@@ -34,6 +34,8 @@ import java.util.Base64;
  */
 public class BasicAuthHandlerImpl extends HTTPAuthorizationHandler<AuthenticationProvider> implements BasicAuthHandler {
 
+  private volatile UserCache cache;
+
   public BasicAuthHandlerImpl(AuthenticationProvider authProvider, String realm) {
     super(authProvider, Type.BASIC, realm);
   }
@@ -67,13 +69,46 @@ public class BasicAuthHandlerImpl extends HTTPAuthorizationHandler<Authenticatio
         return;
       }
 
-      authProvider.authenticate(new UsernamePasswordCredentials(suser, spass), authn -> {
+      final Handler<AsyncResult<User>> onAuthn = authn -> {
         if (authn.failed()) {
           handler.handle(Future.failedFuture(new HttpException(401, authn.cause())));
         } else {
           handler.handle(authn);
         }
-      });
+      };
+
+      final UserCache cache = this.cache;
+      if (cache != null) {
+        cache
+          .authenticate(context.vertx(), cache.saltedDigest(parseAuthorization.result()), () -> authProvider.authenticate(new UsernamePasswordCredentials(suser, spass)))
+          .onComplete(onAuthn);
+      } else {
+        authProvider.authenticate(new UsernamePasswordCredentials(suser, spass), onAuthn);
+      }
     });
   }
+
+  @Override
+  public BasicAuthHandler credentialsCache(int maxSize, long maxAge) {
+    this.cache = new UserCache(maxSize, maxAge);
+    return this;
+  }
+
+  @Override
+  public BasicAuthHandler invalidateCredentials(String username) {
+    final UserCache cache = this.cache;
+    if (cache != null && username != null) {
+      cache.invalidate(user -> username.equals(user.principal().getString("username")));
+    }
+    return this;
+  }
+
+  @Override
+  public BasicAuthHandler invalidateCredentials() {
+    final UserCache cache = this.cache;
+    if (cache != null) {
+      cache.clear();
+    }
+    return this;
+  }
 }
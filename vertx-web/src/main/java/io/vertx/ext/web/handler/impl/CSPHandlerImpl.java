@@ -4,66 +4,25 @@ import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.CSPHandler;
 import io.vertx.ext.web.handler.HttpException;
 
-import java.util.*;
-
 public class CSPHandlerImpl implements CSPHandler {
 
-  private static final List<String> MUST_BE_QUOTED = Arrays.asList(
-    "none",
-    "self",
-    "unsafe-inline",
-    "unsafe-eval"
-  );
-
-  private final Map<String, String> policy = new LinkedHashMap<>();
+  private final CSPPolicy policy = new CSPPolicy();
   private boolean reportOnly;
 
-  public CSPHandlerImpl() {
-    addDirective("default-src", "self");
-  }
+  // the rendered policy, only recomputed when the directives change
+  private volatile String policyString;
 
   @Override
   public synchronized CSPHandler setDirective(String name, String value) {
-    if (name == null) {
-      throw new IllegalArgumentException("name cannot be null");
-    }
-
-    if (value == null) {
-      policy.remove(name);
-    }
-
-    if (MUST_BE_QUOTED.contains(value)) {
-      // these policies are special, they must be quoted
-      value = "'" + value + "'";
-    }
-
-    policy.put(name, value);
-
+    policy.set(name, value);
+    policyString = null;
     return this;
   }
 
   @Override
-  public CSPHandler addDirective(String name, String value) {
-    if (name == null) {
-      throw new IllegalArgumentException("name cannot be null");
-    }
-
-    if (value == null) {
-      policy.remove(name);
-    }
-
-    if (MUST_BE_QUOTED.contains(value)) {
-      // these policies are special, they must be quoted
-      value = "'" + value + "'";
-    }
-
-    String previous = policy.get(name);
-    if (previous == null || "".equals(previous)) {
-      policy.put(name, value);
-    } else {
-      policy.put(name, previous + " " + value);
-    }
-
+  public synchronized CSPHandler addDirective(String name, String value) {
+    policy.add(name, value);
+    policyString = null;
     return this;
   }
 
@@ -73,32 +32,31 @@ public class CSPHandlerImpl implements CSPHandler {
     return this;
   }
 
-    @Override
-  public void handle(RoutingContext ctx) {
-
-    final StringBuilder policyString = new StringBuilder();
-
-    for (Map.Entry<String, String> entry : policy.entrySet()) {
-      if (policyString.length() > 0) {
-        policyString.append("; ");
+  private String policyString() {
+    String value = policyString;
+    if (value == null) {
+      synchronized (this) {
+        value = policy.render();
+        policyString = value;
       }
-      policyString
-        .append(entry.getKey())
-        .append(' ')
-        .append(entry.getValue());
     }
+    return value;
+  }
+
+    @Override
+  public void handle(RoutingContext ctx) {
 
     if (reportOnly) {
-      if (!policy.containsKey("report-uri")) {
+      if (!policy.contains("report-uri")) {
         ctx.fail(new HttpException(500, "Please disable CSP reportOnly or add a report-uri policy."));
       } else {
         ctx.response()
-          .putHeader("Content-Security-Policy-Report-Only", policyString.toString());
+          .putHeader("Content-Security-Policy-Report-Only", policyString());
         ctx.next();
       }
     } else {
       ctx.response()
-        .putHeader("Content-Security-Policy", policyString.toString());
+        .putHeader("Content-Security-Policy", policyString());
       ctx.next();
     }
   }
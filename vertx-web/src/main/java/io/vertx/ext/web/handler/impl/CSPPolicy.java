@@ -0,0 +1,113 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.impl;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The directives of a Content Security Policy, shared by the handlers that emit the CSP header.
+ */
+final class CSPPolicy {
+
+  private static final List<String> MUST_BE_QUOTED = Arrays.asList(
+    "none",
+    "self",
+    "unsafe-inline",
+    "unsafe-eval"
+  );
+
+  private final Map<String, String> policy = new LinkedHashMap<>();
+
+  CSPPolicy() {
+    add("default-src", "self");
+  }
+
+  void set(String name, String value) {
+    if (name == null) {
+      throw new IllegalArgumentException("name cannot be null");
+    }
+
+    if (value == null) {
+      policy.remove(name);
+      return;
+    }
+
+    policy.put(name, quote(value));
+  }
+
+  void add(String name, String value) {
+    if (name == null) {
+      throw new IllegalArgumentException("name cannot be null");
+    }
+
+    if (value == null) {
+      policy.remove(name);
+      return;
+    }
+
+    value = quote(value);
+
+    String previous = policy.get(name);
+    if (previous == null || "".equals(previous)) {
+      policy.put(name, value);
+    } else {
+      policy.put(name, previous + " " + value);
+    }
+  }
+
+  boolean contains(String name) {
+    return policy.containsKey(name);
+  }
+
+  /**
+   * @return a copy of the current directives, in insertion order.
+   */
+  Map<String, String> directives() {
+    return new LinkedHashMap<>(policy);
+  }
+
+  String render() {
+    return render(policy);
+  }
+
+  static String render(Map<String, String> directives) {
+    final StringBuilder policyString = new StringBuilder();
+
+    for (Map.Entry<String, String> entry : directives.entrySet()) {
+      if (policyString.length() > 0) {
+        policyString.append("; ");
+      }
+      policyString
+        .append(entry.getKey())
+        .append(' ')
+        .append(entry.getValue());
+    }
+
+    return policyString.toString();
+  }
+
+  private static String quote(String value) {
+    if (MUST_BE_QUOTED.contains(value)) {
+      // these policies are special, they must be quoted
+      return "'" + value + "'";
+    }
+    return value;
+  }
+}
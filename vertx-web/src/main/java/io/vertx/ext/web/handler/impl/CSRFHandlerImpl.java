@@ -31,11 +31,13 @@ import io.vertx.ext.web.impl.Origin;
 import io.vertx.ext.web.impl.RoutingContextInternal;
 
 import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Base64;
 
 /**
@@ -46,9 +48,37 @@ public class CSRFHandlerImpl implements CSRFHandler {
   private static final Logger LOG = LoggerFactory.getLogger(CSRFHandlerImpl.class);
 
   private static final Base64.Encoder BASE64 = Base64.getMimeEncoder();
+  private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+  /*
+   * Stateless tokens have a fixed binary layout:
+   *
+   *   version (1) | salt (16) | issued at ms (8) | HMAC-SHA256 of the previous fields (32)
+   *
+   * 57 bytes, so the base64url form is always 76 chars long and needs no padding.
+   */
+  private static final byte VERSION = 1;
+  private static final int SALT_LENGTH = 16;
+  private static final int PAYLOAD_LENGTH = 1 + SALT_LENGTH + 8;
+  private static final int TOKEN_LENGTH = PAYLOAD_LENGTH + 32;
+  private static final int ENCODED_TOKEN_LENGTH = TOKEN_LENGTH / 3 * 4;
+
+  private static final int[] BASE64URL_DECODE = new int[128];
+
+  static {
+    Arrays.fill(BASE64URL_DECODE, -1);
+    final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+    for (int i = 0; i < alphabet.length(); i++) {
+      BASE64URL_DECODE[alphabet.charAt(i)] = i;
+    }
+  }
+
+  // scratch space to decode a token and compute its signature, tokens are verified without allocations
+  private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[TOKEN_LENGTH + 32]);
 
   private final VertxContextPRNG random;
-  private final Mac mac;
+  // Mac is not thread safe
+  private final ThreadLocal<Mac> mac;
 
   private boolean nagHttps;
   private String cookieName = DEFAULT_COOKIE_NAME;
@@ -58,18 +88,25 @@ public class CSRFHandlerImpl implements CSRFHandler {
 
   private Origin origin;
   private boolean httpOnly;
+  private boolean stateless;
 
   public CSRFHandlerImpl(final Vertx vertx, final String secret) {
-    try {
-      if (secret.length() <= 8) {
-        LOG.warn("CSRF secret is very short (<= 8 bytes)");
-      }
-      random = VertxContextPRNG.current(vertx);
-      mac = Mac.getInstance("HmacSHA256");
-      mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
-    } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-      throw new RuntimeException(e);
+    if (secret.length() <= 8) {
+      LOG.warn("CSRF secret is very short (<= 8 bytes)");
     }
+    random = VertxContextPRNG.current(vertx);
+    final SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    mac = ThreadLocal.withInitial(() -> {
+      try {
+        final Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(key);
+        return mac;
+      } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    // fail fast on a bad setup
+    mac.get();
   }
 
   @Override
@@ -114,14 +151,117 @@ public class CSRFHandlerImpl implements CSRFHandler {
     return this;
   }
 
-  private String generateAndStoreToken(RoutingContext ctx) {
+  @Override
+  public CSRFHandler setStateless(boolean stateless) {
+    this.stateless = stateless;
+    return this;
+  }
+
+  private String generateToken() {
     byte[] salt = new byte[32];
     random.nextBytes(salt);
 
     String saltPlusToken = BASE64.encodeToString(salt) + "." + System.currentTimeMillis();
-    String signature = BASE64.encodeToString(mac.doFinal(saltPlusToken.getBytes(StandardCharsets.US_ASCII)));
+    String signature = BASE64.encodeToString(mac.get().doFinal(saltPlusToken.getBytes(StandardCharsets.US_ASCII)));
+
+    return saltPlusToken + "." + signature;
+  }
+
+  private String generateStatelessToken() {
+    final byte[] token = new byte[TOKEN_LENGTH];
+    final byte[] salt = new byte[SALT_LENGTH];
+    random.nextBytes(salt);
+
+    token[0] = VERSION;
+    System.arraycopy(salt, 0, token, 1, SALT_LENGTH);
+    long ts = System.currentTimeMillis();
+    for (int i = PAYLOAD_LENGTH - 1; i > SALT_LENGTH; i--) {
+      token[i] = (byte) ts;
+      ts >>>= 8;
+    }
+
+    final Mac mac = this.mac.get();
+    mac.update(token, 0, PAYLOAD_LENGTH);
+    try {
+      mac.doFinal(token, PAYLOAD_LENGTH);
+    } catch (ShortBufferException e) {
+      throw new IllegalStateException(e);
+    }
+
+    return BASE64URL.encodeToString(token);
+  }
+
+  /**
+   * Verify the signature of a stateless token.
+   *
+   * @return the time the token was issued at, or {@code -1} when the token is not valid.
+   */
+  private long verifyStatelessToken(String token) {
+    if (token.length() != ENCODED_TOKEN_LENGTH) {
+      return -1;
+    }
+
+    final byte[] buf = SCRATCH.get();
+    // decode base64url, 4 chars into 3 bytes
+    for (int i = 0, j = 0; i < ENCODED_TOKEN_LENGTH; i += 4, j += 3) {
+      int bits = 0;
+      for (int k = 0; k < 4; k++) {
+        final char c = token.charAt(i + k);
+        final int v = c < 128 ? BASE64URL_DECODE[c] : -1;
+        if (v == -1) {
+          return -1;
+        }
+        bits = (bits << 6) | v;
+      }
+      buf[j] = (byte) (bits >> 16);
+      buf[j + 1] = (byte) (bits >> 8);
+      buf[j + 2] = (byte) bits;
+    }
+
+    if (buf[0] != VERSION) {
+      return -1;
+    }
+
+    final Mac mac = this.mac.get();
+    mac.update(buf, 0, PAYLOAD_LENGTH);
+    try {
+      mac.doFinal(buf, TOKEN_LENGTH);
+    } catch (ShortBufferException e) {
+      return -1;
+    }
+
+    // constant time compare
+    int diff = 0;
+    for (int i = 0; i < 32; i++) {
+      diff |= buf[PAYLOAD_LENGTH + i] ^ buf[TOKEN_LENGTH + i];
+    }
+    if (diff != 0) {
+      return -1;
+    }
 
-    final String token = saltPlusToken + "." + signature;
+    long ts = 0;
+    for (int i = 1 + SALT_LENGTH; i < PAYLOAD_LENGTH; i++) {
+      ts = (ts << 8) | (buf[i] & 0xff);
+    }
+    return ts;
+  }
+
+  /**
+   * Constant time comparison of 2 strings, the time only depends on the length of the input.
+   */
+  private static boolean isEqual(String a, String b) {
+    if (a.length() != b.length()) {
+      return false;
+    }
+    int diff = 0;
+    for (int i = 0; i < a.length(); i++) {
+      diff |= a.charAt(i) ^ b.charAt(i);
+    }
+    return diff == 0;
+  }
+
+  private String generateAndStoreToken(RoutingContext ctx) {
+    final String token = stateless ? generateStatelessToken() : generateToken();
     // a new token was generated add it to the cookie
     ctx.addCookie(
       Cookie.cookie(cookieName, token)
@@ -230,6 +370,10 @@ public class CSRFHandlerImpl implements CSRFHandler {
       return false;
     }
 
+    if (stateless) {
+      return isValidStatelessRequest(ctx, header, cookieValue);
+    }
+
     final byte[] headerBytes = header.getBytes(StandardCharsets.UTF_8);
     final byte[] cookieBytes = cookieValue.getBytes(StandardCharsets.UTF_8);
 
@@ -272,9 +416,7 @@ public class CSRFHandlerImpl implements CSRFHandler {
 
     byte[] saltPlusToken = (tokens[0] + "." + tokens[1]).getBytes(StandardCharsets.US_ASCII);
 
-    synchronized (mac) {
-      saltPlusToken = mac.doFinal(saltPlusToken);
-    }
+    saltPlusToken = mac.get().doFinal(saltPlusToken);
 
     final byte[] signature = BASE64.encode(saltPlusToken);
 
@@ -304,6 +446,29 @@ public class CSRFHandlerImpl implements CSRFHandler {
     return true;
   }
 
+  private boolean isValidStatelessRequest(RoutingContext ctx, String header, String cookieValue) {
+    //Verify that token from header and one from cookie are the same
+    if (!isEqual(header, cookieValue)) {
+      ctx.fail(403, new IllegalArgumentException("Token provided via HTTP Header and via Cookie are not equal"));
+      return false;
+    }
+
+    final long ts = verifyStatelessToken(header);
+
+    if (ts == -1) {
+      ctx.fail(403, new IllegalArgumentException("Token signature does not match"));
+      return false;
+    }
+
+    // validate validity
+    if (System.currentTimeMillis() > ts + timeout) {
+      ctx.fail(403, new IllegalArgumentException("CSRF validity expired"));
+      return false;
+    }
+
+    return true;
+  }
+
   @Override
   public void handle(RoutingContext ctx) {
 
@@ -328,7 +493,16 @@ public class CSRFHandlerImpl implements CSRFHandler {
       case "GET":
         final String token;
 
-        if (session == null) {
+        if (stateless) {
+          // the session is never used, reuse the token of the user agent while it is valid
+          final Cookie cookie = ctx.getCookie(cookieName);
+          final long ts = cookie == null || cookie.getValue() == null ? -1 : verifyStatelessToken(cookie.getValue());
+          if (ts != -1 && !(System.currentTimeMillis() > ts + timeout)) {
+            token = cookie.getValue();
+          } else {
+            token = generateAndStoreToken(ctx);
+          }
+        } else if (session == null) {
           // if there's no session to store values, tokens are issued on every request
           token = generateAndStoreToken(ctx);
         } else {
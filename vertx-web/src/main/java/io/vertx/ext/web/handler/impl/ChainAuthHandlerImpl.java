@@ -3,20 +3,33 @@ package io.vertx.ext.web.handler.impl;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.authentication.AuthenticationProvider;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 public class ChainAuthHandlerImpl extends AuthenticationHandlerImpl<AuthenticationProvider> implements ChainAuthHandler {
 
+  private static final class Stats {
+    final LongAdder count = new LongAdder();
+    final LongAdder failures = new LongAdder();
+    final LongAdder time = new LongAdder();
+  }
+
   private final List<AuthenticationHandlerInternal> handlers = new ArrayList<>();
+  private final List<Stats> stats = new ArrayList<>();
   private final boolean all;
 
   private int willRedirect = -1;
+  private volatile boolean parallel;
+  private volatile boolean ordered;
 
   public ChainAuthHandlerImpl(boolean all) {
     super(null);
@@ -39,16 +52,142 @@ public class ChainAuthHandlerImpl extends AuthenticationHandlerImpl<Authenticati
       willRedirect = handlers.size();
     }
     handlers.add(otherInternal);
+    stats.add(new Stats());
+    return this;
+  }
+
+  @Override
+  public ChainAuthHandler parallel(boolean parallel) {
+    return parallel(parallel, false);
+  }
+
+  @Override
+  public ChainAuthHandler parallel(boolean parallel, boolean ordered) {
+    this.parallel = parallel;
+    this.ordered = ordered;
     return this;
   }
 
+  @Override
+  public synchronized JsonArray stats() {
+    final JsonArray json = new JsonArray();
+    for (int i = 0; i < handlers.size(); i++) {
+      final Stats s = stats.get(i);
+      json.add(new JsonObject()
+        .put("handler", handlers.get(i).getClass().getSimpleName())
+        .put("count", s.count.sum())
+        .put("failures", s.failures.sum())
+        .put("timeNanos", s.time.sum()));
+    }
+    return json;
+  }
+
   @Override
   public void authenticate(RoutingContext context, Handler<AsyncResult<User>> handler) {
     if (handlers.size() == 0) {
       handler.handle(Future.failedFuture("No providers in the auth chain."));
     } else {
-      // iterate all possible authN
-      iterate(0, context, null, null, handler);
+      // a redirecting handler is always the last one and must only run once all the others are known
+      final int concurrent = willRedirect == -1 ? handlers.size() : willRedirect;
+      if (parallel && concurrent > 1) {
+        evaluate(concurrent, ordered, context, handler);
+      } else {
+        // iterate all possible authN
+        iterate(0, context, null, null, handler);
+      }
+    }
+  }
+
+  private void authenticate(final int idx, final RoutingContext ctx, Handler<AsyncResult<User>> handler) {
+    final Stats s = stats.get(idx);
+    final long start = System.nanoTime();
+    handlers.get(idx).authenticate(ctx, res -> {
+      s.time.add(System.nanoTime() - start);
+      s.count.increment();
+      if (res.failed()) {
+        s.failures.increment();
+      }
+      handler.handle(res);
+    });
+  }
+
+  private static boolean isValidationError(Throwable err) {
+    if (err instanceof HttpException) {
+      switch (((HttpException) err).getStatusCode()) {
+        case 302:
+        case 400:
+        case 401:
+        case 403:
+          return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The state of a parallel evaluation, guarded by itself.
+   */
+  private static final class Evaluation {
+    final List<AsyncResult<User>> results;
+    // the next result to resolve in declaration order
+    int next;
+    int received;
+    boolean done;
+
+    Evaluation(int size) {
+      results = new ArrayList<>(Collections.nCopies(size, null));
+    }
+  }
+
+  /**
+   * Starts the first {@code size} handlers at once. Handlers cannot be interrupted, so the results arriving after the
+   * outcome is known are discarded. For {@code all} the first failure fails the chain. For {@code any} the first
+   * success wins, or in {@code ordered} mode the first handler in declaration order that did not fail with a
+   * validation error decides, regardless of which handler completed first. Without a success, the results are resolved
+   * in declaration order: the first error that is not a validation error fails the chain, otherwise the user (or
+   * validation error) of the last handler is the result.
+   */
+  private void evaluate(final int size, final boolean ordered, final RoutingContext ctx, Handler<AsyncResult<User>> handler) {
+    final Evaluation evaluation = new Evaluation(size);
+
+    for (int i = 0; i < size; i++) {
+      final int idx = i;
+      authenticate(idx, ctx, res -> {
+        AsyncResult<User> outcome = null;
+        boolean exhausted = false;
+        synchronized (evaluation) {
+          if (evaluation.done) {
+            return;
+          }
+          evaluation.results.set(idx, res);
+          evaluation.received++;
+          if (all ? res.failed() : res.succeeded() && !ordered) {
+            // for all a single failure aborts the chain, for any a single success ends the validation
+            outcome = res;
+          } else {
+            while (evaluation.next < size && evaluation.results.get(evaluation.next) != null) {
+              final AsyncResult<User> r = evaluation.results.get(evaluation.next);
+              // for any an error that is not a validation error aborts the chain, unless a later handler succeeds
+              if (!all && (r.succeeded() || !isValidationError(r.cause()))) {
+                if (ordered || evaluation.received == size) {
+                  outcome = r;
+                }
+                break;
+              }
+              evaluation.next++;
+            }
+            exhausted = outcome == null && evaluation.next == size;
+          }
+          evaluation.done = outcome != null || exhausted;
+        }
+        if (outcome != null) {
+          handler.handle(outcome);
+        } else if (exhausted) {
+          // continue with the redirecting handler if any
+          final AsyncResult<User> last = evaluation.results.get(size - 1);
+          iterate(size, ctx, last.result(), last.cause(), handler);
+        }
+      });
     }
   }
 
@@ -70,9 +209,7 @@ public class ChainAuthHandlerImpl extends AuthenticationHandlerImpl<Authenticati
     }
 
     // parse the request in order to extract the credentials object
-    final AuthenticationHandlerInternal authHandler = handlers.get(idx);
-
-    authHandler.authenticate(ctx, res -> {
+    authenticate(idx, ctx, res -> {
       if (res.failed()) {
         if (all) {
           // all handlers need to be valid, a single failure is enough to
@@ -80,17 +217,10 @@ public class ChainAuthHandlerImpl extends AuthenticationHandlerImpl<Authenticati
         } else {
           // any handler can be valid, if the response is within a validation error
           // the chain is allowed to proceed, otherwise we must abort.
-          if (res.cause() instanceof HttpException) {
-            final HttpException ex = (HttpException) res.cause();
-            switch (ex.getStatusCode()) {
-              case 302:
-              case 400:
-              case 401:
-              case 403:
-                // try again with next provider since we know what kind of error it is
-                iterate(idx + 1, ctx, null, ex, handler);
-                return;
-            }
+          if (isValidationError(res.cause())) {
+            // try again with next provider since we know what kind of error it is
+            iterate(idx + 1, ctx, null, res.cause(), handler);
+            return;
           }
           // the error is not a validation exception, so we abort regardless
         }
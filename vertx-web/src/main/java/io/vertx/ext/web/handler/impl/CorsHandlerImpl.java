@@ -16,6 +16,7 @@
 
 package io.vertx.ext.web.handler.impl;
 
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
@@ -29,6 +30,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import static io.vertx.core.http.HttpHeaders.*;
@@ -40,14 +42,22 @@ import static io.vertx.core.http.HttpHeaders.*;
  */
 public class CorsHandlerImpl implements CorsHandler {
 
+  private static final CharSequence TRUE = HttpHeaders.createOptimized("true");
+  private static final CharSequence ZERO = HttpHeaders.createOptimized("0");
+  private static final CharSequence ANY = HttpHeaders.createOptimized("*");
+
   private final Pattern allowedOrigin;
-  private Set<Origin> allowedOrigins;
+  private OriginMatcher allowedOrigins;
+  // pattern mode verdicts, bounded by maxCachedOrigins
+  private ConcurrentHashMap<String, Boolean> verdicts;
+  private int maxCachedOrigins;
 
-  private String allowedMethodsString;
-  private String allowedHeadersString;
-  private String exposedHeadersString;
+  // header values are computed once at configuration time
+  private CharSequence allowedMethodsString;
+  private CharSequence allowedHeadersString;
+  private CharSequence exposedHeadersString;
   private boolean allowCredentials;
-  private String maxAgeSeconds;
+  private CharSequence maxAgeSeconds;
   private final Set<String> allowedMethods = new LinkedHashSet<>();
   private final Set<String> allowedHeaders = new LinkedHashSet<>();
   private final Set<String> exposedHeaders = new LinkedHashSet<>();
@@ -77,14 +87,14 @@ public class CorsHandlerImpl implements CorsHandler {
         // we signal any as null
         return this;
       }
-      allowedOrigins = new LinkedHashSet<>();
+      allowedOrigins = new OriginMatcher();
     } else {
       if (origin.equals("*")) {
         // we signal any as null
         throw new IllegalStateException("Cannot mix '*' with explicit origins");
       }
     }
-    allowedOrigins.add(Origin.parse(origin));
+    allowedOrigins.add(origin);
     return this;
   }
 
@@ -94,10 +104,10 @@ public class CorsHandlerImpl implements CorsHandler {
       throw new IllegalStateException("Cannot mix Pattern mode and Origin List mode");
     }
     if (allowedOrigins == null) {
-      allowedOrigins = new LinkedHashSet<>();
+      allowedOrigins = new OriginMatcher();
     }
     for (String origin : origins) {
-      allowedOrigins.add(Origin.parse(origin));
+      allowedOrigins.add(origin);
     }
     return this;
   }
@@ -105,7 +115,7 @@ public class CorsHandlerImpl implements CorsHandler {
   @Override
   public CorsHandler allowedMethod(HttpMethod method) {
     allowedMethods.add(method.name());
-    allowedMethodsString = String.join(",", allowedMethods);
+    allowedMethodsString = HttpHeaders.createOptimized(String.join(",", allowedMethods));
     return this;
   }
 
@@ -114,35 +124,35 @@ public class CorsHandlerImpl implements CorsHandler {
     for (HttpMethod method : methods) {
       allowedMethods.add(method.name());
     }
-    allowedMethodsString = String.join(",", allowedMethods);
+    allowedMethodsString = HttpHeaders.createOptimized(String.join(",", allowedMethods));
     return this;
   }
 
   @Override
   public CorsHandler allowedHeader(String headerName) {
     allowedHeaders.add(headerName);
-    allowedHeadersString = String.join(",", allowedHeaders);
+    allowedHeadersString = HttpHeaders.createOptimized(String.join(",", allowedHeaders));
     return this;
   }
 
   @Override
   public CorsHandler allowedHeaders(Set<String> headerNames) {
     allowedHeaders.addAll(headerNames);
-    allowedHeadersString = String.join(",", allowedHeaders);
+    allowedHeadersString = HttpHeaders.createOptimized(String.join(",", allowedHeaders));
     return this;
   }
 
   @Override
   public CorsHandler exposedHeader(String headerName) {
     exposedHeaders.add(headerName);
-    exposedHeadersString = String.join(",", exposedHeaders);
+    exposedHeadersString = HttpHeaders.createOptimized(String.join(",", exposedHeaders));
     return this;
   }
 
   @Override
   public CorsHandler exposedHeaders(Set<String> headerNames) {
     exposedHeaders.addAll(headerNames);
-    exposedHeadersString = String.join(",", exposedHeaders);
+    exposedHeadersString = HttpHeaders.createOptimized(String.join(",", exposedHeaders));
     return this;
   }
 
@@ -154,7 +164,14 @@ public class CorsHandlerImpl implements CorsHandler {
 
   @Override
   public CorsHandler maxAgeSeconds(int maxAgeSeconds) {
-    this.maxAgeSeconds = maxAgeSeconds == -1 ? null : String.valueOf(maxAgeSeconds);
+    this.maxAgeSeconds = maxAgeSeconds == -1 ? null : HttpHeaders.createOptimized(String.valueOf(maxAgeSeconds));
+    return this;
+  }
+
+  @Override
+  public CorsHandler originCache(int maxSize) {
+    this.maxCachedOrigins = maxSize;
+    this.verdicts = maxSize > 0 ? new ConcurrentHashMap<>() : null;
     return this;
   }
 
@@ -191,7 +208,7 @@ public class CorsHandlerImpl implements CorsHandler {
 
         response
           // for old Safari
-          .putHeader(CONTENT_LENGTH, "0")
+          .putHeader(CONTENT_LENGTH, ZERO)
           .setStatusCode(204)
           .end();
 
@@ -215,7 +232,7 @@ public class CorsHandlerImpl implements CorsHandler {
 
   private void addCredentialsAndOriginHeader(HttpServerResponse response, String origin) {
     if (allowCredentials) {
-      response.putHeader(ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+      response.putHeader(ACCESS_CONTROL_ALLOW_CREDENTIALS, TRUE);
       // Must be exact origin (not '*') in case of credentials
       response.putHeader(ACCESS_CONTROL_ALLOW_ORIGIN, origin);
     } else {
@@ -232,23 +249,29 @@ public class CorsHandlerImpl implements CorsHandler {
     }
 
     if(allowedOrigin != null) {
-      // check for allowed origin pattern match
-      return allowedOrigin.matcher(origin).matches();
-    }
-
-    // check whether origin is contained within allowed origin set
-    for (Origin allowedOrigin : allowedOrigins) {
-      if (allowedOrigin.sameOrigin(origin)) {
-        return true;
+      final ConcurrentHashMap<String, Boolean> verdicts = this.verdicts;
+      if (verdicts == null) {
+        // check for allowed origin pattern match
+        return allowedOrigin.matcher(origin).matches();
       }
+      Boolean verdict = verdicts.get(origin);
+      if (verdict == null) {
+        verdict = allowedOrigin.matcher(origin).matches();
+        // once full, new origins are just matched, so a flood of bogus origins cannot grow the cache
+        if (verdicts.size() < maxCachedOrigins) {
+          verdicts.put(origin, verdict);
+        }
+      }
+      return verdict;
     }
 
-    return false;
+    // check whether origin is contained within allowed origin set
+    return allowedOrigins.matches(origin);
   }
 
-  private String getAllowedOrigin(String origin) {
+  private CharSequence getAllowedOrigin(String origin) {
     if(allowedOrigin == null && allowedOrigins == null) {
-      return "*";
+      return ANY;
     }
 
     return origin;
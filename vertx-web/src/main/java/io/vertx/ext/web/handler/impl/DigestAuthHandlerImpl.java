@@ -22,8 +22,6 @@ import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
-import io.vertx.core.shareddata.LocalMap;
-import io.vertx.core.shareddata.Shareable;
 import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.VertxContextPRNG;
 import io.vertx.ext.auth.htdigest.HtdigestAuth;
@@ -35,10 +33,8 @@ import io.vertx.ext.web.handler.HttpException;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.HashSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.Set;
 
 /**
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
@@ -52,68 +48,43 @@ public class DigestAuthHandlerImpl extends HTTPAuthorizationHandler<HtdigestAuth
    */
   private static final String DEFAULT_NONCE_MAP_NAME = "htdigest.nonces";
 
-  /**
-   * Shareable objects should be immutable.
-   */
-  private static class Nonce implements Shareable {
-    private final long createdAt;
-    private final int count;
-
-    Nonce(int count) {
-      this(System.currentTimeMillis(), count);
-    }
-
-    Nonce(long createdAt, int count) {
-      this.createdAt = createdAt;
-      this.count = count;
-    }
-  }
-
   private static final Pattern PARSER = Pattern.compile("(\\w+)=[\"]?([^\"]*)[\"]?$");
   private static final Pattern SPLITTER = Pattern.compile(",(?=(?:[^\"]|\"[^\"]*\")*$)");
 
-  private static final MessageDigest MD5;
-
-  static {
+  // MessageDigest is not thread safe
+  private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
     try {
-      MD5 = MessageDigest.getInstance("MD5");
+      return MessageDigest.getInstance("MD5");
     } catch (NoSuchAlgorithmException e) {
       throw new RuntimeException(e);
     }
-  }
+  });
 
+  private final Vertx vertx;
   private final VertxContextPRNG random;
-  private final LocalMap<String, Nonce> nonces;
-
   private final long nonceExpireTimeout;
 
-  private long lastExpireRun;
+  private volatile NonceStore nonces;
 
   public DigestAuthHandlerImpl(Vertx vertx, HtdigestAuth authProvider, long nonceExpireTimeout) {
     super(authProvider, Type.DIGEST, authProvider.realm());
+    this.vertx = vertx;
     random = VertxContextPRNG.current(vertx);
-    nonces = vertx.sharedData().getLocalMap(DEFAULT_NONCE_MAP_NAME);
     this.nonceExpireTimeout = nonceExpireTimeout;
+    // handlers with the same timeout share the nonces, even across verticles
+    nonces = vertx.sharedData()
+      .<String, LocalNonceStore>getLocalMap(DEFAULT_NONCE_MAP_NAME)
+      .computeIfAbsent(Long.toString(nonceExpireTimeout), key -> new LocalNonceStore(nonceExpireTimeout));
   }
 
   @Override
-  public void authenticate(RoutingContext context, Handler<AsyncResult<User>> handler) {
-    // clean up nonce
-    long now = System.currentTimeMillis();
-    if (now - lastExpireRun > nonceExpireTimeout / 2) {
-      Set<String> toRemove = new HashSet<>();
-      nonces.forEach((String key, Nonce n) -> {
-        if (n != null && n.createdAt + nonceExpireTimeout < now) {
-          toRemove.add(key);
-        }
-      });
-
-      for (String n : toRemove) {
-        nonces.remove(n);
-      }
-      lastExpireRun = now;
-    }
+  public DigestAuthHandler sharedNonceStore(String mapName) {
+    nonces = new SharedNonceStore(vertx, mapName, nonceExpireTimeout);
+    return this;
+  }
 
+  @Override
+  public void authenticate(RoutingContext context, Handler<AsyncResult<User>> handler) {
     parseAuthorization(context, parseAuthorization -> {
       if (parseAuthorization.failed()) {
         handler.handle(Future.failedFuture(parseAuthorization.cause()));
@@ -121,6 +92,7 @@ public class DigestAuthHandlerImpl extends HTTPAuthorizationHandler<HtdigestAuth
       }
 
       final HtdigestCredentials authInfo = new HtdigestCredentials();
+      final int nc;
 
       try {
         // Split the parameters by comma.
@@ -175,51 +147,52 @@ public class DigestAuthHandlerImpl extends HTTPAuthorizationHandler<HtdigestAuth
           ++i;
         }
 
-        final String nonce = authInfo.getNonce();
-
-        // check for expiration
-        if (!nonces.containsKey(nonce)) {
+        if (authInfo.getNonce() == null) {
           handler.handle(Future.failedFuture(UNAUTHORIZED));
           return;
         }
-
-        // check for nonce counter (prevent replay attack)
-        if (authInfo.getQop() != null) {
-          int nc = Integer.parseInt(authInfo.getNc(), 16);
-          final Nonce n = nonces.get(nonce);
-          if (nc <= n.count) {
-            handler.handle(Future.failedFuture(UNAUTHORIZED));
-            return;
-          }
-          // update the nounce count
-          nonces.put(nonce, new Nonce(n.createdAt, nc));
-        }
-
+        // the nonce counter is only sent along with qop
+        nc = authInfo.getQop() != null ? Integer.parseInt(authInfo.getNc(), 16) : -1;
       } catch (RuntimeException e) {
         handler.handle(Future.failedFuture(e));
         return;
       }
 
-      // validate the opaque value
-      final Session session = context.session();
-      if (session != null) {
-        String opaque = (String) session.data().get("opaque");
-        if (opaque != null && !opaque.equals(authInfo.getOpaque())) {
+      // check for expiration and replay
+      nonces.use(authInfo.getNonce(), nc).onComplete(use -> {
+        if (use.failed()) {
+          handler.handle(Future.failedFuture(use.cause()));
+          return;
+        }
+        if (!use.result()) {
           handler.handle(Future.failedFuture(UNAUTHORIZED));
           return;
         }
+        verify(context, authInfo, handler);
+      });
+    });
+  }
+
+  private void verify(RoutingContext context, HtdigestCredentials authInfo, Handler<AsyncResult<User>> handler) {
+    // validate the opaque value
+    final Session session = context.session();
+    if (session != null) {
+      String opaque = (String) session.data().get("opaque");
+      if (opaque != null && !opaque.equals(authInfo.getOpaque())) {
+        handler.handle(Future.failedFuture(UNAUTHORIZED));
+        return;
       }
+    }
 
-      // we now need to pass some extra info
-      authInfo.setMethod(context.request().method().name());
+    // we now need to pass some extra info
+    authInfo.setMethod(context.request().method().name());
 
-      authProvider.authenticate(authInfo, authn -> {
-        if (authn.failed()) {
-          handler.handle(Future.failedFuture(new HttpException(401, authn.cause())));
-        } else {
-          handler.handle(authn);
-        }
-      });
+    authProvider.authenticate(authInfo, authn -> {
+      if (authn.failed()) {
+        handler.handle(Future.failedFuture(new HttpException(401, authn.cause())));
+      } else {
+        handler.handle(authn);
+      }
     });
   }
 
@@ -230,7 +203,7 @@ public class DigestAuthHandlerImpl extends HTTPAuthorizationHandler<HtdigestAuth
     // generate nonce
     String nonce = md5(bytes);
     // save it
-    nonces.put(nonce, new Nonce(0));
+    nonces.add(nonce);
 
     // generate opaque
     String opaque = null;
@@ -260,8 +233,7 @@ public class DigestAuthHandlerImpl extends HTTPAuthorizationHandler<HtdigestAuth
     return new String(hexChars);
   }
 
-  private static synchronized String md5(byte[] payload) {
-    MD5.reset();
-    return bytesToHex(MD5.digest(payload));
+  private static String md5(byte[] payload) {
+    return bytesToHex(MD5.get().digest(payload));
   }
 }
@@ -39,6 +39,7 @@ public class JWTAuthHandlerImpl extends HTTPAuthorizationHandler<JWTAuth> implem
 
   private final List<String> scopes;
   private final String delimiter;
+  private UserCache cache;
 
   public JWTAuthHandlerImpl(JWTAuth authProvider, String realm) {
     super(authProvider, Type.BEARER, realm);
@@ -50,6 +51,7 @@ public class JWTAuthHandlerImpl extends HTTPAuthorizationHandler<JWTAuth> implem
     super(base.authProvider, Type.BEARER, base.realm);
     this.scopes = scopes;
     this.delimiter = delimiter;
+    this.cache = base.cache;
   }
 
   @Override
@@ -80,13 +82,21 @@ public class JWTAuthHandlerImpl extends HTTPAuthorizationHandler<JWTAuth> implem
         return;
       }
 
-      authProvider.authenticate(new TokenCredentials(token), authn -> {
+      final Handler<AsyncResult<User>> onAuthn = authn -> {
         if (authn.failed()) {
           handler.handle(Future.failedFuture(new HttpException(401, authn.cause())));
         } else {
           handler.handle(authn);
         }
-      });
+      };
+
+      if (cache != null) {
+        cache
+          .authenticate(context.vertx(), UserCache.digest(token), () -> authProvider.authenticate(new TokenCredentials(token)))
+          .onComplete(onAuthn);
+      } else {
+        authProvider.authenticate(new TokenCredentials(token), onAuthn);
+      }
     });
   }
 
@@ -107,6 +117,12 @@ public class JWTAuthHandlerImpl extends HTTPAuthorizationHandler<JWTAuth> implem
     return new JWTAuthHandlerImpl(this, scopes, delimeter);
   }
 
+  @Override
+  public JWTAuthHandler tokenCache(int maxSize, long maxAge) {
+    this.cache = new UserCache(maxSize, maxAge);
+    return this;
+  }
+
   /**
    * The default behavior for post-authentication
    */
@@ -0,0 +1,342 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.impl;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Route;
+import io.vertx.ext.web.RoutingContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes access log entries as single line JSON objects, using the Elastic Common Schema field names.
+ *
+ * Entries are written as UTF-8 straight into a per thread reusable byte buffer, field names are pre-encoded once and
+ * only the configured fields are emitted. Missing values (for example a request without trace headers) are omitted.
+ */
+final class JsonLogFormat {
+
+  enum Field {
+    TIMESTAMP("@timestamp"),
+    METHOD("http.request.method"),
+    PATH("url.path"),
+    ROUTE("http.route"),
+    STATUS("http.response.status_code"),
+    BYTES("http.response.body.bytes"),
+    DURATION("event.duration"),
+    REMOTE("client.address"),
+    USER_AGENT("user_agent.original"),
+    TRACE_ID("trace.id"),
+    SPAN_ID("span.id");
+
+    final String key;
+    // the encoded '"key":' prefix
+    final byte[] prefix;
+
+    Field(String key) {
+      this.key = key;
+      this.prefix = ('"' + key + "\":").getBytes(StandardCharsets.UTF_8);
+    }
+
+    static Field of(String key) {
+      for (Field field : values()) {
+        if (field.key.equals(key)) {
+          return field;
+        }
+      }
+      throw new IllegalArgumentException("Unknown log field: " + key);
+    }
+  }
+
+  private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+  private static final DateTimeFormatter ISO_SECONDS = DateTimeFormatter
+    .ofPattern("yyyy-MM-dd'T'HH:mm:ss.")
+    .withZone(ZoneOffset.UTC);
+
+  private static final ThreadLocal<Output> OUTPUT = ThreadLocal.withInitial(Output::new);
+
+  /** the timestamp up to the seconds only changes once per second
+   */
+  private static final class CachedSecond {
+    final long second;
+    final byte[] value;
+
+    CachedSecond(long second, byte[] value) {
+      this.second = second;
+      this.value = value;
+    }
+  }
+
+  private static volatile CachedSecond cachedSecond = new CachedSecond(Long.MIN_VALUE, null);
+
+  private final Field[] fields;
+
+  JsonLogFormat() {
+    this.fields = Field.values();
+  }
+
+  JsonLogFormat(List<String> fields) {
+    this.fields = new Field[fields.size()];
+    for (int i = 0; i < this.fields.length; i++) {
+      this.fields[i] = Field.of(fields.get(i));
+    }
+  }
+
+  /**
+   * Encode an entry into the per thread buffer, the returned output is only valid until the next call on the same
+   * thread.
+   */
+  Output encode(RoutingContext context, long timestamp, long durationNanos, String remoteClient, HttpMethod method, String uri, int status, long contentLength) {
+    final Output out = OUTPUT.get();
+    out.len = 0;
+    out.write('{');
+
+    final MultiMap headers = context.request().headers();
+    boolean first = true;
+
+    for (Field field : fields) {
+      switch (field) {
+        case TIMESTAMP:
+          first = key(out, field, first);
+          out.write('"');
+          writeTimestamp(out, timestamp);
+          out.write('"');
+          break;
+        case METHOD:
+          first = key(out, field, first);
+          writeString(out, method.name());
+          break;
+        case PATH:
+          if (uri != null) {
+            first = key(out, field, first);
+            final int query = uri.indexOf('?');
+            writeString(out, uri, query == -1 ? uri.length() : query);
+          }
+          break;
+        case ROUTE:
+          final String route = route(context);
+          if (route != null) {
+            first = key(out, field, first);
+            writeString(out, route);
+          }
+          break;
+        case STATUS:
+          first = key(out, field, first);
+          writeLong(out, status);
+          break;
+        case BYTES:
+          first = key(out, field, first);
+          writeLong(out, contentLength);
+          break;
+        case DURATION:
+          first = key(out, field, first);
+          writeLong(out, durationNanos);
+          break;
+        case REMOTE:
+          if (remoteClient != null) {
+            first = key(out, field, first);
+            writeString(out, remoteClient);
+          }
+          break;
+        case USER_AGENT:
+          final String userAgent = headers.get("user-agent");
+          if (userAgent != null) {
+            first = key(out, field, first);
+            writeString(out, userAgent);
+          }
+          break;
+        case TRACE_ID:
+          final String traceId = traceId(headers);
+          if (traceId != null) {
+            first = key(out, field, first);
+            writeString(out, traceId);
+          }
+          break;
+        case SPAN_ID:
+          final String spanId = spanId(headers);
+          if (spanId != null) {
+            first = key(out, field, first);
+            writeString(out, spanId);
+          }
+          break;
+      }
+    }
+
+    out.write('}');
+    return out;
+  }
+
+  private static String route(RoutingContext context) {
+    final Route route = context.currentRoute();
+    if (route == null) {
+      return null;
+    }
+    final String path = route.getPath();
+    return path != null ? path : route.getName();
+  }
+
+  // W3C trace context: version-traceid-spanid-flags
+  private static String traceId(MultiMap headers) {
+    final String traceparent = headers.get("traceparent");
+    if (traceparent != null && traceparent.length() >= 55) {
+      return traceparent.substring(3, 35);
+    }
+    return headers.get("x-b3-traceid");
+  }
+
+  private static String spanId(MultiMap headers) {
+    final String traceparent = headers.get("traceparent");
+    if (traceparent != null && traceparent.length() >= 55) {
+      return traceparent.substring(36, 52);
+    }
+    return headers.get("x-b3-spanid");
+  }
+
+  private static boolean key(Output out, Field field, boolean first) {
+    if (!first) {
+      out.write(',');
+    }
+    out.write(field.prefix);
+    return false;
+  }
+
+  private static void writeTimestamp(Output out, long timestamp) {
+    final long second = Math.floorDiv(timestamp, 1000);
+    CachedSecond cached = cachedSecond;
+    if (cached.second != second) {
+      // races are harmless, at worst the same value is computed twice
+      cached = new CachedSecond(second, ISO_SECONDS.format(Instant.ofEpochSecond(second)).getBytes(StandardCharsets.US_ASCII));
+      cachedSecond = cached;
+    }
+    out.write(cached.value);
+    // second is floored, so this is always in [0, 999]
+    final int millis = (int) (timestamp - second * 1000);
+    out.write('0' + millis / 100);
+    out.write('0' + (millis / 10) % 10);
+    out.write('0' + millis % 10);
+    out.write('Z');
+  }
+
+  private static void writeLong(Output out, long value) {
+    if (value == Long.MIN_VALUE) {
+      writeAscii(out, Long.toString(value));
+      return;
+    }
+    if (value < 0) {
+      out.write('-');
+      value = -value;
+    }
+    final int start = out.len;
+    do {
+      out.write((int) ('0' + value % 10));
+      value /= 10;
+    } while (value != 0);
+    // digits were written least significant first
+    for (int i = start, j = out.len - 1; i < j; i++, j--) {
+      final byte tmp = out.buf[i];
+      out.buf[i] = out.buf[j];
+      out.buf[j] = tmp;
+    }
+  }
+
+  private static void writeAscii(Output out, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      out.write(value.charAt(i));
+    }
+  }
+
+  private static void writeString(Output out, String value) {
+    writeString(out, value, value.length());
+  }
+
+  private static void writeString(Output out, String value, int end) {
+    out.write('"');
+    for (int i = 0; i < end; i++) {
+      final char c = value.charAt(i);
+      if (c < 0x80) {
+        if (c == '"' || c == '\\') {
+          out.write('\\');
+          out.write(c);
+        } else if (c < 0x20) {
+          out.write('\\');
+          out.write('u');
+          out.write('0');
+          out.write('0');
+          out.write(HEX[c >> 4]);
+          out.write(HEX[c & 0xf]);
+        } else {
+          out.write(c);
+        }
+      } else if (c < 0x800) {
+        out.write(0xc0 | (c >> 6));
+        out.write(0x80 | (c & 0x3f));
+      } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(value.charAt(i + 1))) {
+        final int cp = Character.toCodePoint(c, value.charAt(++i));
+        out.write(0xf0 | (cp >> 18));
+        out.write(0x80 | ((cp >> 12) & 0x3f));
+        out.write(0x80 | ((cp >> 6) & 0x3f));
+        out.write(0x80 | (cp & 0x3f));
+      } else if (Character.isSurrogate(c)) {
+        // unpaired surrogate
+        out.write('?');
+      } else {
+        out.write(0xe0 | (c >> 12));
+        out.write(0x80 | ((c >> 6) & 0x3f));
+        out.write(0x80 | (c & 0x3f));
+      }
+    }
+    out.write('"');
+  }
+
+  /**
+   * A growable byte buffer, reused by all the entries encoded on a thread.
+   */
+  static final class Output {
+    private byte[] buf = new byte[512];
+    private int len;
+
+    private void write(int b) {
+      if (len == buf.length) {
+        buf = Arrays.copyOf(buf, buf.length << 1);
+      }
+      buf[len++] = (byte) b;
+    }
+
+    private void write(byte[] bytes) {
+      if (len + bytes.length > buf.length) {
+        buf = Arrays.copyOf(buf, Math.max(buf.length << 1, len + bytes.length));
+      }
+      System.arraycopy(bytes, 0, buf, len, bytes.length);
+      len += bytes.length;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buf, len);
+    }
+
+    @Override
+    public String toString() {
+      return new String(buf, 0, len, StandardCharsets.UTF_8);
+    }
+  }
+}
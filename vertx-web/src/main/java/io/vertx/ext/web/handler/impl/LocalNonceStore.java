@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link NonceStore} local to the vert.x instance, it is safe to share it among handlers running on different event
+ * loops.
+ *
+ * Nonces are grouped in time buckets, each covering a fraction of the expire timeout. Expiration is then a matter of
+ * dropping a whole bucket once it falls out of the window instead of scanning every nonce. Nonce counters are updated
+ * with compare and set, so no locks are taken on the request path.
+ */
+final class LocalNonceStore implements NonceStore, Shareable {
+
+  private static final int BUCKETS = 8;
+
+  private static final class Nonce {
+    final long createdAt;
+    final AtomicInteger count = new AtomicInteger();
+
+    Nonce(long createdAt) {
+      this.createdAt = createdAt;
+    }
+  }
+
+  private static final class Bucket {
+    final long epoch;
+    final ConcurrentHashMap<String, Nonce> nonces = new ConcurrentHashMap<>();
+
+    Bucket(long epoch) {
+      this.epoch = epoch;
+    }
+  }
+
+  private static final Future<Boolean> TRUE = Future.succeededFuture(true);
+  private static final Future<Boolean> FALSE = Future.succeededFuture(false);
+
+  private final long expireTimeout;
+  private final long bucketWidth;
+  // number of buckets a nonce created in the current bucket may still be alive
+  private final int span;
+  private final AtomicReferenceArray<Bucket> ring;
+
+  LocalNonceStore(long expireTimeout) {
+    this.expireTimeout = expireTimeout;
+    this.bucketWidth = Math.max(1, expireTimeout / BUCKETS);
+    this.span = (int) ((Math.max(0, expireTimeout) + bucketWidth - 1) / bucketWidth) + 1;
+    // one extra slot, so the bucket being filled never overwrites one still in the window
+    this.ring = new AtomicReferenceArray<>(span + 1);
+  }
+
+  @Override
+  public void add(String nonce) {
+    final long now = System.currentTimeMillis();
+    bucket(now / bucketWidth).nonces.put(nonce, new Nonce(now));
+  }
+
+  @Override
+  public Future<Boolean> use(String nonce, int nc) {
+    final Nonce n = lookup(nonce);
+    if (n == null) {
+      return FALSE;
+    }
+    if (nc < 0) {
+      return TRUE;
+    }
+    // check for nonce counter (prevent replay attack)
+    while (true) {
+      final int count = n.count.get();
+      if (nc <= count) {
+        return FALSE;
+      }
+      if (n.count.compareAndSet(count, nc)) {
+        return TRUE;
+      }
+    }
+  }
+
+  private Nonce lookup(String nonce) {
+    final long now = System.currentTimeMillis();
+    final long current = now / bucketWidth;
+    // the nonce can only be in the buckets that still intersect the expire window
+    for (long epoch = current; epoch >= current - span; epoch--) {
+      final Bucket bucket = ring.get(slot(epoch));
+      if (bucket != null && bucket.epoch == epoch) {
+        final Nonce n = bucket.nonces.get(nonce);
+        if (n != null) {
+          return n.createdAt + expireTimeout < now ? null : n;
+        }
+      }
+    }
+    return null;
+  }
+
+  private Bucket bucket(long epoch) {
+    final int slot = slot(epoch);
+    while (true) {
+      final Bucket bucket = ring.get(slot);
+      if (bucket != null && bucket.epoch == epoch) {
+        return bucket;
+      }
+      if (bucket != null && bucket.epoch > epoch) {
+        // a (very) late writer, this nonce would be expired anyway
+        return new Bucket(epoch);
+      }
+      // replacing the slot drops the expired bucket at once
+      final Bucket fresh = new Bucket(epoch);
+      if (ring.compareAndSet(slot, bucket, fresh)) {
+        return fresh;
+      }
+    }
+  }
+
+  private int slot(long epoch) {
+    return (int) (epoch % ring.length());
+  }
+}
@@ -17,11 +17,13 @@
 package io.vertx.ext.web.handler.impl;
 
 import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpVersion;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.SocketAddress;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.LoggerFormat;
@@ -29,6 +31,7 @@ import io.vertx.ext.web.handler.LoggerFormatter;
 import io.vertx.ext.web.handler.LoggerHandler;
 import io.vertx.ext.web.impl.Utils;
 
+import java.util.List;
 import java.util.function.Function;
 
 /** # Logger
@@ -39,16 +42,38 @@ import java.util.function.Function;
  * 3. TINY
  *
  * Default tries to log in a format similar to Apache log format, while the other 2 are more suited to development mode.
+ * For log pipelines, the JSON format emits one JSON object per line, with a configurable list of fields.
  * The logging depends on Vert.x logger settings and the severity of the error, so for errors with status greater or
  * equal to 500 the fatal severity is used, for status greater or equal to 400 the error severity is used, for status
  * greater or equal to 300 warn is used and for status above 100 info is used.
  *
+ * Lines are formatted into a per thread reusable buffer. Optionally, lines can be handed over to an
+ * {@link AccessLogWriter} which writes them in batches to a file or the standard output outside the event loop, in
+ * this case the Vert.x logger is not used.
+ *
  * @author <a href="http://pmlopes@gmail.com">Paulo Lopes</a>
  */
 public class LoggerHandlerImpl implements LoggerHandler {
 
   private static final Logger LOG = LoggerFactory.getLogger(LoggerHandlerImpl.class);
 
+  // lines are built on the event loop, so a buffer per thread can be reused across requests
+  private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+  /** the formatted date only changes once per second, so it is shared across all requests logged in that second
+   */
+  private static final class CachedDate {
+    final long second;
+    final String value;
+
+    CachedDate(long second, String value) {
+      this.second = second;
+      this.value = value;
+    }
+  }
+
+  private static volatile CachedDate cachedDate = new CachedDate(-1, null);
+
   /** log before request or after
    */
   private final boolean immediate;
@@ -59,10 +84,15 @@ public class LoggerHandlerImpl implements LoggerHandler {
 
   private Function<HttpServerRequest, String> customFormatter;
   private LoggerFormatter logFormatter;
+  private JsonLogFormat jsonFormat;
+  private volatile AccessLogWriter writer;
 
   public LoggerHandlerImpl(boolean immediate, LoggerFormat format) {
     this.immediate = immediate;
     this.format = format;
+    if (format == LoggerFormat.JSON) {
+      this.jsonFormat = new JsonLogFormat();
+    }
   }
 
   public LoggerHandlerImpl(LoggerFormat format) {
@@ -76,7 +106,7 @@ public class LoggerHandlerImpl implements LoggerHandler {
     return inetSocketAddress.host();
   }
 
-  private void log(RoutingContext context, long timestamp, String remoteClient, HttpVersion version, HttpMethod method, String uri) {
+  private void log(RoutingContext context, long timestamp, long start, String remoteClient, HttpVersion version, HttpMethod method, String uri) {
     HttpServerRequest request = context.request();
     long contentLength = 0;
     if (immediate) {
@@ -104,10 +134,24 @@ public class LoggerHandlerImpl implements LoggerHandler {
         break;
     }
 
-    final MultiMap headers = request.headers();
     int status = request.response().getStatusCode();
+
+    if (format == LoggerFormat.JSON) {
+      final JsonLogFormat.Output out = jsonFormat.encode(context, timestamp, System.nanoTime() - start, remoteClient, method, uri, status, contentLength);
+      final AccessLogWriter writer = this.writer;
+      if (writer != null) {
+        writer.offer(out.toByteArray());
+      } else {
+        doLog(status, out.toString());
+      }
+      return;
+    }
+
+    final MultiMap headers = request.headers();
     String message = null;
 
+    final StringBuilder sb;
+
     switch (format) {
       case DEFAULT:
         // as per RFC1945 the header is referer but it is not mandatory some implementations use referrer
@@ -116,34 +160,27 @@ public class LoggerHandlerImpl implements LoggerHandler {
         referrer = referrer == null ? "-" : referrer;
         userAgent = userAgent == null ? "-" : userAgent;
 
-        message = String.format("%s - - [%s] \"%s %s %s\" %d %d \"%s\" \"%s\"",
-          remoteClient,
-          Utils.formatRFC1123DateTime(timestamp),
-          method,
-          uri,
-          versionFormatted,
-          status,
-          contentLength,
-          referrer,
-          userAgent);
+        sb = buffer()
+          .append(remoteClient).append(" - - [").append(formatDate(timestamp)).append("] \"")
+          .append(method).append(' ').append(uri).append(' ').append(versionFormatted).append("\" ")
+          .append(status).append(' ').append(contentLength)
+          .append(" \"").append(referrer).append("\" \"").append(userAgent).append('"');
+        message = sb.toString();
         break;
       case SHORT:
-        message = String.format("%s - %s %s %s %d %d - %d ms",
-          remoteClient,
-          method,
-          uri,
-          versionFormatted,
-          status,
-          contentLength,
-          (System.currentTimeMillis() - timestamp));
+        sb = buffer()
+          .append(remoteClient).append(" - ")
+          .append(method).append(' ').append(uri).append(' ').append(versionFormatted).append(' ')
+          .append(status).append(' ').append(contentLength)
+          .append(" - ").append(System.currentTimeMillis() - timestamp).append(" ms");
+        message = sb.toString();
         break;
       case TINY:
-        message = String.format("%s %s %d %d - %d ms",
-          method,
-          uri,
-          status,
-          contentLength,
-          (System.currentTimeMillis() - timestamp));
+        sb = buffer()
+          .append(method).append(' ').append(uri).append(' ')
+          .append(status).append(' ').append(contentLength)
+          .append(" - ").append(System.currentTimeMillis() - timestamp).append(" ms");
+        message = sb.toString();
         break;
       case CUSTOM:
         try {
@@ -158,9 +195,34 @@ public class LoggerHandlerImpl implements LoggerHandler {
           message = e.getMessage();
         }
     }
+
+    final AccessLogWriter writer = this.writer;
+    if (writer != null) {
+      if (message != null) {
+        writer.offer(message);
+      }
+      return;
+    }
     doLog(status, message);
   }
 
+  private static StringBuilder buffer() {
+    final StringBuilder sb = BUFFER.get();
+    sb.setLength(0);
+    return sb;
+  }
+
+  private static String formatDate(long timestamp) {
+    final long second = timestamp / 1000;
+    CachedDate date = cachedDate;
+    if (date.second != second) {
+      // races are harmless, at worst the same value is computed twice
+      date = new CachedDate(second, Utils.formatRFC1123DateTime(second * 1000));
+      cachedDate = date;
+    }
+    return date.value;
+  }
+
   protected void doLog(int status, String message) {
     if (status >= 500) {
       LOG.error(message);
@@ -175,15 +237,16 @@ public class LoggerHandlerImpl implements LoggerHandler {
   public void handle(RoutingContext context) {
     // common logging data
     long timestamp = System.currentTimeMillis();
+    long start = System.nanoTime();
     String remoteClient = getClientAddress(context.request().remoteAddress());
     HttpMethod method = context.request().method();
     String uri = context.request().uri();
     HttpVersion version = context.request().version();
 
     if (immediate) {
-      log(context, timestamp, remoteClient, version, method, uri);
+      log(context, timestamp, start, remoteClient, version, method, uri);
     } else {
-      context.addBodyEndHandler(v -> log(context, timestamp, remoteClient, version, method, uri));
+      context.addBodyEndHandler(v -> log(context, timestamp, start, remoteClient, version, method, uri));
     }
 
     context.next();
@@ -211,4 +274,30 @@ public class LoggerHandlerImpl implements LoggerHandler {
 
     return this;
   }
+
+  @Override
+  public LoggerHandler jsonFields(List<String> fields) {
+    if (format != LoggerFormat.JSON) {
+      throw new IllegalStateException("Setting the fields requires the handler to be set to JSON format");
+    }
+
+    this.jsonFormat = new JsonLogFormat(fields);
+
+    return this;
+  }
+
+  @Override
+  public LoggerHandler writeAsync(Vertx vertx, String path, int queueSize) {
+    if (queueSize <= 0) {
+      throw new IllegalArgumentException("queueSize must be > 0");
+    }
+    this.writer = AccessLogWriter.get(vertx, path, queueSize);
+    return this;
+  }
+
+  @Override
+  public JsonObject logStats() {
+    final AccessLogWriter writer = this.writer;
+    return writer == null ? new JsonObject() : writer.stats();
+  }
 }
@@ -16,25 +16,138 @@
 package io.vertx.ext.web.handler.impl;
 
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.HttpException;
 import io.vertx.ext.web.handler.MultiTenantHandler;
 
-import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 /**
+ * Tenants are resolved through an immutable dispatch table, mutations copy the table and swap it atomically, so
+ * request dispatching never locks. With the built-in extractors the tenant is looked up directly in the raw request
+ * value, without allocating the tenant id.
+ *
+ * Each tenant keeps request, latency and rejection counters, and may be limited to a number of concurrent requests,
+ * over the limit requests fail with a {@code 429} so a noisy tenant cannot starve the others.
+ *
  * @author <a href="http://pmlopes@gmail.com">Paulo Lopes</a>
  */
 public class MultiTenantHandlerImpl implements MultiTenantHandler {
 
-  private final Map<String, Handler<RoutingContext>> handlerMap = new ConcurrentHashMap<>();
+  private static final HttpException TOO_MANY_REQUESTS = new HttpException(429);
+
+  private static final class Tenant {
+    final String id;
+    final Handler<RoutingContext> handler;
+    final int maxConcurrent;
+
+    final AtomicInteger active = new AtomicInteger();
+    final LongAdder requests = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder timeNanos = new LongAdder();
+
+    Tenant(String id, Handler<RoutingContext> handler, int maxConcurrent) {
+      this.id = id;
+      this.handler = handler;
+      this.maxConcurrent = maxConcurrent;
+    }
+
+    JsonObject toJson() {
+      return new JsonObject()
+        .put("requests", requests.sum())
+        .put("active", active.get())
+        .put("rejected", rejected.sum())
+        .put("timeNanos", timeNanos.sum());
+    }
+  }
+
+  /**
+   * Immutable open addressing table, hashes are compatible with {@link String#hashCode()} so tenants can be looked up
+   * by a range of any char sequence.
+   */
+  private static final class Table {
+    static final Table EMPTY = new Table(new Tenant[0]);
+
+    final Tenant[] tenants;
+    final Tenant[] slots;
+    final int mask;
+
+    Table(Tenant[] tenants) {
+      this.tenants = tenants;
+      // keep the load factor under 0.5
+      int size = 2;
+      while (size < tenants.length * 2) {
+        size <<= 1;
+      }
+      this.slots = new Tenant[size];
+      this.mask = size - 1;
+      for (Tenant tenant : tenants) {
+        int i = tenant.id.hashCode() & mask;
+        while (slots[i] != null) {
+          i = (i + 1) & mask;
+        }
+        slots[i] = tenant;
+      }
+    }
+
+    Tenant get(CharSequence seq, int start, int end) {
+      int hash = 0;
+      for (int i = start; i < end; i++) {
+        hash = 31 * hash + seq.charAt(i);
+      }
+      final int len = end - start;
+      for (int i = hash & mask; ; i = (i + 1) & mask) {
+        final Tenant tenant = slots[i];
+        if (tenant == null) {
+          return null;
+        }
+        if (tenant.id.length() == len && matches(tenant.id, seq, start, len)) {
+          return tenant;
+        }
+      }
+    }
+
+    Table with(Tenant tenant) {
+      final Tenant[] copy = new Tenant[tenants.length + 1];
+      System.arraycopy(tenants, 0, copy, 0, tenants.length);
+      copy[tenants.length] = tenant;
+      return new Table(copy);
+    }
+
+    Table without(String id) {
+      if (get(id, 0, id.length()) == null) {
+        return this;
+      }
+      final Tenant[] copy = new Tenant[tenants.length - 1];
+      int j = 0;
+      for (Tenant tenant : tenants) {
+        if (!tenant.id.equals(id)) {
+          copy[j++] = tenant;
+        }
+      }
+      return new Table(copy);
+    }
+
+    private static boolean matches(String id, CharSequence seq, int start, int len) {
+      for (int i = 0; i < len; i++) {
+        if (id.charAt(i) != seq.charAt(start + i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private volatile Table table = Table.EMPTY;
 
   private final Function<RoutingContext, String> tenantExtractor;
   private final String contextKey;
 
-  private Handler<RoutingContext> defaultHandler;
+  private volatile Tenant defaultTenant;
 
   public MultiTenantHandlerImpl(Function<RoutingContext, String> tenantExtractor, String contextKey) {
     this.tenantExtractor = Objects.requireNonNull(tenantExtractor);
@@ -43,48 +156,109 @@ public class MultiTenantHandlerImpl implements MultiTenantHandler {
 
   @Override
   public MultiTenantHandler addTenantHandler(String tenant, Handler<RoutingContext> handler) {
+    return addTenantHandler(tenant, handler, -1);
+  }
+
+  @Override
+  public synchronized MultiTenantHandler addTenantHandler(String tenant, Handler<RoutingContext> handler, int maxConcurrent) {
     Objects.requireNonNull(tenant);
     Objects.requireNonNull(handler);
 
-    if (handlerMap.put(tenant, handler) != null) {
+    if (table.get(tenant, 0, tenant.length()) != null) {
       throw new IllegalStateException("tenant '" + tenant + "' already present");
     }
+    table = table.with(new Tenant(tenant, handler, maxConcurrent));
     return this;
   }
 
   @Override
-  public MultiTenantHandler removeTenant(String tenant) {
+  public synchronized MultiTenantHandler removeTenant(String tenant) {
     Objects.requireNonNull(tenant);
 
-    handlerMap.remove(tenant);
+    table = table.without(tenant);
     return this;
   }
 
   @Override
   public MultiTenantHandler addDefaultHandler(Handler<RoutingContext> handler) {
     Objects.requireNonNull(handler);
-    this.defaultHandler = handler;
+    this.defaultTenant = new Tenant("default", handler, -1);
     return this;
   }
 
+  @Override
+  public JsonObject stats() {
+    final JsonObject json = new JsonObject();
+    for (Tenant tenant : table.tenants) {
+      json.put(tenant.id, tenant.toJson());
+    }
+    final Tenant defaultTenant = this.defaultTenant;
+    if (defaultTenant != null) {
+      json.put(defaultTenant.id, defaultTenant.toJson());
+    }
+    return json;
+  }
+
   @Override
   public void handle(RoutingContext ctx) {
-    final String tenant = tenantExtractor.apply(ctx);
-    final Handler<RoutingContext> handler =
-      tenant == null ?
-        defaultHandler :
-        handlerMap.getOrDefault(tenant, defaultHandler);
+    Tenant tenant = lookup(ctx);
+    if (tenant == null) {
+      tenant = defaultTenant;
+    }
 
-    if (handler != null) {
+    if (tenant != null) {
       // there's a handler for this tenant and the name is default it we're
       // falling back to the default handler
-      ctx.put(contextKey, handler == defaultHandler ? "default" : tenant);
-      // continue as usual
-      handler.handle(ctx);
+      dispatch(ctx, tenant);
     } else {
       // no handler found, this handle is not applicable
       // continue with the chain
       ctx.next();
     }
   }
+
+  private Tenant lookup(RoutingContext ctx) {
+    final Table table = this.table;
+
+    if (tenantExtractor instanceof TenantExtractor) {
+      final TenantExtractor extractor = (TenantExtractor) tenantExtractor;
+      final CharSequence source = extractor.source(ctx);
+      if (source == null) {
+        return null;
+      }
+      final long range = extractor.locate(source);
+      if (range == TenantExtractor.NOT_FOUND) {
+        return null;
+      }
+      return table.get(source, TenantExtractor.start(range), TenantExtractor.end(range));
+    }
+
+    final String tenant = tenantExtractor.apply(ctx);
+    return tenant == null ? null : table.get(tenant, 0, tenant.length());
+  }
+
+  private void dispatch(RoutingContext ctx, Tenant tenant) {
+    tenant.requests.increment();
+
+    if (tenant.maxConcurrent > 0) {
+      if (tenant.active.incrementAndGet() > tenant.maxConcurrent) {
+        tenant.active.decrementAndGet();
+        tenant.rejected.increment();
+        ctx.fail(TOO_MANY_REQUESTS);
+        return;
+      }
+    } else {
+      tenant.active.incrementAndGet();
+    }
+
+    final long start = System.nanoTime();
+    ctx.addEndHandler(v -> {
+      tenant.active.decrementAndGet();
+      tenant.timeNanos.add(System.nanoTime() - start);
+    });
+
+    ctx.put(contextKey, tenant.id);
+    // continue as usual
+    tenant.handler.handle(ctx);
+  }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.impl;
+
+import io.vertx.core.Future;
+
+/**
+ * Keeps track of the nonces issued by a {@link DigestAuthHandlerImpl} and of the last nonce count used with each of
+ * them, in order to detect expired nonces and replayed requests.
+ */
+interface NonceStore {
+
+  /**
+   * Register a freshly issued nonce.
+   *
+   * @param nonce the nonce
+   */
+  void add(String nonce);
+
+  /**
+   * Verify that the nonce is known and not expired and, when a nonce count is given, that it is greater than the last
+   * seen count for the nonce. On success the count is updated atomically, so a count can only be used once.
+   *
+   * @param nonce the nonce
+   * @param nc the nonce count or {@code -1} when the client did not send one
+   * @return future true when the nonce can be used.
+   */
+  Future<Boolean> use(String nonce, int nc);
+}
@@ -61,6 +61,7 @@ public class OAuth2AuthHandlerImpl extends HTTPAuthorizationHandler<OAuth2Auth>
   private int pkce = -1;
   // explicit signal that tokens are handled as bearer only (meaning, no backend server known)
   private boolean bearerOnly = true;
+  private UserCache cache;
 
   public OAuth2AuthHandlerImpl(Vertx vertx, OAuth2Auth authProvider, String callbackURL) {
     this(vertx, authProvider, callbackURL, null);
@@ -94,6 +95,7 @@ public class OAuth2AuthHandlerImpl extends HTTPAuthorizationHandler<OAuth2Auth>
     this.prompt = base.prompt;
     this.pkce = base.pkce;
     this.bearerOnly = base.bearerOnly;
+    this.cache = base.cache;
 
     // get a new reference to the sha-256 digest
     try {
@@ -179,13 +181,23 @@ public class OAuth2AuthHandlerImpl extends HTTPAuthorizationHandler<OAuth2Auth>
         final Credentials credentials =
           scopes.size() > 0 ? new TokenCredentials(token).setScopes(scopes) : new TokenCredentials(token);
 
-        authProvider.authenticate(credentials, authn -> {
+        final Handler<AsyncResult<User>> onAuthn = authn -> {
           if (authn.failed()) {
             handler.handle(Future.failedFuture(new HttpException(401, authn.cause())));
           } else {
             handler.handle(authn);
           }
-        });
+        };
+
+        if (cache != null) {
+          // the scopes are part of the key as they are validated together with the token
+          final String key = UserCache.digest(scopes.size() > 0 ? token + ' ' + String.join(" ", scopes) : token);
+          cache
+            .authenticate(context.vertx(), key, () -> authProvider.authenticate(credentials))
+            .onComplete(onAuthn);
+        } else {
+          authProvider.authenticate(credentials, onAuthn);
+        }
       }
     });
   }
@@ -260,6 +272,43 @@ public class OAuth2AuthHandlerImpl extends HTTPAuthorizationHandler<OAuth2Auth>
     return this;
   }
 
+  @Override
+  public OAuth2AuthHandler tokenCache(int maxSize, long maxAge, long failureMaxAge) {
+    this.cache = new UserCache(maxSize, maxAge, failureMaxAge, OAuth2AuthHandlerImpl::isRejection, null);
+    return this;
+  }
+
+  @Override
+  public OAuth2AuthHandler sharedTokenCache(String mapName) {
+    if (cache == null) {
+      throw new IllegalStateException("tokenCache() must be configured before the shared tier");
+    }
+    this.cache = cache.withSharedTier(mapName);
+    return this;
+  }
+
+  /**
+   * Only definitive rejections of a token can be negative cached, failing to validate it (IO error, timeout, IdP
+   * server error) must not reject a valid token for the whole cache period. The provider reports every failure as a
+   * plain message, without a type or the IdP status, so the rejections it can report for a bearer token are matched.
+   * Anything else is not cached. The tests assert each of them against the provider, so a change of wording fails
+   * the build instead of silently disabling negative caching.
+   */
+  private static boolean isRejection(Throwable err) {
+    final String msg = err.getMessage();
+    if (msg == null) {
+      return false;
+    }
+    return
+      // introspection: the token is not active
+      "Inactive Token".equals(msg) ||
+      // introspection: the token is active but past its exp
+      "Used is expired.".equals(msg) ||
+      // RFC 6750 error reported by the IdP, either "error" or "error: error_description"
+      "invalid_token".equals(msg) ||
+      msg.startsWith("invalid_token: ");
+  }
+
   @Override
   public OAuth2AuthHandler setupCallback(final Route route) {
 
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.impl;
+
+import io.vertx.ext.web.impl.Origin;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A compiled list of allowed origins. Exact origins are kept in canonical form (lower case, without default port and
+ * resource) in a hash set, wildcard subdomain origins such as {@code https://*.example.com} are kept in a trie of
+ * reversed host labels. Matching an origin is then a single parse of the request origin, a hash lookup and, when
+ * wildcards are configured, a walk over the host labels.
+ */
+final class OriginMatcher {
+
+  private static final class Node {
+    final Map<String, Node> children = new HashMap<>();
+    // the "scheme:port" pairs for which any subdomain of this node is allowed
+    final Set<String> wildcards = new HashSet<>();
+  }
+
+  private final Set<String> exact = new HashSet<>();
+  private final Node root = new Node();
+  private boolean hasWildcards;
+
+  /**
+   * Add an allowed origin, either exact or with a leading {@code *.} wildcard on the host.
+   */
+  void add(String origin) {
+    final String lower = origin.toLowerCase(Locale.ROOT);
+    final int sep = lower.indexOf("://*.");
+    if (sep == -1) {
+      final Origin o = Origin.parse(lower);
+      exact.add(o.protocol() == null ? "null" : o.encode());
+      return;
+    }
+    // validate the remaining origin by parsing it without the wildcard
+    final Origin o = Origin.parse(lower.substring(0, sep + 3) + lower.substring(sep + 5));
+    final String[] labels = o.host().split("\\.");
+    Node node = root;
+    for (int i = labels.length - 1; i >= 0; i--) {
+      node = node.children.computeIfAbsent(labels[i], k -> new Node());
+    }
+    node.wildcards.add(o.protocol() + ':' + o.port());
+    hasWildcards = true;
+  }
+
+  boolean isEmpty() {
+    return exact.isEmpty() && !hasWildcards;
+  }
+
+  boolean matches(String origin) {
+    if ("null".equals(origin)) {
+      return exact.contains("null");
+    }
+    if (!Origin.isValid(origin)) {
+      return false;
+    }
+    final Origin o = Origin.parse(origin.toLowerCase(Locale.ROOT));
+    if (exact.contains(o.encode())) {
+      return true;
+    }
+    if (!hasWildcards) {
+      return false;
+    }
+
+    final String host = o.host();
+    final String key = o.protocol() + ':' + o.port();
+    Node node = root;
+    int end = host.length();
+    // walk the labels right to left, a wildcard only matches when at least one label is left
+    while (end > 0) {
+      final int start = host.lastIndexOf('.', end - 1) + 1;
+      node = node.children.get(host.substring(start, end));
+      if (node == null || start == 0) {
+        return false;
+      }
+      if (node.wildcards.contains(key)) {
+        return true;
+      }
+      end = start - 1;
+    }
+    return false;
+  }
+}
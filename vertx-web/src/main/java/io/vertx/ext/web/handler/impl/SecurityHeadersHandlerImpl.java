@@ -0,0 +1,203 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.impl;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.auth.VertxContextPRNG;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.HttpException;
+import io.vertx.ext.web.handler.SecurityHeadersHandler;
+import io.vertx.ext.web.handler.XFrameHandler;
+
+import java.util.Base64;
+import java.util.Map;
+
+public class SecurityHeadersHandlerImpl implements SecurityHeadersHandler {
+
+  private static final CharSequence CONTENT_SECURITY_POLICY = HttpHeaders.createOptimized("Content-Security-Policy");
+  private static final CharSequence CONTENT_SECURITY_POLICY_REPORT_ONLY = HttpHeaders.createOptimized("Content-Security-Policy-Report-Only");
+  private static final CharSequence STRICT_TRANSPORT_SECURITY = HttpHeaders.createOptimized("Strict-Transport-Security");
+  private static final CharSequence X_FRAME_OPTIONS = HttpHeaders.createOptimized("X-FRAME-OPTIONS");
+
+  private static final String NONCE_MARKER = "\u0000nonce\u0000";
+
+  /**
+   * The header names and values, rendered once per configuration change.
+   */
+  private static final class Headers {
+    CharSequence cspName;
+    // the whole policy when there are no nonces
+    CharSequence csp;
+    // otherwise the policy before and after the nonce
+    String cspPrefix;
+    String cspSuffix;
+    boolean missingReportUri;
+    CharSequence hsts;
+    CharSequence xFrame;
+  }
+
+  private final CSPPolicy policy = new CSPPolicy();
+  private boolean reportOnly;
+  private boolean nonce;
+  private String hsts;
+  private String xFrame;
+
+  private volatile Headers headers;
+
+  @Override
+  public synchronized SecurityHeadersHandler setDirective(String name, String value) {
+    policy.set(name, value);
+    headers = null;
+    return this;
+  }
+
+  @Override
+  public synchronized SecurityHeadersHandler addDirective(String name, String value) {
+    policy.add(name, value);
+    headers = null;
+    return this;
+  }
+
+  @Override
+  public synchronized SecurityHeadersHandler setReportOnly(boolean reportOnly) {
+    this.reportOnly = reportOnly;
+    headers = null;
+    return this;
+  }
+
+  @Override
+  public synchronized SecurityHeadersHandler setCSPNonce(boolean enable) {
+    this.nonce = enable;
+    headers = null;
+    return this;
+  }
+
+  @Override
+  public synchronized SecurityHeadersHandler setHSTS(long maxAge, boolean includeSubDomains) {
+    if (includeSubDomains) {
+      hsts = "max-age=" + maxAge + "; includeSubdomains";
+    } else {
+      hsts = "max-age=" + maxAge;
+    }
+    headers = null;
+    return this;
+  }
+
+  @Override
+  public synchronized SecurityHeadersHandler setXFrame(String action) {
+    if (action == null) {
+      throw new IllegalArgumentException("action cannot be null");
+    }
+
+    final String value = action.toUpperCase();
+
+    if (value.equals("ALLOW-FROM")) {
+      throw new IllegalArgumentException("action ALLOW_FROM is deprecated and should not be used");
+    }
+
+    if (!value.equals(XFrameHandler.DENY) && !value.equals(XFrameHandler.SAMEORIGIN)) {
+      throw new IllegalArgumentException("action should be either DENY or SAMEORIGIN");
+    }
+
+    xFrame = value;
+    headers = null;
+    return this;
+  }
+
+  private Headers headers() {
+    Headers h = headers;
+    if (h == null) {
+      synchronized (this) {
+        h = render();
+        headers = h;
+      }
+    }
+    return h;
+  }
+
+  private Headers render() {
+    final Headers h = new Headers();
+
+    h.cspName = reportOnly ? CONTENT_SECURITY_POLICY_REPORT_ONLY : CONTENT_SECURITY_POLICY;
+    h.missingReportUri = reportOnly && !policy.contains("report-uri");
+
+    if (nonce) {
+      final Map<String, String> directives = policy.directives();
+      String sources = directives.containsKey("script-src") ? directives.get("script-src") : directives.get("default-src");
+      sources = sources == null || sources.isEmpty() ? "" : sources + " ";
+      directives.put("script-src", sources + "'nonce-" + NONCE_MARKER + "'");
+      final String value = CSPPolicy.render(directives);
+      final int idx = value.indexOf(NONCE_MARKER);
+      h.cspPrefix = value.substring(0, idx);
+      h.cspSuffix = value.substring(idx + NONCE_MARKER.length());
+    } else {
+      h.csp = HttpHeaders.createOptimized(policy.render());
+    }
+
+    if (hsts != null) {
+      h.hsts = HttpHeaders.createOptimized(hsts);
+    }
+    if (xFrame != null) {
+      h.xFrame = HttpHeaders.createOptimized(xFrame);
+    }
+    return h;
+  }
+
+  @Override
+  public void handle(RoutingContext ctx) {
+    final Headers h = headers();
+
+    if (h.missingReportUri) {
+      ctx.fail(new HttpException(500, "Please disable CSP reportOnly or add a report-uri policy."));
+      return;
+    }
+
+    final CharSequence csp;
+    if (h.csp == null) {
+      final byte[] bytes = new byte[16];
+      VertxContextPRNG.current(ctx.vertx()).nextBytes(bytes);
+      final String value = Base64.getEncoder().encodeToString(bytes);
+      ctx.put(CSP_NONCE, value);
+      csp = h.cspPrefix + value + h.cspSuffix;
+    } else {
+      csp = h.csp;
+    }
+
+    final HttpServerRequest request = ctx.request();
+    final boolean hsts = h.hsts != null && (request.isSSL()
+      // Non-standard header field used by Microsoft applications and load-balancers
+      || "on".equalsIgnoreCase(request.getHeader("Front-End-Https")));
+
+    ctx.addHeadersEndHandler(v -> {
+      final MultiMap headers = ctx.response().headers();
+      // the headers set by the handlers down the route win, as if they had been set before calling next()
+      if (!headers.contains(h.cspName)) {
+        headers.set(h.cspName, csp);
+      }
+      if (hsts && !headers.contains(STRICT_TRANSPORT_SECURITY)) {
+        headers.set(STRICT_TRANSPORT_SECURITY, h.hsts);
+      }
+      if (h.xFrame != null && !headers.contains(X_FRAME_OPTIONS)) {
+        headers.set(X_FRAME_OPTIONS, h.xFrame);
+      }
+    });
+
+    ctx.next();
+  }
+}
@@ -17,6 +17,7 @@
 package io.vertx.ext.web.handler.impl;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Promise;
@@ -25,8 +26,10 @@ import io.vertx.core.http.Cookie;
 import io.vertx.core.http.CookieSameSite;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.impl.ContextInternal;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.User;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.Session;
@@ -34,6 +37,9 @@ import io.vertx.ext.web.handler.SessionHandler;
 import io.vertx.ext.web.sstore.SessionStore;
 import io.vertx.ext.web.sstore.impl.SessionInternal;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
@@ -56,10 +62,20 @@ public class SessionHandlerImpl implements SessionHandler {
   private int minLength = DEFAULT_SESSIONID_MIN_LENGTH;
   private boolean lazySession = DEFAULT_LAZY_SESSION;
   private long cookieMaxAge = -1;
+  private boolean coalesceRequests = DEFAULT_COALESCE_REQUESTS;
+  private long flushWindow = DEFAULT_FLUSH_WINDOW;
+  private boolean degradeOnStoreFailure;
 
   private boolean cookieless;
   private CookieSameSite cookieSameSite;
 
+  // in flight store lookups, keyed by session id
+  private final Map<String, InflightGet> inflightGets = new ConcurrentHashMap<>();
+  // writes waiting for the flush window to elapse, keyed by session id
+  private final Map<String, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+  // store metrics and circuit breaker
+  private final SessionStoreMonitor monitor = new SessionStoreMonitor();
+
   public SessionHandlerImpl(SessionStore sessionStore) {
     this.sessionStore = sessionStore;
   }
@@ -124,6 +140,35 @@ public class SessionHandlerImpl implements SessionHandler {
     return this;
   }
 
+  @Override
+  public SessionHandler setCoalesceRequests(boolean coalesce) {
+    this.coalesceRequests = coalesce;
+    return this;
+  }
+
+  @Override
+  public SessionHandler setFlushWindow(long flushWindow) {
+    this.flushWindow = flushWindow;
+    return this;
+  }
+
+  @Override
+  public SessionHandler setStoreCircuitBreaker(int maxFailures, long callTimeout, long resetTimeout) {
+    monitor.configure(maxFailures, callTimeout, resetTimeout);
+    return this;
+  }
+
+  @Override
+  public SessionHandler setDegradeOnStoreFailure(boolean degrade) {
+    this.degradeOnStoreFailure = degrade;
+    return this;
+  }
+
+  @Override
+  public JsonObject storeMetrics() {
+    return monitor.toJson();
+  }
+
   @Override
   public SessionHandler setCookieless(boolean cookieless) {
     this.cookieless = cookieless;
@@ -195,13 +240,13 @@ public class SessionHandlerImpl implements SessionHandler {
             setCookieProperties(cookie, false);
           }
 
-          // we must invalidate the old id
-          sessionStore.delete(session.oldId(), delete -> {
+          // we must invalidate the old id, a write of it still waiting for the flush window must not resurrect it
+          settlePendingWrite(context.vertx(), session.oldId(), settled -> sessionStore.delete(session.oldId(), delete -> {
             if (delete.failed()) {
               handler.handle(Future.failedFuture(delete.cause()));
             } else {
               // we must wait for the result of the previous call in order to save the new one
-              sessionStore.put(session, put -> {
+              monitor.put(context.vertx(), sessionStore, session, put -> {
                 if (put.failed()) {
                   handler.handle(Future.failedFuture(put.cause()));
                 } else {
@@ -213,14 +258,14 @@ public class SessionHandlerImpl implements SessionHandler {
                 }
               });
             }
-          });
+          }));
         } else if (!lazySession || sessionUsed) {
           if (!cookieless) {
             // if lazy mode activated, no need to store the session nor to create the session cookie if not used.
             sessionCookie(context, session);
           }
           session.setAccessed();
-          sessionStore.put(session, put -> {
+          storePut(context.vertx(), session, put -> {
             if (put.failed()) {
               handler.handle(Future.failedFuture(put.cause()));
             } else {
@@ -243,32 +288,33 @@ public class SessionHandlerImpl implements SessionHandler {
       }
       // if the session was regenerated in the request
       // the old id must also be removed
+      // a write still waiting for the flush window must not resurrect the session
       if (session.isRegenerated()) {
-        sessionStore.delete(session.oldId(), delete -> {
+        settlePendingWrite(context.vertx(), session.oldId(), settled -> sessionStore.delete(session.oldId(), delete -> {
           if (delete.failed()) {
             handler.handle(Future.failedFuture(delete.cause()));
           } else {
             // delete from the storage
-            sessionStore.delete(session.id(), delete2 -> {
+            settlePendingWrite(context.vertx(), session.id(), settled2 -> sessionStore.delete(session.id(), delete2 -> {
               if (delete2.failed()) {
                 handler.handle(Future.failedFuture(delete2.cause()));
               } else {
                 context.put(SESSION_FLUSHED_KEY, true);
                 handler.handle(Future.succeededFuture());
               }
-            });
+            }));
           }
-        });
+        }));
       } else {
         // delete from the storage
-        sessionStore.delete(session.id(), delete -> {
+        settlePendingWrite(context.vertx(), session.id(), settled -> sessionStore.delete(session.id(), delete -> {
           if (delete.failed()) {
             handler.handle(Future.failedFuture(delete.cause()));
           } else {
             context.put(SESSION_FLUSHED_KEY, true);
             handler.handle(Future.succeededFuture());
           }
-        });
+        }));
       }
     }
     return this;
@@ -304,6 +350,7 @@ public class SessionHandlerImpl implements SessionHandler {
         if (res.succeeded()) {
           Session session = res.result();
           if (session != null) {
+            monitor.hit();
             context.setSession(session);
             // attempt to load the user from the session
             UserHolder holder = session.get(SESSION_USER_HOLDER_KEY);
@@ -316,6 +363,7 @@ public class SessionHandlerImpl implements SessionHandler {
             }
             addStoreSessionHandler(context);
           } else {
+            monitor.miss();
             // Cannot find session - either it timed out, or was explicitly destroyed at the
             // server side on a
             // previous request.
@@ -326,7 +374,12 @@ public class SessionHandlerImpl implements SessionHandler {
             createNewSession(context);
           }
         } else {
-          context.fail(res.cause());
+          if (degradeOnStoreFailure) {
+            // the store is unhealthy, continue with an anonymous session
+            createNewSession(context);
+          } else {
+            context.fail(res.cause());
+          }
         }
         context.next();
       });
@@ -401,11 +454,43 @@ public class SessionHandlerImpl implements SessionHandler {
   }
 
   private void getSession(Vertx vertx, String sessionID, Handler<AsyncResult<Session>> resultHandler) {
+    if (flushWindow > 0) {
+      final PendingWrite pending = pendingWrites.get(sessionID);
+      // a session that was destroyed or got a new id during the window must not be served under this id, sessions
+      // are not thread safe so it is only shared with the requests of the same event loop, the others read the store
+      if (pending != null && sameEventLoop(pending.context, vertx.getOrCreateContext()) &&
+        sessionID.equals(pending.session.id()) && !pending.session.isDestroyed()) {
+        // the store may not have the latest state yet, serve the session waiting to be written
+        resultHandler.handle(Future.succeededFuture(pending.session));
+        return;
+      }
+    }
+
+    if (coalesceRequests) {
+      final InflightGet get = new InflightGet(vertx.getOrCreateContext());
+      final InflightGet inflight = inflightGets.putIfAbsent(sessionID, get);
+      if (inflight == null) {
+        // the lookup may complete on another context, all the callers sharing the session resume on their own
+        get.promise.future().onComplete(onCurrentContext(vertx, resultHandler));
+        doGetSession(vertx, System.currentTimeMillis(), sessionID, res -> {
+          inflightGets.remove(sessionID, get);
+          get.promise.handle(res);
+        });
+        return;
+      }
+      if (sameEventLoop(inflight.context, get.context)) {
+        // share the result of the lookup already in flight, requests of the same event loop do not run concurrently
+        inflight.promise.future().onComplete(onCurrentContext(vertx, resultHandler));
+        return;
+      }
+      // sessions are not thread safe, requests of other event loops must not share the instance
+    }
+
     doGetSession(vertx, System.currentTimeMillis(), sessionID, resultHandler);
   }
 
   private void doGetSession(Vertx vertx, long startTime, String sessionID, Handler<AsyncResult<Session>> resultHandler) {
-    sessionStore.get(sessionID, res -> {
+    monitor.get(vertx, sessionStore, sessionID, res -> {
       if (res.succeeded()) {
         if (res.result() == null) {
           // Can't find it so retry. This is necessary for clustered sessions as it can
@@ -424,13 +509,84 @@ public class SessionHandlerImpl implements SessionHandler {
     });
   }
 
+  private void storePut(Vertx vertx, Session session, Handler<AsyncResult<Void>> resultHandler) {
+    if (session instanceof SessionInternal && !((SessionInternal) session).isModified()) {
+      // the write only refreshes the session access time
+      monitor.unchanged();
+    }
+
+    if (flushWindow <= 0) {
+      monitor.put(vertx, sessionStore, session, resultHandler);
+      return;
+    }
+
+    final String id = session.id();
+    final Handler<AsyncResult<Void>> handler = onCurrentContext(vertx, resultHandler);
+
+    while (true) {
+      PendingWrite pending = pendingWrites.get(id);
+      if (pending == null) {
+        pending = new PendingWrite(vertx, id, session, handler);
+        if (pendingWrites.putIfAbsent(id, pending) == null) {
+          pending.timerId = vertx.setTimer(flushWindow, pending);
+          return;
+        }
+        // lost the race, try to join the winner
+        continue;
+      }
+
+      if (pending.session != session || !pending.join(handler)) {
+        // either a newer copy of the session or the merged write is already in flight, in both cases the pending
+        // write must not land after this one
+        settlePendingWrite(vertx, id, settled -> monitor.put(vertx, sessionStore, session, resultHandler));
+      }
+      return;
+    }
+  }
+
+  /**
+   * Settles the write of the given id waiting for the flush window before the caller deletes or writes the session
+   * again. A write that did not start yet is dropped (its handlers are completed, as it has been superseded), a write
+   * already in flight is awaited, whatever its outcome.
+   */
+  private void settlePendingWrite(Vertx vertx, String id, Handler<AsyncResult<Void>> handler) {
+    final PendingWrite pending = id == null ? null : pendingWrites.get(id);
+    if (pending == null) {
+      handler.handle(Future.succeededFuture());
+      return;
+    }
+    if (pending.close()) {
+      vertx.cancelTimer(pending.timerId);
+      pendingWrites.remove(id, pending);
+      pending.written.complete();
+      handler.handle(Future.succeededFuture());
+      return;
+    }
+    pending.written.future().onComplete(onCurrentContext(vertx, res -> handler.handle(Future.succeededFuture())));
+  }
+
+  /**
+   * Wraps a handler so it is always invoked on the context of the caller, as shared lookups and merged writes may
+   * complete on a different event loop.
+   */
+  private static <T> Handler<AsyncResult<T>> onCurrentContext(Vertx vertx, Handler<AsyncResult<T>> handler) {
+    final Context ctx = vertx.getOrCreateContext();
+    return res -> {
+      if (Vertx.currentContext() == ctx) {
+        handler.handle(res);
+      } else {
+        ctx.runOnContext(v -> handler.handle(res));
+      }
+    };
+  }
+
   private void addStoreSessionHandler(RoutingContext context) {
     context.addHeadersEndHandler(v -> {
       // skip flush if we already flushed
       Boolean flushed = context.get(SESSION_FLUSHED_KEY);
       if (flushed == null || !flushed) {
         flush(context, true, false, flush -> {
-          if (flush.failed()) {
+          if (flush.failed() && flush.cause() != SessionStoreMonitor.STORE_UNAVAILABLE) {
             LOG.warn("Failed to flush the session to the underlying store", flush.cause());
           }
         });
@@ -459,4 +615,82 @@ public class SessionHandlerImpl implements SessionHandler {
     context.addCookie(cookie);
     return cookie;
   }
+
+  /**
+   * Whether code running on the given contexts can never run concurrently. Each request runs on its own (duplicated)
+   * context, so requests are compared by the event loop that runs them.
+   */
+  private static boolean sameEventLoop(Context a, Context b) {
+    return a == b || a.isEventLoopContext() && b.isEventLoopContext() &&
+      ((ContextInternal) a).nettyEventLoop() == ((ContextInternal) b).nettyEventLoop();
+  }
+
+  /**
+   * A store lookup in flight, only shared with the requests of the event loop that started it.
+   */
+  private static final class InflightGet {
+
+    private final Context context;
+    private final Promise<Session> promise = Promise.promise();
+
+    InflightGet(Context context) {
+      this.context = context;
+    }
+  }
+
+  /**
+   * A session write waiting for the flush window to elapse. All flushes of the same session object that happen
+   * during the window are merged into a single store call.
+   */
+  private final class PendingWrite implements Handler<Long> {
+
+    private final Vertx vertx;
+    // the context of the request that created the write, the pending session is only served on its event loop
+    private final Context context;
+    private final String id;
+    private final Session session;
+    private final Promise<Void> written = Promise.promise();
+    private volatile long timerId = -1;
+    private boolean closed;
+
+    PendingWrite(Vertx vertx, String id, Session session, Handler<AsyncResult<Void>> handler) {
+      this.vertx = vertx;
+      this.context = vertx.getOrCreateContext();
+      this.id = id;
+      this.session = session;
+      written.future().onComplete(handler);
+    }
+
+    synchronized boolean join(Handler<AsyncResult<Void>> handler) {
+      if (closed) {
+        return false;
+      }
+      written.future().onComplete(handler);
+      return true;
+    }
+
+    /**
+     * From now on no other handler can join, returns {@code false} when the write was already closed (either started
+     * or cancelled).
+     */
+    synchronized boolean close() {
+      if (closed) {
+        return false;
+      }
+      closed = true;
+      return true;
+    }
+
+    @Override
+    public void handle(Long timerId) {
+      if (!close()) {
+        // cancelled
+        return;
+      }
+      monitor.put(vertx, sessionStore, session, put -> {
+        pendingWrites.remove(id, this);
+        written.handle(put);
+      });
+    }
+  }
 }
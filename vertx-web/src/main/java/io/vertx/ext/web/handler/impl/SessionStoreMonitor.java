@@ -0,0 +1,185 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Session;
+import io.vertx.ext.web.handler.HttpException;
+import io.vertx.ext.web.sstore.SessionStore;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Collects latency and outcome metrics of the calls a {@link SessionHandlerImpl} performs against its
+ * {@link SessionStore} and isolates request processing from an unhealthy store with a simple circuit breaker.
+ *
+ * The breaker opens after a configurable number of consecutive failures (a call exceeding the call timeout counts as
+ * a failure). While open, all calls are rejected immediately. Once the reset timeout elapses a single probe call is
+ * allowed through, if it succeeds the breaker closes again, otherwise it stays open for another reset timeout.
+ */
+final class SessionStoreMonitor {
+
+  static final HttpException STORE_UNAVAILABLE = new HttpException(503);
+  static final HttpException STORE_TIMEOUT = new HttpException(503, "Session store call timed out");
+
+  private final LongAdder gets = new LongAdder();
+  private final LongAdder getFailures = new LongAdder();
+  private final LongAdder getTime = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder puts = new LongAdder();
+  private final LongAdder putFailures = new LongAdder();
+  private final LongAdder putTime = new LongAdder();
+  private final LongAdder unchanged = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  // circuit breaker state, a value of -1 means closed
+  private final AtomicLong openedAt = new AtomicLong(-1);
+  private final AtomicInteger failures = new AtomicInteger();
+  private final AtomicBoolean probing = new AtomicBoolean();
+
+  private volatile int maxFailures = -1;
+  private volatile long callTimeout = -1;
+  private volatile long resetTimeout;
+
+  void configure(int maxFailures, long callTimeout, long resetTimeout) {
+    this.maxFailures = maxFailures;
+    this.callTimeout = callTimeout;
+    this.resetTimeout = resetTimeout;
+  }
+
+  void get(Vertx vertx, SessionStore store, String id, Handler<AsyncResult<Session>> handler) {
+    call(vertx, gets, getTime, getFailures, h -> store.get(id, h), handler);
+  }
+
+  void put(Vertx vertx, SessionStore store, Session session, Handler<AsyncResult<Void>> handler) {
+    call(vertx, puts, putTime, putFailures, h -> store.put(session, h), handler);
+  }
+
+  void hit() {
+    hits.increment();
+  }
+
+  void miss() {
+    misses.increment();
+  }
+
+  void unchanged() {
+    unchanged.increment();
+  }
+
+  JsonObject toJson() {
+    return new JsonObject()
+      .put("get", new JsonObject()
+        .put("count", gets.sum())
+        .put("hits", hits.sum())
+        .put("misses", misses.sum())
+        .put("failures", getFailures.sum())
+        .put("timeNanos", getTime.sum()))
+      .put("put", new JsonObject()
+        .put("count", puts.sum())
+        .put("unchanged", unchanged.sum())
+        .put("failures", putFailures.sum())
+        .put("timeNanos", putTime.sum()))
+      .put("rejected", rejected.sum())
+      .put("circuit", state());
+  }
+
+  private String state() {
+    final long opened = openedAt.get();
+    if (opened == -1) {
+      return "CLOSED";
+    }
+    return System.currentTimeMillis() - opened >= resetTimeout ? "HALF_OPEN" : "OPEN";
+  }
+
+  private boolean allowRequest() {
+    if (maxFailures <= 0) {
+      return true;
+    }
+    final long opened = openedAt.get();
+    if (opened == -1) {
+      return true;
+    }
+    if (System.currentTimeMillis() - opened >= resetTimeout) {
+      // half open, let a single probe through
+      return probing.compareAndSet(false, true);
+    }
+    return false;
+  }
+
+  private void onSuccess() {
+    failures.set(0);
+    openedAt.set(-1);
+    probing.set(false);
+  }
+
+  private void onFailure() {
+    final int limit = maxFailures;
+    if (limit > 0 && failures.incrementAndGet() >= limit) {
+      // (re)open the circuit
+      openedAt.set(System.currentTimeMillis());
+    }
+    probing.set(false);
+  }
+
+  private <T> void call(Vertx vertx, LongAdder count, LongAdder time, LongAdder failed, Consumer<Handler<AsyncResult<T>>> op, Handler<AsyncResult<T>> handler) {
+    if (!allowRequest()) {
+      rejected.increment();
+      handler.handle(Future.failedFuture(STORE_UNAVAILABLE));
+      return;
+    }
+
+    count.increment();
+    final long start = System.nanoTime();
+    final AtomicBoolean done = new AtomicBoolean();
+    final long timeout = callTimeout;
+    final long timerId = timeout > 0 ?
+      vertx.setTimer(timeout, t -> {
+        if (done.compareAndSet(false, true)) {
+          time.add(System.nanoTime() - start);
+          failed.increment();
+          onFailure();
+          handler.handle(Future.failedFuture(STORE_TIMEOUT));
+        }
+      }) : -1;
+
+    op.accept(res -> {
+      if (done.compareAndSet(false, true)) {
+        if (timerId != -1) {
+          vertx.cancelTimer(timerId);
+        }
+        time.add(System.nanoTime() - start);
+        if (res.succeeded()) {
+          onSuccess();
+        } else {
+          failed.increment();
+          onFailure();
+        }
+        handler.handle(res);
+      }
+    });
+  }
+}
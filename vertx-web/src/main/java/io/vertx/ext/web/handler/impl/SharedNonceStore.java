@@ -0,0 +1,82 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.AsyncMap;
+
+/**
+ * A {@link NonceStore} backed by a vert.x {@link AsyncMap}, when vert.x is clustered nonces issued by one node can be
+ * used on any other node. Expiration is delegated to the map TTL.
+ *
+ * Nonces are added asynchronously, a client answering a challenge before the nonce reached the map is asked to
+ * authenticate again.
+ */
+final class SharedNonceStore implements NonceStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SharedNonceStore.class);
+
+  private final Vertx vertx;
+  private final String name;
+  private final long expireTimeout;
+
+  SharedNonceStore(Vertx vertx, String name, long expireTimeout) {
+    this.vertx = vertx;
+    this.name = name;
+    this.expireTimeout = expireTimeout;
+  }
+
+  @Override
+  public void add(String nonce) {
+    map()
+      .compose(map -> map.put(nonce, new JsonObject().put("createdAt", System.currentTimeMillis()).put("nc", 0), expireTimeout))
+      .onFailure(err -> LOG.warn("Failed to store nonce", err));
+  }
+
+  @Override
+  public Future<Boolean> use(String nonce, int nc) {
+    return map()
+      .compose(map -> map
+        .get(nonce)
+        .compose(n -> {
+          if (n == null) {
+            return Future.succeededFuture(false);
+          }
+          if (nc < 0) {
+            return Future.succeededFuture(true);
+          }
+          // check for nonce counter (prevent replay attack)
+          if (nc <= n.getInteger("nc")) {
+            return Future.succeededFuture(false);
+          }
+          final long ttl = n.getLong("createdAt") + expireTimeout - System.currentTimeMillis();
+          if (ttl <= 0) {
+            return Future.succeededFuture(false);
+          }
+          // compare and set, a concurrent use of the same count on another node makes this fail
+          return map.replaceIfPresent(nonce, n, n.copy().put("nc", nc), ttl);
+        }));
+  }
+
+  private Future<AsyncMap<String, JsonObject>> map() {
+    return vertx.sharedData().getAsyncMap(name);
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.impl;
+
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.RoutingContext;
+
+import java.util.function.Function;
+
+/**
+ * Built-in tenant extractors. Instead of allocating the tenant id, they locate it in the raw request value, so the
+ * {@link MultiTenantHandlerImpl} can look the tenant up by range with no intermediate strings or splitting.
+ */
+public abstract class TenantExtractor implements Function<RoutingContext, String> {
+
+  static final long NOT_FOUND = -1;
+
+  /**
+   * Tenant from the value of a header.
+   */
+  public static TenantExtractor header(String name) {
+    // the header name is encoded and hashed once
+    final CharSequence header = HttpHeaders.createOptimized(name);
+    return new TenantExtractor() {
+      @Override
+      CharSequence source(RoutingContext ctx) {
+        return ctx.request().headers().get(header);
+      }
+
+      @Override
+      long locate(CharSequence source) {
+        return range(0, source.length());
+      }
+    };
+  }
+
+  /**
+   * Tenant from the first label of the host, e.g. {@code acme} for {@code acme.example.com:8080}.
+   */
+  public static TenantExtractor host() {
+    return new TenantExtractor() {
+      @Override
+      CharSequence source(RoutingContext ctx) {
+        return ctx.request().host();
+      }
+
+      @Override
+      long locate(CharSequence source) {
+        final int len = source.length();
+        for (int i = 0; i < len; i++) {
+          final char c = source.charAt(i);
+          if (c == '.' || c == ':') {
+            return range(0, i);
+          }
+        }
+        return range(0, len);
+      }
+    };
+  }
+
+  /**
+   * Tenant from a segment of the request path, e.g. {@code acme} for the segment {@code 0} of {@code /acme/users}.
+   */
+  public static TenantExtractor pathSegment(int index) {
+    if (index < 0) {
+      throw new IllegalArgumentException("index must be >= 0");
+    }
+    return new TenantExtractor() {
+      @Override
+      CharSequence source(RoutingContext ctx) {
+        return ctx.request().path();
+      }
+
+      @Override
+      long locate(CharSequence source) {
+        final int len = source.length();
+        int segment = -1;
+        int start = 0;
+        for (int i = 0; i <= len; i++) {
+          if (i == len || source.charAt(i) == '/') {
+            if (segment == index) {
+              return range(start, i);
+            }
+            segment++;
+            start = i + 1;
+          }
+        }
+        return NOT_FOUND;
+      }
+    };
+  }
+
+  /**
+   * @return the raw value holding the tenant id or {@code null}.
+   */
+  abstract CharSequence source(RoutingContext ctx);
+
+  /**
+   * @return the range of the tenant id in the source, as {@code start << 32 | end}, or {@link #NOT_FOUND}.
+   */
+  abstract long locate(CharSequence source);
+
+  static long range(int start, int end) {
+    return start == end ? NOT_FOUND : ((long) start << 32) | end;
+  }
+
+  static int start(long range) {
+    return (int) (range >>> 32);
+  }
+
+  static int end(long range) {
+    return (int) range;
+  }
+
+  @Override
+  public String apply(RoutingContext ctx) {
+    final CharSequence source = source(ctx);
+    if (source == null) {
+      return null;
+    }
+    final long range = locate(source);
+    if (range == NOT_FOUND) {
+      return null;
+    }
+    return source.subSequence(start(range), end(range)).toString();
+  }
+}
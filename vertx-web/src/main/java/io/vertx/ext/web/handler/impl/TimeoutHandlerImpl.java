@@ -16,10 +16,15 @@
 
 package io.vertx.ext.web.handler.impl;
 
+import io.vertx.core.impl.ContextInternal;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.TimeoutHandler;
+import io.vertx.ext.web.impl.TimingWheel;
 
 /**
+ * Request deadlines are scheduled on the {@link TimingWheel} of the event loop, so the common case of a request
+ * completing in time costs two list operations instead of creating and cancelling a vert.x timer.
+ *
  * @author <a href="http://pmlopes@gmail.com">Paulo Lopes</a>
  * @author <a href="http://tfox.org">Tim Fox</a>
  *
@@ -37,10 +42,24 @@ public class TimeoutHandlerImpl implements TimeoutHandler {
   @Override
   public void handle(RoutingContext ctx) {
 
-    // We send a error response after timeout
-    long tid = ctx.vertx().setTimer(timeout, t -> ctx.fail(errorCode));
+    // nested timeout handlers can only shorten the deadline
+    final long deadline = System.currentTimeMillis() + timeout;
+    final Long current = ctx.get(DEADLINE);
+    if (current == null || deadline < current) {
+      ctx.put(DEADLINE, deadline);
+    }
+
+    final TimingWheel wheel = TimingWheel.current();
 
-    ctx.addBodyEndHandler(v -> ctx.vertx().cancelTimer(tid));
+    if (wheel != null) {
+      // We send a error response after timeout
+      final TimingWheel.Timeout t = wheel.schedule(ContextInternal.current(), timeout, v -> ctx.fail(errorCode));
+      ctx.addBodyEndHandler(v -> t.cancel());
+    } else {
+      // not on an event loop (e.g. a worker context), fallback to a vert.x timer
+      long tid = ctx.vertx().setTimer(timeout, t -> ctx.fail(errorCode));
+      ctx.addBodyEndHandler(v -> ctx.vertx().cancelTimer(tid));
+    }
 
     ctx.next();
   }
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.AsyncMap;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.web.impl.ExpiringLRUCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A cache of verified users, keyed by a digest of the credentials that were used to authenticate them.
+ *
+ * Entries live at most {@code maxAge} ms and never past the user {@code exp} claim. As {@link User} objects are
+ * mutable (for example authorizations are added to them during the request), callers always get a copy of the cached
+ * user.
+ *
+ * Optionally failed authentications can be cached for a short period (negative caching) and a second, shared, tier
+ * backed by a vert.x {@link AsyncMap} (cluster wide when vert.x is clustered) can be consulted before authenticating.
+ * Only the failures accepted by the given filter are cached, so transient errors (e.g. the IdP being unreachable) do
+ * not reject valid credentials. The settings are fixed at construction, as a cache can be shared by several handlers.
+ */
+final class UserCache {
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+  // MessageDigest is not thread safe
+  private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Cannot get instance of SHA-256 MessageDigest", e);
+    }
+  });
+
+  private final int maxSize;
+  private final ExpiringLRUCache<String, User> cache;
+  private final long maxAge;
+  // per instance salt, so keys cannot be pre-computed from known credentials
+  private final byte[] salt = new byte[16];
+
+  private final ExpiringLRUCache<String, Throwable> failures;
+  private final long failureMaxAge;
+  private final Predicate<Throwable> cacheableFailure;
+  private final String sharedMapName;
+
+  UserCache(int maxSize, long maxAge) {
+    this(maxSize, maxAge, 0, null, null);
+  }
+
+  /**
+   * @param failureMaxAge time in ms a failed authentication is remembered, {@code 0} disables negative caching.
+   * @param cacheableFailure the failures that can be remembered, the definitive ones.
+   * @param sharedMapName the name of the vert.x async map backing the shared tier, {@code null} disables it.
+   */
+  UserCache(int maxSize, long maxAge, long failureMaxAge, Predicate<Throwable> cacheableFailure, String sharedMapName) {
+    this.maxSize = maxSize;
+    this.cache = new ExpiringLRUCache<>(maxSize);
+    this.maxAge = maxAge;
+    this.failures = failureMaxAge > 0 ? new ExpiringLRUCache<>(maxSize) : null;
+    this.failureMaxAge = failureMaxAge;
+    this.cacheableFailure = cacheableFailure;
+    this.sharedMapName = sharedMapName;
+    new SecureRandom().nextBytes(salt);
+  }
+
+  /**
+   * Returns a new, empty, cache with the same settings and a shared tier backed by the vert.x async map with the
+   * given name.
+   */
+  UserCache withSharedTier(String mapName) {
+    return new UserCache(maxSize, maxAge, failureMaxAge, cacheableFailure, mapName);
+  }
+
+  /**
+   * Computes the cache key for the given credentials, the raw credentials are never kept in memory.
+   */
+  static String digest(String credentials) {
+    return ENCODER.encodeToString(SHA256.get().digest(credentials.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * Computes a cache key for the given credentials salted with a secret local to this cache. Unlike
+   * {@link #digest(String)} these keys are not stable across instances, so they must not be used with a shared tier.
+   */
+  String saltedDigest(String credentials) {
+    final MessageDigest md = SHA256.get();
+    md.update(salt);
+    return ENCODER.encodeToString(md.digest(credentials.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * Removes all cached users matching the given filter.
+   *
+   * @return the number of removed entries.
+   */
+  int invalidate(Predicate<User> filter) {
+    return cache.removeIf((key, user) -> filter.test(user));
+  }
+
+  /**
+   * Removes all cached users and failures.
+   */
+  void clear() {
+    cache.clear();
+    if (failures != null) {
+      failures.clear();
+    }
+  }
+
+  /**
+   * Returns a copy of the cached user for the given key, or authenticates, caches and returns it. Concurrent
+   * authentications for the same key are coalesced.
+   */
+  Future<User> authenticate(Vertx vertx, String key, Supplier<Future<User>> authn) {
+    if (failures != null) {
+      final Throwable failure = failures.get(key);
+      if (failure != null) {
+        return Future.failedFuture(failure);
+      }
+    }
+
+    return cache
+      .getOrLoad(vertx, key, k -> load(vertx, k, authn), this::expiresAt)
+      .map(UserCache::copy);
+  }
+
+  private Future<User> load(Vertx vertx, String key, Supplier<Future<User>> authn) {
+    if (sharedMapName == null) {
+      return verify(key, authn);
+    }
+
+    return vertx.sharedData()
+      .<String, JsonObject>getAsyncMap(sharedMapName)
+      .compose(map -> map
+        .get(key)
+        // a failing shared tier must not prevent authentication
+        .otherwiseEmpty()
+        .compose(json -> {
+          if (json != null) {
+            return Future.succeededFuture(User.create(json.getJsonObject("principal"), json.getJsonObject("attributes")));
+          }
+          return verify(key, authn)
+            .onSuccess(user -> {
+              final long ttl = expiresAt(user) - System.currentTimeMillis();
+              if (ttl > 0) {
+                map.put(key, new JsonObject().put("principal", user.principal()).put("attributes", user.attributes()), ttl);
+              }
+            });
+        }), err -> verify(key, authn));
+  }
+
+  private Future<User> verify(String key, Supplier<Future<User>> authn) {
+    final Future<User> fut = authn.get();
+    if (failures != null) {
+      return fut.onFailure(err -> {
+        if (cacheableFailure == null || cacheableFailure.test(err)) {
+          failures.put(key, err, System.currentTimeMillis() + failureMaxAge);
+        }
+      });
+    }
+    return fut;
+  }
+
+  private long expiresAt(User user) {
+    final long now = System.currentTimeMillis();
+    long expiresAt = now + maxAge;
+
+    if (user.expired()) {
+      // never cache expired users
+      return now;
+    }
+
+    if (user.containsKey("exp")) {
+      final Object exp = user.get("exp");
+      if (exp instanceof Number) {
+        // exp is in seconds
+        expiresAt = Math.min(expiresAt, ((Number) exp).longValue() * 1000);
+      }
+    }
+
+    return expiresAt;
+  }
+
+  private static User copy(User user) {
+    return User.create(user.principal().copy(), user.attributes().copy());
+  }
+}
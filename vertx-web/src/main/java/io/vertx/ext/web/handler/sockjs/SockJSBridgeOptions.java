@@ -51,10 +51,16 @@ public class SockJSBridgeOptions extends BridgeOptions {
    */
   public static final long DEFAULT_REPLY_TIMEOUT = 30 * 1000;
 
+  /**
+   * Default value for multiplexed consumers = false
+   */
+  public static final boolean DEFAULT_MULTIPLEX_CONSUMERS = false;
+
   private int maxAddressLength;
   private int maxHandlersPerSocket;
   private long pingTimeout;
   private long replyTimeout;
+  private boolean multiplexConsumers;
 
   /**
    * Copy constructor
@@ -67,6 +73,7 @@ public class SockJSBridgeOptions extends BridgeOptions {
     this.maxHandlersPerSocket = other.maxHandlersPerSocket;
     this.pingTimeout = other.pingTimeout;
     this.replyTimeout = other.replyTimeout;
+    this.multiplexConsumers = other.multiplexConsumers;
   }
 
   /**
@@ -78,6 +85,7 @@ public class SockJSBridgeOptions extends BridgeOptions {
     this.maxHandlersPerSocket = DEFAULT_MAX_HANDLERS_PER_SOCKET;
     this.pingTimeout = DEFAULT_PING_TIMEOUT;
     this.replyTimeout = DEFAULT_REPLY_TIMEOUT;
+    this.multiplexConsumers = DEFAULT_MULTIPLEX_CONSUMERS;
   }
 
   /**
@@ -139,6 +147,26 @@ public class SockJSBridgeOptions extends BridgeOptions {
     return this;
   }
 
+  public boolean isMultiplexConsumers() {
+    return multiplexConsumers;
+  }
+
+  /**
+   * By default the bridge registers an event bus consumer per socket and address. When multiplexed, the sockets
+   * registered to the same address share a single consumer: the outbound permissions are checked and the message is
+   * encoded once, then written to all the sockets.
+   * <p>
+   * Multiplexing changes how the outbound messages reach the bridge event handler. It still gets a
+   * {@link io.vertx.ext.bridge.BridgeEventType#RECEIVE} event per socket, but with a copy of the message.
+   *
+   * @param multiplexConsumers true to share the consumers
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SockJSBridgeOptions setMultiplexConsumers(boolean multiplexConsumers) {
+    this.multiplexConsumers = multiplexConsumers;
+    return this;
+  }
+
   @Override
   public SockJSBridgeOptions addInboundPermitted(PermittedOptions permitted) {
     super.addInboundPermitted(permitted);
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs;
+
+import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.handler.sockjs.impl.SockJSBroadcastGroupImpl;
+
+/**
+ * A group of SockJS sockets receiving the same messages.
+ *
+ * A broadcast message is encoded once per transport framing and the resulting buffer is shared by all the members
+ * using that transport, instead of being encoded again for each socket. Members that cannot keep up, i.e. their write
+ * queue is full (see {@link SockJSSocket#setWriteQueueMaxSize(int)}), are handled according to the
+ * {@link SlowConsumerPolicy} of the group.
+ *
+ * Closed sockets are removed from the group on the next broadcast. The group is thread safe.
+ */
+@VertxGen
+public interface SockJSBroadcastGroup {
+
+  /**
+   * Create a group dropping messages for slow members.
+   *
+   * @return the group
+   */
+  static SockJSBroadcastGroup create() {
+    return create(SlowConsumerPolicy.DROP);
+  }
+
+  /**
+   * Create a group.
+   *
+   * @param policy what to do with members whose write queue is full
+   * @return the group
+   */
+  static SockJSBroadcastGroup create(SlowConsumerPolicy policy) {
+    return new SockJSBroadcastGroupImpl(policy);
+  }
+
+  /**
+   * Add a socket to the group.
+   *
+   * @param socket the socket
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  SockJSBroadcastGroup add(SockJSSocket socket);
+
+  /**
+   * Remove a socket from the group.
+   *
+   * @param socket the socket
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  SockJSBroadcastGroup remove(SockJSSocket socket);
+
+  /**
+   * @return the number of members
+   */
+  int size();
+
+  /**
+   * Write a message to all the members of the group.
+   *
+   * @param message the message
+   * @return the number of members the message was written to
+   */
+  int broadcast(Buffer message);
+
+  /**
+   * Write a UTF-8 encoded message to all the members of the group.
+   *
+   * @param message the message
+   * @return the number of members the message was written to
+   */
+  default int broadcast(String message) {
+    return broadcast(Buffer.buffer(message));
+  }
+
+  /**
+   * Get the counters of the group: {@code broadcasts}, {@code delivered}, {@code dropped} and {@code disconnected}.
+   *
+   * @return the statistics
+   */
+  JsonObject stats();
+}
@@ -66,6 +66,16 @@ public class SockJSHandlerOptions {
    */
   public static final boolean DEFAULT_LOCAL_WRITE_HANDLER = true;
 
+  /**
+   * The default maximum number of bytes a session can queue = -1 (unbounded).
+   */
+  public static final long DEFAULT_MAX_QUEUED_BYTES = -1;
+
+  /**
+   * The default WebSocket sub protocol selecting the binary mode = null (disabled).
+   */
+  public static final String DEFAULT_BINARY_SUB_PROTOCOL = null;
+
   private long sessionTimeout;
   private boolean insertJSESSIONID;
   private long heartbeatInterval;
@@ -74,6 +84,8 @@ public class SockJSHandlerOptions {
   private final Set<String> disabledTransports = new HashSet<>();
   private boolean registerWriteHandler;
   private boolean localWriteHandler;
+  private long maxQueuedBytes;
+  private String binarySubProtocol;
 
   /**
    * Copy constructor.
@@ -89,6 +101,8 @@ public class SockJSHandlerOptions {
     disabledTransports.addAll(other.disabledTransports);
     registerWriteHandler = other.registerWriteHandler;
     localWriteHandler = other.localWriteHandler;
+    maxQueuedBytes = other.maxQueuedBytes;
+    binarySubProtocol = other.binarySubProtocol;
   }
 
   /**
@@ -102,6 +116,8 @@ public class SockJSHandlerOptions {
     libraryURL = DEFAULT_LIBRARY_URL;
     registerWriteHandler = DEFAULT_REGISTER_WRITE_HANDLER;
     localWriteHandler = DEFAULT_LOCAL_WRITE_HANDLER;
+    maxQueuedBytes = DEFAULT_MAX_QUEUED_BYTES;
+    binarySubProtocol = DEFAULT_BINARY_SUB_PROTOCOL;
   }
 
   /**
@@ -128,6 +144,8 @@ public class SockJSHandlerOptions {
     }
     registerWriteHandler = json.getBoolean("registerWriteHandler", DEFAULT_REGISTER_WRITE_HANDLER);
     localWriteHandler = json.getBoolean("localWriteHandler", DEFAULT_LOCAL_WRITE_HANDLER);
+    maxQueuedBytes = json.getLong("maxQueuedBytes", DEFAULT_MAX_QUEUED_BYTES);
+    binarySubProtocol = json.getString("binarySubProtocol", DEFAULT_BINARY_SUB_PROTOCOL);
   }
 
   /**
@@ -182,7 +200,8 @@ public class SockJSHandlerOptions {
 
   /**
    * In order to keep proxies and load balancers from closing long running HTTP requests we need to pretend that the connection is active and send a heartbeat packet once in a while.
-   * This setting controls how often this is done.
+   * This setting controls how often this is done, a heartbeat is only sent to a connection that has been idle for the
+   * whole interval.
    * <p>
    * Defaults to 25 seconds.
    *
@@ -309,4 +328,62 @@ public class SockJSHandlerOptions {
     this.localWriteHandler = localWriteHandler;
     return this;
   }
+
+  /**
+   * @return the maximum number of bytes a session can queue, {@code -1} when unbounded
+   */
+  public long getMaxQueuedBytes() {
+    return maxQueuedBytes;
+  }
+
+  /**
+   * Messages written to a session are queued until a transport connection can deliver them, which for polling
+   * transports happens only when the client comes back.
+   * <p>
+   * This setting is a hard cap on the memory a single session can hold, writes that would exceed it fail instead of
+   * being queued. Unlike {@link SockJSSocket#setWriteQueueMaxSize(int)}, which only signals back pressure, the cap
+   * protects the server from clients that never drain their session.
+   * <p>
+   * Defaults to {@code -1} (unbounded).
+   *
+   * @param maxQueuedBytes the maximum number of bytes, or {@code -1} for no limit
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SockJSHandlerOptions setMaxQueuedBytes(long maxQueuedBytes) {
+    if (maxQueuedBytes < 1 && maxQueuedBytes != -1) {
+      throw new IllegalArgumentException("maxQueuedBytes must be > 0 or -1");
+    }
+    this.maxQueuedBytes = maxQueuedBytes;
+    return this;
+  }
+
+  /**
+   * @return the WebSocket sub protocol selecting the binary mode, {@code null} when disabled
+   */
+  public String getBinarySubProtocol() {
+    return binarySubProtocol;
+  }
+
+  /**
+   * Enable a binary mode for WebSocket clients negotiating the given sub protocol, plain SockJS clients are not
+   * affected.
+   * <p>
+   * In binary mode each message written to the socket is sent as is, in its own binary WebSocket message, instead of
+   * being escaped into a SockJS text frame. Binary messages sent by the client are received as is too, while text
+   * messages and the control frames ({@code o}, {@code h}, {@code c[...]}) keep the SockJS format.
+   * <p>
+   * The sub protocol is negotiated by the HTTP server, so it must also be declared with
+   * {@link io.vertx.core.http.HttpServerOptions#addWebSocketSubProtocol(String)}. Likewise WebSocket compression
+   * ({@code permessage-deflate}) is negotiated by the server, see
+   * {@link io.vertx.core.http.HttpServerOptions#setPerMessageWebSocketCompressionSupported(boolean)}.
+   * <p>
+   * Defaults to {@code null} (disabled).
+   *
+   * @param binarySubProtocol the sub protocol
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SockJSHandlerOptions setBinarySubProtocol(String binarySubProtocol) {
+    this.binarySubProtocol = binarySubProtocol;
+    return this;
+  }
 }
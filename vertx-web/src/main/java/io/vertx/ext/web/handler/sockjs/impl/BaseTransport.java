@@ -92,16 +92,6 @@ class BaseTransport {
     response.end("Broken JSON encoding.");
   }
 
-  protected String escapeForJavaScript(String str) {
-    try {
-       str = StringEscapeUtils.escapeJavaScript(str);
-    } catch (Exception e) {
-      LOG.error("Failed to escape", e);
-      str = null;
-    }
-    return str;
-  }
-
   protected static abstract class BaseListener implements TransportListener {
     protected final RoutingContext rc;
     protected final SockJSSession session;
@@ -45,17 +45,16 @@ import io.vertx.ext.auth.authorization.Authorization;
 import io.vertx.ext.auth.authorization.AuthorizationProvider;
 import io.vertx.ext.auth.authorization.PermissionBasedAuthorization;
 import io.vertx.ext.bridge.BridgeEventType;
-import io.vertx.ext.bridge.PermittedOptions;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.handler.sockjs.*;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static io.vertx.core.buffer.Buffer.buffer;
 
@@ -67,8 +66,8 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
   private static final Logger LOG = LoggerFactory.getLogger(EventBusBridgeImpl.class);
 
   private final Map<SockJSSocket, SockInfo> sockInfos = new HashMap<>();
-  private final List<PermittedOptions> inboundPermitted;
-  private final List<PermittedOptions> outboundPermitted;
+  private final Permissions inboundPermitted;
+  private final Permissions outboundPermitted;
   private final int maxAddressLength;
   private final int maxHandlersPerSocket;
   private final long pingTimeout;
@@ -76,29 +75,31 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
   private final Vertx vertx;
   private final EventBus eb;
   private final Map<String, Message<?>> messagesAwaitingReply = new HashMap<>();
-  private final Map<String, Pattern> compiledREs = new HashMap<>();
   private final Handler<BridgeEvent> bridgeEventHandler;
   private final AuthorizationProvider authzProvider;
+  // the shared consumers per address, null unless multiplexed
+  private final Map<String, Topic> topics;
 
   public EventBusBridgeImpl(Vertx vertx, AuthorizationProvider authzProvider, SockJSBridgeOptions options, Handler<BridgeEvent> bridgeEventHandler) {
     this.vertx = vertx;
     this.eb = vertx.eventBus();
     this.authzProvider = authzProvider;
-    this.inboundPermitted = options.getInboundPermitteds() == null ? new ArrayList<>() : options.getInboundPermitteds();
-    this.outboundPermitted = options.getOutboundPermitteds() == null ? new ArrayList<>() : options.getOutboundPermitteds();
+    this.inboundPermitted = new Permissions(options.getInboundPermitteds() == null ? new ArrayList<>() : options.getInboundPermitteds());
+    this.outboundPermitted = new Permissions(options.getOutboundPermitteds() == null ? new ArrayList<>() : options.getOutboundPermitteds());
     this.maxAddressLength = options.getMaxAddressLength();
     this.maxHandlersPerSocket = options.getMaxHandlersPerSocket();
     this.pingTimeout = options.getPingTimeout();
     this.replyTimeout = options.getReplyTimeout();
     this.bridgeEventHandler = bridgeEventHandler;
+    this.topics = options.isMultiplexConsumers() ? new HashMap<>() : null;
   }
 
-  private void handleSocketClosed(SockJSSocket sock, Map<String, MessageConsumer<?>> registrations) {
+  private void handleSocketClosed(SockJSSocket sock, Map<String, Runnable> registrations) {
     // On close unregister any handlers that haven't been unregistered
-    registrations.forEach((key, value) -> {
-      value.unregister();
+    registrations.forEach((address, unregister) -> {
+      unregister.run();
       checkCallHook(() -> new BridgeEventImpl(BridgeEventType.UNREGISTER,
-        new JsonObject().put("type", "unregister").put("address", value.address()), sock), null, null);
+        new JsonObject().put("type", "unregister").put("address", address), sock), null, null);
     });
 
     SockInfo info = sockInfos.remove(sock);
@@ -113,7 +114,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
       null, null);
   }
 
-  private void handleSocketData(SockJSSocket sock, Buffer data, Map<String, MessageConsumer<?>> registrations) {
+  private void handleSocketData(SockJSSocket sock, Buffer data, Map<String, Runnable> registrations) {
     JsonObject msg;
 
     try {
@@ -208,7 +209,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
     }
   }
 
-  private void internalHandleRegister(SockJSSocket sock, JsonObject rawMsg, Map<String, MessageConsumer<?>> registrations) {
+  private void internalHandleRegister(SockJSSocket sock, JsonObject rawMsg, Map<String, Runnable> registrations) {
     final SockInfo info = sockInfos.get(sock);
     if (!checkMaxHandlers(sock, info)) {
       return;
@@ -226,7 +227,17 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
           return;
         }
         Match match = checkMatches(false, address, null);
-        if (match.doesMatch) {
+        if (match.doesMatch && topics != null) {
+          // registering the same address again is a no-op, the socket gets each message once
+          if (!registrations.containsKey(address)) {
+            final Topic topic = topics.computeIfAbsent(address, Topic::new);
+            topic.sockets.add(sock);
+            registrations.put(address, () -> topic.unsubscribe(sock));
+            info.handlerCount++;
+          }
+          // Notify registration completed
+          checkCallHook(() -> new BridgeEventImpl(BridgeEventType.REGISTERED, rawMsg, sock), null, null);
+        } else if (match.doesMatch) {
           Handler<Message<Object>> handler = msg -> {
             Match curMatch = checkMatches(false, address, msg.body());
             if (curMatch.doesMatch) {
@@ -258,7 +269,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
             }
           };
           MessageConsumer<?> reg = eb.consumer(address).handler(handler);
-          registrations.put(address, reg);
+          registrations.put(address, reg::unregister);
           info.handlerCount++;
           // Notify registration completed
           checkCallHook(() -> new BridgeEventImpl(BridgeEventType.REGISTERED, rawMsg, sock), null, null);
@@ -272,7 +283,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
       }, () -> replyError(sock, "rejected"));
   }
 
-  private void internalHandleUnregister(SockJSSocket sock, JsonObject rawMsg, Map<String, MessageConsumer<?>> registrations) {
+  private void internalHandleUnregister(SockJSSocket sock, JsonObject rawMsg, Map<String, Runnable> registrations) {
     checkCallHook(() -> new BridgeEventImpl(BridgeEventType.UNREGISTER, rawMsg, sock),
       () -> {
         String address = rawMsg.getString("address");
@@ -282,9 +293,9 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
         }
         Match match = checkMatches(false, address, null);
         if (match.doesMatch) {
-          MessageConsumer<?> reg = registrations.remove(address);
+          Runnable reg = registrations.remove(address);
           if (reg != null) {
-            reg.unregister();
+            reg.run();
             SockInfo info = sockInfos.get(sock);
             info.handlerCount--;
           }
@@ -313,7 +324,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
   public void handle(final SockJSSocket sock) {
     checkCallHook(() -> new BridgeEventImpl(BridgeEventType.SOCKET_CREATED, null, sock),
       () -> {
-        Map<String, MessageConsumer<?>> registrations = new HashMap<>();
+        Map<String, Runnable> registrations = new HashMap<>();
 
         sock.endHandler(v -> handleSocketClosed(sock, registrations));
         sock.handler(data -> handleSocketData(sock, data, registrations));
@@ -352,6 +363,13 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
   }
 
   private void deliverMessage(SockJSSocket sock, String address, Message<?> message) {
+    JsonObject envelope = envelope(address, message);
+    checkCallHook(() -> new BridgeEventImpl(BridgeEventType.RECEIVE, envelope, sock),
+      () -> sock.write(buffer(envelope.encode())),
+      () -> LOG.debug("outbound message rejected by bridge event handler"));
+  }
+
+  private static JsonObject envelope(String address, Message<?> message) {
     JsonObject envelope = new JsonObject().put("type", "rec").put("address", address).put("body", message.body());
     if (message.replyAddress() != null) {
       envelope.put("replyAddress", message.replyAddress());
@@ -368,9 +386,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
       }
       envelope.put("headers", headersCopy);
     }
-    checkCallHook(() -> new BridgeEventImpl(BridgeEventType.RECEIVE, envelope, sock),
-      () -> sock.write(buffer(envelope.encode())),
-      () -> LOG.debug("outbound message rejected by bridge event handler"));
+    return envelope;
   }
 
   private void doSendOrPub(boolean send, SockJSSocket sock, String address,
@@ -538,40 +554,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
   this means that specifying one match with a JSON empty object means everything is accepted
    */
   private Match checkMatches(boolean inbound, String address, Object body) {
-
-    List<PermittedOptions> matches = inbound ? inboundPermitted : outboundPermitted;
-
-    for (PermittedOptions matchHolder : matches) {
-      String matchAddress = matchHolder.getAddress();
-      String matchRegex;
-      if (matchAddress == null) {
-        matchRegex = matchHolder.getAddressRegex();
-      } else {
-        matchRegex = null;
-      }
-
-      boolean addressOK;
-      if (matchAddress == null) {
-        addressOK = matchRegex == null || regexMatches(matchRegex, address);
-      } else {
-        addressOK = matchAddress.equals(address);
-      }
-
-      if (addressOK) {
-        boolean matched = structureMatches(matchHolder.getMatch(), body);
-        if (matched) {
-          String requiredAuthority = matchHolder.getRequiredAuthority();
-          return new Match(true, requiredAuthority);
-        }
-      }
-    }
-    return new Match(false);
-  }
-
-  private boolean regexMatches(String matchRegex, String address) {
-    Pattern pattern = compiledREs.computeIfAbsent(matchRegex, Pattern::compile);
-    Matcher m = pattern.matcher(address);
-    return m.matches();
+    return (inbound ? inboundPermitted : outboundPermitted).check(address, body);
   }
 
   private static void replyError(SockJSSocket sock, String err) {
@@ -579,31 +562,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
     sock.write(buffer(envelope.encode()));
   }
 
-  private static boolean structureMatches(JsonObject match, Object bodyObject) {
-    if (match == null || bodyObject == null) return true;
-
-    // Can send message other than JSON too - in which case we can't do deep matching on structure of message
-    if (bodyObject instanceof JsonObject) {
-      JsonObject body = (JsonObject) bodyObject;
-      for (String fieldName : match.fieldNames()) {
-        Object mv = match.getValue(fieldName);
-        Object bv = body.getValue(fieldName);
-        // Support deep matching
-        if (mv instanceof JsonObject) {
-          if (!structureMatches((JsonObject) mv, bv)) {
-            return false;
-          }
-        } else if (!match.getValue(fieldName).equals(body.getValue(fieldName))) {
-          return false;
-        }
-      }
-      return true;
-    }
-
-    return false;
-  }
-
-  private static class Match {
+  static class Match {
     public final boolean doesMatch;
     public final Authorization requiredAuthority;
 
@@ -619,6 +578,110 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
 
   }
 
+  /**
+   * The sockets registered to an address when the consumers are multiplexed: a single event bus consumer checks the
+   * outbound permissions and encodes each message once, then writes it to all the sockets.
+   */
+  private final class Topic implements Handler<Message<Object>> {
+
+    final String address;
+    final Set<SockJSSocket> sockets = new LinkedHashSet<>();
+    final MessageConsumer<Object> consumer;
+    // round robin position for point to point messages
+    private int next;
+
+    Topic(String address) {
+      this.address = address;
+      this.consumer = eb.consumer(address, this);
+    }
+
+    void unsubscribe(SockJSSocket sock) {
+      if (sockets.remove(sock) && sockets.isEmpty()) {
+        consumer.unregister();
+        topics.remove(address, this);
+      }
+    }
+
+    @Override
+    public void handle(Message<Object> msg) {
+      final Match curMatch = checkMatches(false, address, msg.body());
+      if (!curMatch.doesMatch) {
+        // outbound match failed
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("Outbound message for address " + address + " rejected because there is no inbound match");
+        }
+        return;
+      }
+      final SockJSSocket[] targets;
+      if (msg.isSend()) {
+        // point to point, like with a consumer per socket a single socket gets the message
+        final SockJSSocket target = nextSocket();
+        if (target == null) {
+          return;
+        }
+        targets = new SockJSSocket[] { target };
+      } else {
+        // sockets can unregister while the message is delivered
+        targets = sockets.toArray(new SockJSSocket[0]);
+      }
+      final JsonObject envelope = envelope(address, msg);
+      // the bridge event handler can change the message, each socket gets its own copy then
+      final Buffer encoded = bridgeEventHandler == null ? buffer(envelope.encode()) : null;
+      if (curMatch.requiredAuthority == null) {
+        checkAddAccceptedReplyAddress(msg);
+      }
+      for (SockJSSocket sock : targets) {
+        if (curMatch.requiredAuthority != null) {
+          authorise(curMatch, sock.webUser(), res -> {
+            if (res.succeeded()) {
+              if (res.result()) {
+                checkAddAccceptedReplyAddress(msg);
+                deliver(sock, envelope, encoded);
+              } else {
+                if (LOG.isDebugEnabled()) {
+                  LOG.debug("Outbound message for address " + address + " rejected because auth is required and socket is not authed");
+                }
+              }
+            } else {
+              LOG.error(res.cause());
+            }
+          });
+        } else {
+          deliver(sock, envelope, encoded);
+        }
+      }
+    }
+
+    private SockJSSocket nextSocket() {
+      final int size = sockets.size();
+      if (size == 0) {
+        return null;
+      }
+      if (next >= size) {
+        next = 0;
+      }
+      final int idx = next++;
+      int i = 0;
+      for (SockJSSocket sock : sockets) {
+        if (i++ == idx) {
+          return sock;
+        }
+      }
+      return null;
+    }
+
+    private void deliver(SockJSSocket sock, JsonObject envelope, Buffer encoded) {
+      if (encoded != null) {
+        sock.write(encoded);
+      } else {
+        final JsonObject copy = envelope.copy();
+        checkCallHook(() -> new BridgeEventImpl(BridgeEventType.RECEIVE, copy, sock),
+          () -> sock.write(buffer(copy.encode())),
+          () -> LOG.debug("outbound message rejected by bridge event handler"));
+      }
+    }
+  }
+
   private static final class PingInfo {
     long lastPing;
     long timerID;
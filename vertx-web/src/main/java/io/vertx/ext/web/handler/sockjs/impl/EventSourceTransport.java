@@ -46,7 +46,8 @@ import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.sockjs.SockJSHandlerOptions;
 import io.vertx.ext.web.handler.sockjs.SockJSSocket;
 
-import static io.vertx.core.buffer.Buffer.buffer;
+import java.util.List;
+
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -56,6 +57,8 @@ class EventSourceTransport extends BaseTransport {
 
   private static final Logger LOG = LoggerFactory.getLogger(EventSourceTransport.class);
 
+  private static final FrameEncoder.Framing FRAMING = new FrameEncoder.Framing("data: ", "\r\n\r\n", false);
+
   EventSourceTransport(Vertx vertx, Router router, LocalMap<String, SockJSSession> sessions, SockJSHandlerOptions options,
                        Handler<SockJSSocket> sockHandler) {
     super(vertx, sessions, options);
@@ -86,6 +89,20 @@ class EventSourceTransport extends BaseTransport {
 
     @Override
     public void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+      send(FRAMING.frame(body), handler);
+    }
+
+    @Override
+    public void sendMessages(List<Buffer> messages, Handler<AsyncResult<Void>> handler) {
+      send(FRAMING.messages(messages), handler);
+    }
+
+    @Override
+    public void sendShared(SharedFrame frame, Handler<AsyncResult<Void>> handler) {
+      send(frame.encode(FRAMING), handler);
+    }
+
+    private void send(Buffer buff, Handler<AsyncResult<Void>> handler) {
       if (LOG.isTraceEnabled()) LOG.trace("EventSource, sending frame");
       if (!headersWritten) {
         // event stream data is always UTF8
@@ -97,10 +114,6 @@ class EventSourceTransport extends BaseTransport {
         rc.response().setChunked(true).write("\r\n");
         headersWritten = true;
       }
-      String sb = "data: " +
-        body +
-        "\r\n\r\n";
-      Buffer buff = buffer(sb);
       rc.response().write(buff, handler);
       bytesSent += buff.length();
       if (bytesSent >= maxBytesStreaming) {
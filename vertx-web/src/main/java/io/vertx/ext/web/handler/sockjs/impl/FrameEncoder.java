@@ -0,0 +1,231 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import com.fasterxml.jackson.core.io.CharTypes;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.buffer.impl.VertxByteBufAllocator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Encodes SockJS frames straight into buffers, in the framing of a transport.
+ *
+ * The SockJS escaping (see {@link JsonCodec}) turns every message into plain ASCII, so encoding is a single pass over
+ * the UTF-8 bytes of the messages, decoding them on the fly through a precomputed escape table, without intermediate
+ * strings. Messages that are not valid UTF-8 are decoded as a {@link String} would, with replacement characters. Frames are measured first and
+ * written into a buffer of the exact size, handed to the transport without any further copy.
+ *
+ * Transports embedding frames in JavaScript strings (htmlfile, jsonp) get a second level of escaping applied on the
+ * fly.
+ */
+final class FrameEncoder {
+
+  private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+  private static final int[] ESCAPE_CODES = CharTypes.get7BitOutputEscapes();
+
+  // per ASCII char: 0 when written as is, otherwise the char following the backslash
+  private static final byte[] JS_ESCAPES = new byte[128];
+
+  static {
+    JS_ESCAPES['\''] = '\'';
+    JS_ESCAPES['"'] = '"';
+    JS_ESCAPES['\\'] = '\\';
+    JS_ESCAPES['/'] = '/';
+  }
+
+  /**
+   * The bytes surrounding the frames of a transport.
+   */
+  static final class Framing {
+
+    final byte[] prefix;
+    final byte[] suffix;
+    final boolean escapeForJavaScript;
+
+    Framing(String prefix, String suffix, boolean escapeForJavaScript) {
+      this.prefix = prefix.getBytes(StandardCharsets.UTF_8);
+      this.suffix = suffix.getBytes(StandardCharsets.UTF_8);
+      this.escapeForJavaScript = escapeForJavaScript;
+    }
+
+    /**
+     * Encode a control frame ({@code o}, {@code h}, {@code c[...]}), the body is plain ASCII.
+     */
+    Buffer frame(String body) {
+      final int len = prefix.length + ascii(body, null, escapeForJavaScript) + suffix.length;
+      final ByteBuf out = VertxByteBufAllocator.DEFAULT.heapBuffer(len, len);
+      out.writeBytes(prefix);
+      ascii(body, out, escapeForJavaScript);
+      out.writeBytes(suffix);
+      return Buffer.buffer(out);
+    }
+
+    /**
+     * Encode an {@code a[...]} data frame holding the given messages.
+     */
+    Buffer messages(List<Buffer> messages) {
+      final int len = prefix.length + array(messages, null, escapeForJavaScript) + suffix.length;
+      final ByteBuf out = VertxByteBufAllocator.DEFAULT.heapBuffer(len, len);
+      out.writeBytes(prefix);
+      array(messages, out, escapeForJavaScript);
+      out.writeBytes(suffix);
+      return Buffer.buffer(out);
+    }
+  }
+
+  private FrameEncoder() {
+  }
+
+  // the following methods write to out unless it is null, and always return the number of bytes (to be) written
+
+  private static int array(List<Buffer> messages, ByteBuf out, boolean js) {
+    int len = put('a', out, js) + put('[', out, js);
+    for (int i = 0; i < messages.size(); i++) {
+      if (i > 0) {
+        len += put(',', out, js);
+      }
+      final Buffer message = messages.get(i);
+      len += put('"', out, js);
+      final int utf8 = utf8(message.getByteBuf(), out, js);
+      len += utf8 != -1 ? utf8 : string(message.toString(), out, js);
+      len += put('"', out, js);
+    }
+    return len + put(']', out, js);
+  }
+
+  /**
+   * Escape UTF-8 encoded bytes.
+   *
+   * @return the encoded length or {@code -1} when the bytes are not valid UTF-8, nothing is written in that case.
+   */
+  private static int utf8(ByteBuf message, ByteBuf out, boolean js) {
+    final int start = message.readerIndex();
+    final int end = message.writerIndex();
+    // validate first, so a malformed message never writes a partial output
+    if (out != null) {
+      if (utf8(message, null, js) == -1) {
+        return -1;
+      }
+    }
+    int len = 0;
+    int i = start;
+    while (i < end) {
+      final int b = message.getByte(i++);
+      if (b >= 0) {
+        len += escape((char) b, out, js);
+        continue;
+      }
+      final int lead = b & 0xFF;
+      int cp;
+      int min;
+      int more;
+      if (lead >= 0xC2 && lead <= 0xDF) {
+        cp = lead & 0x1F;
+        min = 0x80;
+        more = 1;
+      } else if (lead >= 0xE0 && lead <= 0xEF) {
+        cp = lead & 0x0F;
+        min = 0x800;
+        more = 2;
+      } else if (lead >= 0xF0 && lead <= 0xF4) {
+        cp = lead & 0x07;
+        min = 0x10000;
+        more = 3;
+      } else {
+        return -1;
+      }
+      if (i + more > end) {
+        return -1;
+      }
+      for (int j = 0; j < more; j++) {
+        final int c = message.getByte(i++) & 0xFF;
+        if ((c & 0xC0) != 0x80) {
+          return -1;
+        }
+        cp = (cp << 6) | (c & 0x3F);
+      }
+      if (cp < min || cp > Character.MAX_CODE_POINT || (cp >= Character.MIN_SURROGATE && cp <= Character.MAX_SURROGATE)) {
+        // overlong encoding, out of range or surrogate
+        return -1;
+      }
+      if (cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+        len += unicodeEscape(Character.highSurrogate(cp), out, js);
+        len += unicodeEscape(Character.lowSurrogate(cp), out, js);
+      } else {
+        len += unicodeEscape((char) cp, out, js);
+      }
+    }
+    return len;
+  }
+
+  private static int string(CharSequence message, ByteBuf out, boolean js) {
+    int len = 0;
+    for (int i = 0; i < message.length(); i++) {
+      len += escape(message.charAt(i), out, js);
+    }
+    return len;
+  }
+
+  private static int escape(char c, ByteBuf out, boolean js) {
+    if (c >= 0x80) {
+      // SockJS requires all the non US-ASCII characters to be escaped
+      return unicodeEscape(c, out, js);
+    }
+    final int code = ESCAPE_CODES[c];
+    if (code == 0) {
+      return put(c, out, js);
+    } else if (code == -1) {
+      return unicodeEscape(c, out, js);
+    } else {
+      return put('\\', out, js) + put(code, out, js);
+    }
+  }
+
+  private static int ascii(CharSequence body, ByteBuf out, boolean js) {
+    int len = 0;
+    for (int i = 0; i < body.length(); i++) {
+      len += put(body.charAt(i) & 0x7F, out, js);
+    }
+    return len;
+  }
+
+  private static int unicodeEscape(char c, ByteBuf out, boolean js) {
+    return put('\\', out, js) +
+      put('u', out, js) +
+      put(HEX[(c >> 12) & 0xF], out, js) +
+      put(HEX[(c >> 8) & 0xF], out, js) +
+      put(HEX[(c >> 4) & 0xF], out, js) +
+      put(HEX[c & 0xF], out, js);
+  }
+
+  private static int put(int c, ByteBuf out, boolean js) {
+    if (js && JS_ESCAPES[c] != 0) {
+      if (out != null) {
+        out.writeByte('\\');
+        out.writeByte(JS_ESCAPES[c]);
+      }
+      return 2;
+    }
+    if (out != null) {
+      out.writeByte(c);
+    }
+    return 1;
+  }
+}
@@ -46,10 +46,9 @@ import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.sockjs.SockJSHandlerOptions;
 import io.vertx.ext.web.handler.sockjs.SockJSSocket;
 
+import java.util.List;
 import java.util.regex.Pattern;
 
-import static io.vertx.core.buffer.Buffer.buffer;
-
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
@@ -58,6 +57,8 @@ class HtmlFileTransport extends BaseTransport {
 
   private static final Logger LOG = LoggerFactory.getLogger(HtmlFileTransport.class);
 
+  private static final FrameEncoder.Framing FRAMING = new FrameEncoder.Framing("<script>\np(\"", "\");\n</script>\r\n", true);
+
   private static final Pattern CALLBACK_VALIDATION = Pattern.compile("[^a-zA-Z0-9-_.]");
 
   private static final String HTML_FILE_TEMPLATE;
@@ -133,6 +134,20 @@ class HtmlFileTransport extends BaseTransport {
 
     @Override
     public void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+      send(FRAMING.frame(body), handler);
+    }
+
+    @Override
+    public void sendMessages(List<Buffer> messages, Handler<AsyncResult<Void>> handler) {
+      send(FRAMING.messages(messages), handler);
+    }
+
+    @Override
+    public void sendShared(SharedFrame frame, Handler<AsyncResult<Void>> handler) {
+      send(frame.encode(FRAMING), handler);
+    }
+
+    private void send(Buffer buff, Handler<AsyncResult<Void>> handler) {
       if (LOG.isTraceEnabled()) LOG.trace("HtmlFile, sending frame");
       if (!headersWritten) {
         String htmlFile = HTML_FILE_TEMPLATE.replace("{{ callback }}", callback);
@@ -143,11 +158,6 @@ class HtmlFileTransport extends BaseTransport {
         rc.response().write(htmlFile);
         headersWritten = true;
       }
-      body = escapeForJavaScript(body);
-      String sb = "<script>\np(\"" +
-        body +
-        "\");\n</script>\r\n";
-      Buffer buff = buffer(sb);
       rc.response().write(buff, handler);
       bytesSent += buff.length();
       if (bytesSent >= maxBytesStreaming) {
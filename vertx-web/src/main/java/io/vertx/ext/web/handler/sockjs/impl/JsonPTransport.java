@@ -35,6 +35,7 @@ package io.vertx.ext.web.handler.sockjs.impl;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.impl.logging.Logger;
@@ -46,6 +47,7 @@ import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.sockjs.SockJSHandlerOptions;
 import io.vertx.ext.web.handler.sockjs.SockJSSocket;
 
+import java.util.List;
 import java.util.regex.Pattern;
 
 /**
@@ -144,18 +146,34 @@ class JsonPTransport extends BaseTransport {
 
   private class JsonPListener extends BaseListener {
 
-    final String callback;
+    final FrameEncoder.Framing framing;
     boolean headersWritten;
     boolean closed;
 
     JsonPListener(RoutingContext rc, SockJSSession session, String callback) {
       super(rc, session);
-      this.callback = callback;
+      // prepend comment to avoid SWF exploit https://github.com/sockjs/sockjs-node/issues/163
+      this.framing = new FrameEncoder.Framing("/**/" + callback + "(\"", "\");\r\n", true);
       addCloseHandler(rc.response(), session);
     }
 
     @Override
     public void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+      send(framing.frame(body), handler);
+    }
+
+    @Override
+    public void sendMessages(List<Buffer> messages, Handler<AsyncResult<Void>> handler) {
+      send(framing.messages(messages), handler);
+    }
+
+    @Override
+    public void sendShared(SharedFrame frame, Handler<AsyncResult<Void>> handler) {
+      // the framing depends on the callback, so it cannot be shared with other sessions
+      send(framing.messages(frame.messages()), handler);
+    }
+
+    private void send(Buffer frame, Handler<AsyncResult<Void>> handler) {
       if (LOG.isTraceEnabled()) LOG.trace("JsonP, sending frame");
 
       if (!headersWritten) {
@@ -169,16 +187,9 @@ class JsonPTransport extends BaseTransport {
         headersWritten = true;
       }
 
-      body = escapeForJavaScript(body);
-
-      // prepend comment to avoid SWF exploit https://github.com/sockjs/sockjs-node/issues/163
-      String sb = "/**/" + callback + "(\"" +
-        body +
-        "\");\r\n";
-
       //End the response and close the HTTP connection
 
-      rc.response().write(sb, handler);
+      rc.response().write(frame, handler);
       close();
     }
 
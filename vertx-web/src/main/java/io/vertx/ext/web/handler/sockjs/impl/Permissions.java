@@ -0,0 +1,181 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.bridge.PermittedOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * The permitted options of one direction of the bridge, compiled for matching.
+ *
+ * Instead of walking all the options for each message, options with an exact address are indexed by address, address
+ * regular expressions are compiled once and the options accepting a given address are memoized per address in a
+ * bounded cache. Only the structure of the body is left to check per message, against the options accepting the
+ * address in their declaration order, so the first matching option still wins.
+ *
+ * Empty options means reject everything. Thread safe.
+ */
+final class Permissions {
+
+  // bound of the memoized addresses, the cache starts over once full so it follows the addresses in use
+  private static final int MAX_ADDRESSES = 4096;
+  private static final Rule[] NONE = new Rule[0];
+  private static final EventBusBridgeImpl.Match NO_MATCH = new EventBusBridgeImpl.Match(false);
+
+  private static final class Rule {
+    final int order;
+    final Structure match;
+    final EventBusBridgeImpl.Match verdict;
+
+    Rule(int order, PermittedOptions options) {
+      this.order = order;
+      this.match = options.getMatch() == null ? null : new Structure(options.getMatch());
+      this.verdict = new EventBusBridgeImpl.Match(true, options.getRequiredAuthority());
+    }
+  }
+
+  /**
+   * A {@code match} object flattened into arrays, nested objects are matched recursively.
+   */
+  private static final class Structure {
+    final String[] names;
+    final Object[] values;
+
+    Structure(JsonObject match) {
+      names = match.fieldNames().toArray(new String[0]);
+      values = new Object[names.length];
+      for (int i = 0; i < names.length; i++) {
+        final Object value = match.getValue(names[i]);
+        values[i] = value instanceof JsonObject ? new Structure((JsonObject) value) : value;
+      }
+    }
+
+    boolean matches(Object bodyObject) {
+      if (bodyObject == null) {
+        return true;
+      }
+      // Can send message other than JSON too - in which case we can't do deep matching on structure of message
+      if (!(bodyObject instanceof JsonObject)) {
+        return false;
+      }
+      final JsonObject body = (JsonObject) bodyObject;
+      for (int i = 0; i < names.length; i++) {
+        final Object value = values[i];
+        final Object bodyValue = body.getValue(names[i]);
+        if (value instanceof Structure) {
+          if (!((Structure) value).matches(bodyValue)) {
+            return false;
+          }
+        } else if (!value.equals(bodyValue)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private final Map<String, Rule[]> exact = new HashMap<>();
+  private final Pattern[] patterns;
+  private final Rule[] patternRules;
+  // options without any address constraint
+  private final Rule[] any;
+  private final Map<String, Rule[]> addresses = new ConcurrentHashMap<>();
+
+  Permissions(List<PermittedOptions> options) {
+    final Map<String, List<Rule>> exact = new HashMap<>();
+    final List<Pattern> patterns = new ArrayList<>();
+    final List<Rule> patternRules = new ArrayList<>();
+    final List<Rule> any = new ArrayList<>();
+
+    for (int i = 0; i < options.size(); i++) {
+      final PermittedOptions option = options.get(i);
+      final Rule rule = new Rule(i, option);
+      if (option.getAddress() != null) {
+        exact.computeIfAbsent(option.getAddress(), k -> new ArrayList<>()).add(rule);
+      } else if (option.getAddressRegex() != null) {
+        patterns.add(Pattern.compile(option.getAddressRegex()));
+        patternRules.add(rule);
+      } else {
+        any.add(rule);
+      }
+    }
+
+    exact.forEach((address, rules) -> this.exact.put(address, rules.toArray(NONE)));
+    this.patterns = patterns.toArray(new Pattern[0]);
+    this.patternRules = patternRules.toArray(NONE);
+    this.any = any.toArray(NONE);
+  }
+
+  /**
+   * Check a message against the options.
+   *
+   * @param address the address of the message
+   * @param body the body, or {@code null} to check the address only
+   * @return the first matching option verdict
+   */
+  EventBusBridgeImpl.Match check(String address, Object body) {
+    Rule[] rules = address == null ? null : addresses.get(address);
+    if (rules == null) {
+      rules = select(address);
+      if (address != null) {
+        if (addresses.size() >= MAX_ADDRESSES) {
+          addresses.clear();
+        }
+        addresses.put(address, rules);
+      }
+    }
+    for (Rule rule : rules) {
+      if (rule.match == null || rule.match.matches(body)) {
+        return rule.verdict;
+      }
+    }
+    return NO_MATCH;
+  }
+
+  /**
+   * @return the options accepting the address, in declaration order.
+   */
+  private Rule[] select(String address) {
+    final List<Rule> rules = new ArrayList<>();
+    if (address != null) {
+      final Rule[] exactRules = exact.get(address);
+      if (exactRules != null) {
+        rules.addAll(Arrays.asList(exactRules));
+      }
+      for (int i = 0; i < patterns.length; i++) {
+        if (patterns[i].matcher(address).matches()) {
+          rules.add(patternRules[i]);
+        }
+      }
+    }
+    rules.addAll(Arrays.asList(any));
+    if (rules.isEmpty()) {
+      return NONE;
+    }
+    rules.sort(Comparator.comparingInt(rule -> rule.order));
+    return rules.toArray(NONE);
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A broadcast message, encoded at most once per transport framing and shared by all the sessions it is written to.
+ *
+ * The encoded frames are heap buffers that writing does not consume or release, so the same buffer can be written to
+ * any number of connections, from any event loop.
+ */
+final class SharedFrame {
+
+  private final Buffer message;
+  private final List<Buffer> messages;
+  private final Map<FrameEncoder.Framing, Buffer> encoded = new ConcurrentHashMap<>(4);
+
+  SharedFrame(Buffer message) {
+    this.message = message;
+    this.messages = Collections.singletonList(message);
+  }
+
+  Buffer message() {
+    return message;
+  }
+
+  List<Buffer> messages() {
+    return messages;
+  }
+
+  /**
+   * Encode the message with a shared transport framing, only the first session of each transport pays for it.
+   */
+  Buffer encode(FrameEncoder.Framing framing) {
+    return encoded.computeIfAbsent(framing, f -> f.messages(messages));
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.handler.sockjs.SlowConsumerPolicy;
+import io.vertx.ext.web.handler.sockjs.SockJSBroadcastGroup;
+import io.vertx.ext.web.handler.sockjs.SockJSSocket;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class SockJSBroadcastGroupImpl implements SockJSBroadcastGroup {
+
+  private final Set<SockJSSocket> members = ConcurrentHashMap.newKeySet();
+  private final SlowConsumerPolicy policy;
+
+  private final LongAdder broadcasts = new LongAdder();
+  private final LongAdder delivered = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder disconnected = new LongAdder();
+
+  public SockJSBroadcastGroupImpl(SlowConsumerPolicy policy) {
+    this.policy = Objects.requireNonNull(policy, "policy");
+  }
+
+  @Override
+  public SockJSBroadcastGroup add(SockJSSocket socket) {
+    members.add(Objects.requireNonNull(socket, "socket"));
+    return this;
+  }
+
+  @Override
+  public SockJSBroadcastGroup remove(SockJSSocket socket) {
+    members.remove(socket);
+    return this;
+  }
+
+  @Override
+  public int size() {
+    return members.size();
+  }
+
+  @Override
+  public int broadcast(Buffer message) {
+    broadcasts.increment();
+    // encoded lazily, once per transport framing, by the first session flushing it
+    final SharedFrame frame = new SharedFrame(message);
+    int count = 0;
+    for (SockJSSocket member : members) {
+      final boolean accepted;
+      if (member instanceof SockJSSession) {
+        final SockJSSession session = (SockJSSession) member;
+        if (session.isClosed()) {
+          members.remove(member);
+          continue;
+        }
+        accepted = session.writeShared(frame);
+      } else {
+        // raw websocket sockets send the message as is, there is nothing to share
+        accepted = !member.writeQueueFull();
+        if (accepted) {
+          try {
+            member.write(message);
+          } catch (IllegalStateException e) {
+            // closed
+            members.remove(member);
+            continue;
+          }
+        }
+      }
+      if (accepted) {
+        count++;
+      } else {
+        slowConsumer(member);
+      }
+    }
+    delivered.add(count);
+    return count;
+  }
+
+  private void slowConsumer(SockJSSocket member) {
+    switch (policy) {
+      case DROP:
+        dropped.increment();
+        break;
+      case DISCONNECT:
+        disconnected.increment();
+        members.remove(member);
+        member.close();
+        break;
+    }
+  }
+
+  @Override
+  public JsonObject stats() {
+    return new JsonObject()
+      .put("broadcasts", broadcasts.sum())
+      .put("delivered", delivered.sum())
+      .put("dropped", dropped.sum())
+      .put("disconnected", disconnected.sum());
+  }
+}
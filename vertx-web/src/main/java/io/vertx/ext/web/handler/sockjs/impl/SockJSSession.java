@@ -35,6 +35,7 @@ package io.vertx.ext.web.handler.sockjs.impl;
 import io.vertx.core.*;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.impl.ContextInternal;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.core.net.SocketAddress;
@@ -45,11 +46,11 @@ import io.vertx.core.streams.impl.InboundBuffer;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.sockjs.SockJSHandlerOptions;
 import io.vertx.ext.web.handler.sockjs.SockJSSocket;
+import io.vertx.ext.web.impl.TimingWheel;
 
 import java.util.ArrayList;
-import java.util.Deque;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static io.vertx.core.buffer.Buffer.buffer;
 
@@ -67,21 +68,28 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
 
   private static final Logger LOG = LoggerFactory.getLogger(SockJSSession.class);
 
+  static final VertxException QUEUE_FULL = new VertxException("SockJS session write queue is full", true);
+
   private final LocalMap<String, SockJSSession> sessions;
-  private final Deque<String> pendingWrites = new LinkedList<>();
+  private final WriteQueue pendingWrites = new WriteQueue();
   private final Context context;
   private final InboundBuffer<Buffer> pendingReads;
   private final String id;
   private final long timeout;
   private final Handler<SockJSSocket> sockHandler;
-  private final long heartbeatID;
+  private final long heartbeatInterval;
+  private final TimingWheel wheel;
+  private final long maxQueuedBytes;
   private List<Handler<AsyncResult<Void>>> writeAcks;
   private TransportListener listener;
   private boolean closed;
   private boolean openWritten;
-  private long timeoutTimerID = -1;
-  private int maxQueueSize = 64 * 1024; // Message queue size is measured in *characters* (not bytes)
-  private int messagesSize;
+  private Runnable heartbeatTimer;
+  private Runnable timeoutTimer;
+  // last time a frame was sent, heartbeats are only needed on idle sessions
+  private long lastSent = System.nanoTime();
+  private int maxQueueSize = 64 * 1024; // Message queue size is measured in bytes
+  private boolean flushScheduled;
   private Handler<Void> drainHandler;
   private Handler<Void> endHandler;
   private Handler<Throwable> exceptionHandler;
@@ -102,16 +110,49 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
     this.id = id;
     this.timeout = id == null ? -1:options.getSessionTimeout();
     this.sockHandler = sockHandler;
+    this.maxQueuedBytes = options.getMaxQueuedBytes();
     context = vertx.getOrCreateContext();
     pendingReads = new InboundBuffer<>(context);
 
+    // Heartbeats and timeouts of all the sessions of an event loop are driven by its timing wheel, instead of each
+    // session having its own vert.x timers
+    wheel = TimingWheel.current();
+
     // Start a heartbeat
+    heartbeatInterval = options.getHeartbeatInterval();
+    heartbeatTimer = schedule(heartbeatInterval, v -> heartbeat());
+  }
+
+  private Runnable schedule(long delay, Handler<Void> handler) {
+    if (wheel != null) {
+      return wheel.schedule((ContextInternal) context, delay, handler)::cancel;
+    }
+    final long timerID = vertx.setTimer(delay, tid -> handler.handle(null));
+    return () -> vertx.cancelTimer(timerID);
+  }
 
-    heartbeatID = vertx.setPeriodic(options.getHeartbeatInterval(), tid -> {
+  private synchronized void heartbeat() {
+    if (heartbeatTimer == null) {
+      // stopped
+      return;
+    }
+    long delay = heartbeatInterval - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastSent);
+    if (delay <= 0) {
+      // idle for a whole interval
       if (listener != null) {
         listener.sendFrame("h", null);
+        lastSent = System.nanoTime();
       }
-    });
+      delay = heartbeatInterval;
+    }
+    heartbeatTimer = schedule(delay, v -> heartbeat());
+  }
+
+  private synchronized void stopHeartbeat() {
+    if (heartbeatTimer != null) {
+      heartbeatTimer.run();
+      heartbeatTimer = null;
+    }
   }
 
   @Override
@@ -123,22 +164,56 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
         }
         return;
       }
-      String msgStr = buffer.toString();
-      pendingWrites.add(msgStr);
-      messagesSize += msgStr.length();
+      if (maxQueuedBytes != -1 && pendingWrites.bytes() + buffer.length() > maxQueuedBytes) {
+        if (handler != null) {
+          context.runOnContext(v -> handler.handle(Future.failedFuture(QUEUE_FULL)));
+        } else if (exceptionHandler != null) {
+          Handler<Throwable> eh = exceptionHandler;
+          context.runOnContext(v -> eh.handle(QUEUE_FULL));
+        }
+        return;
+      }
+      // the messages are kept as bytes and only encoded when flushed
+      pendingWrites.add(buffer);
       if (handler != null) {
         if (writeAcks == null) {
           writeAcks = new ArrayList<>();
         }
         writeAcks.add(handler);
       }
-      if (listener != null) {
-        Context ctx = transportCtx;
-        if (Vertx.currentContext() != ctx) {
-          ctx.runOnContext(v -> writePendingMessages());
-        } else {
-          writePendingMessages();
+      flush();
+    }
+  }
+
+  /**
+   * Queue a broadcast message, unless this session cannot keep up with the writes.
+   *
+   * @return {@code false} when the write queue is full, the frame is not queued then
+   */
+  synchronized boolean writeShared(SharedFrame frame) {
+    if (closed) {
+      // nothing to deliver, the broadcast group discards closed members
+      return true;
+    }
+    final long bytes = pendingWrites.bytes();
+    if (bytes >= maxQueueSize || (maxQueuedBytes != -1 && bytes + frame.message().length() > maxQueuedBytes)) {
+      return false;
+    }
+    pendingWrites.add(frame);
+    flush();
+    return true;
+  }
+
+  private void flush() {
+    if (listener != null) {
+      if (!onTransportEventLoop()) {
+        // writes from other contexts are coalesced into a single frame
+        if (!flushScheduled) {
+          flushScheduled = true;
+          transportCtx.runOnContext(v -> writePendingMessages());
         }
+      } else {
+        writePendingMessages();
       }
     }
   }
@@ -178,7 +253,7 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
 
   @Override
   public synchronized boolean writeQueueFull() {
-    return messagesSize >= maxQueueSize;
+    return pendingWrites.bytes() >= maxQueueSize;
   }
 
   @Override
@@ -255,16 +330,17 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   }
 
   private void cancelTimer() {
-    if (timeoutTimerID != -1) {
-      vertx.cancelTimer(timeoutTimerID);
+    if (timeoutTimer != null) {
+      timeoutTimer.run();
+      timeoutTimer = null;
     }
   }
 
   private void setTimer() {
     if (timeout != -1) {
       cancelTimer();
-      timeoutTimerID = vertx.setTimer(timeout, id1 -> {
-        vertx.cancelTimer(heartbeatID);
+      timeoutTimer = schedule(timeout, v -> {
+        stopHeartbeat();
         if (listener == null) {
           shutdown();
         }
@@ -276,18 +352,33 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   }
 
   private synchronized void writePendingMessages() {
-    if (listener != null) {
-      String json = JsonCodec.encode(pendingWrites.toArray(new String[0]));
-      pendingWrites.clear();
-      if (writeAcks != null) {
-        List<Handler<AsyncResult<Void>>> acks = this.writeAcks;
-        this.writeAcks = null;
-        listener.sendFrame("a" + json, ar -> acks.forEach(a -> a.handle(ar)));
-      } else {
-        listener.sendFrame("a" + json, null);
+    flushScheduled = false;
+    final TransportListener lst = listener;
+    if (lst != null && !pendingWrites.isEmpty()) {
+      // the listener encodes the messages before returning, consecutive plain messages share a frame while
+      // broadcast messages are sent with their own pre-encoded frame
+      final int size = pendingWrites.size();
+      int sent = 0;
+      // a polling listener is released after its first frame, the rest waits for the next request
+      while (sent < size && listener == lst) {
+        final SharedFrame shared = pendingWrites.shared(sent);
+        int end = sent + 1;
+        if (shared == null) {
+          while (end < size && pendingWrites.shared(end) == null) {
+            end++;
+          }
+        }
+        final Handler<AsyncResult<Void>> ack = end == size ? takeWriteAcks() : null;
+        if (shared != null) {
+          lst.sendShared(shared, ack);
+        } else {
+          lst.sendMessages(sent == 0 && end == size ? pendingWrites : pendingWrites.subList(sent, end), ack);
+        }
+        sent = end;
       }
-      messagesSize = 0;
-      if (drainHandler != null) {
+      pendingWrites.removeFirst(sent);
+      lastSent = System.nanoTime();
+      if (drainHandler != null && pendingWrites.bytes() < maxQueueSize) {
         Handler<Void> dh = drainHandler;
         drainHandler = null;
         context.runOnContext(dh);
@@ -295,6 +386,26 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
     }
   }
 
+  private Handler<AsyncResult<Void>> takeWriteAcks() {
+    final List<Handler<AsyncResult<Void>>> acks = this.writeAcks;
+    if (acks == null) {
+      return null;
+    }
+    this.writeAcks = null;
+    return ar -> acks.forEach(a -> a.handle(ar));
+  }
+
+  /**
+   * Whether the caller runs on the event loop of the transport connection. It does not have to be the transport
+   * context: the session can write to the connection from the thread owning it, without a hand-off, e.g. when a
+   * verticle deployed on the same event loop writes to the session.
+   */
+  private boolean onTransportEventLoop() {
+    final ContextInternal ctx = (ContextInternal) transportCtx;
+    final ContextInternal current = ContextInternal.current();
+    return current == ctx || (current != null && current.isEventLoopContext() && ctx.isEventLoopContext() && current.nettyEventLoop() == ctx.nettyEventLoop() && ctx.nettyEventLoop().inEventLoop());
+  }
+
   synchronized Context context() {
     return transportCtx;
   }
@@ -319,6 +430,8 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
       cancelTimer();
 
       this.listener = lst;
+      // a new connection starts a new heartbeat interval
+      lastSent = System.nanoTime();
 
       if (!openWritten) {
         writeOpen(lst);
@@ -345,11 +458,9 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   // Yes, I know it's weird but that's the way SockJS likes it.
   void shutdown() {
     super.close(); // We must call this or handlers don't get unregistered and we get a leak
-    if (heartbeatID != -1) {
-      vertx.cancelTimer(heartbeatID);
-    }
-    if (timeoutTimerID != -1) {
-      vertx.cancelTimer(timeoutTimerID);
+    stopHeartbeat();
+    synchronized (this) {
+      cancelTimer();
     }
     if (id != null) {
       // Can be null if websocket session
@@ -395,6 +506,17 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
     }
   }
 
+  /**
+   * Handle a raw message, received without the SockJS framing.
+   */
+  synchronized void handleMessage(Buffer message) {
+    if (context == Vertx.currentContext()) {
+      pendingReads.write(message);
+    } else {
+      context.runOnContext(v -> handleMessage(message));
+    }
+  }
+
   void handleException(Throwable t) {
     Handler<Throwable> eh;
     synchronized (this) {
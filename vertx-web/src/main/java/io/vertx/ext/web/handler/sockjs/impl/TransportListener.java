@@ -34,6 +34,9 @@ package io.vertx.ext.web.handler.sockjs.impl;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+
+import java.util.List;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -42,6 +45,16 @@ interface TransportListener {
 
   void sendFrame(String body, Handler<AsyncResult<Void>> handler);
 
+  /**
+   * Send a data frame holding the given messages.
+   */
+  void sendMessages(List<Buffer> messages, Handler<AsyncResult<Void>> handler);
+
+  /**
+   * Send a broadcast message, reusing its encoded frame when the framing does not depend on the session.
+   */
+  void sendShared(SharedFrame frame, Handler<AsyncResult<Void>> handler);
+
   void close();
 
   void sessionClosed();
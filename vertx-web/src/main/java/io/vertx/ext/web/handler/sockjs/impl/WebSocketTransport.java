@@ -32,13 +32,18 @@
 
 package io.vertx.ext.web.handler.sockjs.impl;
 
+import io.netty.buffer.ByteBuf;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.http.WebSocketFrameType;
+import io.vertx.core.http.impl.ws.WebSocketFrameImpl;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.core.net.impl.ConnectionBase;
@@ -47,6 +52,8 @@ import io.vertx.ext.web.Router;
 import io.vertx.ext.web.handler.sockjs.SockJSHandlerOptions;
 import io.vertx.ext.web.handler.sockjs.SockJSSocket;
 
+import java.util.List;
+
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
@@ -55,6 +62,10 @@ class WebSocketTransport extends BaseTransport {
 
   private static final Logger LOG = LoggerFactory.getLogger(WebSocketTransport.class);
 
+  private static final FrameEncoder.Framing FRAMING = new FrameEncoder.Framing("", "", false);
+  // like writeTextMessage, large messages are fragmented to fit the default max frame size of the peers
+  private static final int MAX_FRAGMENT_SIZE = HttpServerOptions.DEFAULT_MAX_WEBSOCKET_FRAME_SIZE;
+
   WebSocketTransport(Vertx vertx,
                      Router router, LocalMap<String, SockJSSession> sessions,
                      SockJSHandlerOptions options,
@@ -87,8 +98,14 @@ class WebSocketTransport extends BaseTransport {
               req.resume();
             }
             // handle the sockjs session as usual
+            final ServerWebSocket ws = toWebSocket.result();
+            final String binarySubProtocol = options.getBinarySubProtocol();
             SockJSSession session = new SockJSSession(vertx, sessions, rc, options, sockHandler);
-            session.register(req, new WebSocketListener(toWebSocket.result(), session));
+            if (binarySubProtocol != null && binarySubProtocol.equals(ws.subProtocol())) {
+              session.register(req, new BinaryWebSocketListener(ws, session));
+            } else {
+              session.register(req, new WebSocketListener(ws, session));
+            }
           } else {
             // the upgrade failed
             rc.fail(toWebSocket.cause());
@@ -156,6 +173,40 @@ class WebSocketTransport extends BaseTransport {
       }
     }
 
+    @Override
+    public void sendMessages(List<Buffer> messages, Handler<AsyncResult<Void>> handler) {
+      send(FRAMING.messages(messages), handler);
+    }
+
+    @Override
+    public void sendShared(SharedFrame frame, Handler<AsyncResult<Void>> handler) {
+      send(frame.encode(FRAMING), handler);
+    }
+
+    private void send(Buffer encoded, Handler<AsyncResult<Void>> handler) {
+      if (LOG.isTraceEnabled()) LOG.trace("WS, sending frame");
+      if (!closed) {
+        // the encoded frame is ASCII, so it can be sent as is and split anywhere
+        final ByteBuf frame = encoded.getByteBuf();
+        final int len = frame.readableBytes();
+        if (len <= MAX_FRAGMENT_SIZE) {
+          ws.writeFrame(new WebSocketFrameImpl(WebSocketFrameType.TEXT, frame, true), handler);
+        } else {
+          for (int offset = 0; offset < len; offset += MAX_FRAGMENT_SIZE) {
+            final int size = Math.min(MAX_FRAGMENT_SIZE, len - offset);
+            final boolean last = offset + size == len;
+            ws.writeFrame(
+              new WebSocketFrameImpl(offset == 0 ? WebSocketFrameType.TEXT : WebSocketFrameType.CONTINUATION, frame.slice(offset, size), last),
+              last ? handler : null);
+          }
+        }
+      } else {
+        if (handler != null) {
+          handler.handle(Future.failedFuture(ConnectionBase.CLOSED_EXCEPTION));
+        }
+      }
+    }
+
     public void close() {
       if (!closed) {
         ws.close();
@@ -173,4 +224,41 @@ class WebSocketTransport extends BaseTransport {
     }
 
   }
+
+  /**
+   * The listener of clients that negotiated the binary sub protocol, messages are exchanged as raw binary WebSocket
+   * messages, without the SockJS framing and escaping.
+   */
+  private static class BinaryWebSocketListener extends WebSocketListener {
+
+    BinaryWebSocketListener(ServerWebSocket ws, SockJSSession session) {
+      super(ws, session);
+      ws.binaryMessageHandler(msg -> {
+        if (!session.isClosed()) {
+          session.handleMessage(msg);
+        }
+      });
+    }
+
+    @Override
+    public void sendMessages(List<Buffer> messages, Handler<AsyncResult<Void>> handler) {
+      if (LOG.isTraceEnabled()) LOG.trace("WS, sending binary messages");
+      if (!closed) {
+        final int last = messages.size() - 1;
+        for (int i = 0; i <= last; i++) {
+          ws.writeBinaryMessage(messages.get(i), i == last ? handler : null);
+        }
+      } else {
+        if (handler != null) {
+          handler.handle(Future.failedFuture(ConnectionBase.CLOSED_EXCEPTION));
+        }
+      }
+    }
+
+    @Override
+    public void sendShared(SharedFrame frame, Handler<AsyncResult<Void>> handler) {
+      // nothing to encode, the message itself is shared
+      sendMessages(frame.messages(), handler);
+    }
+  }
 }
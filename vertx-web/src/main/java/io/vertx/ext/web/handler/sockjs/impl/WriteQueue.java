@@ -0,0 +1,123 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * The pending messages of a session, measured in bytes.
+ *
+ * Messages are kept as written (UTF-8 bytes) and encoded all at once into a single frame when flushed, queueing a
+ * message does not allocate once the array has grown to the usual backlog. Broadcast messages are queued as
+ * {@link SharedFrame}s, as they are already encoded they are flushed as frames of their own. Not thread safe, the
+ * session guards it.
+ */
+final class WriteQueue extends AbstractList<Buffer> implements RandomAccess {
+
+  private static final int INITIAL_CAPACITY = 16;
+  // past this capacity the array is released on clear, a burst should not pin memory for the session lifetime
+  private static final int MAX_RETAINED_CAPACITY = 1024;
+
+  // either Buffer or SharedFrame
+  private Object[] elements = new Object[INITIAL_CAPACITY];
+  private int size;
+  private long bytes;
+
+  @Override
+  public boolean add(Buffer message) {
+    append(message);
+    bytes += message.length();
+    return true;
+  }
+
+  void add(SharedFrame frame) {
+    append(frame);
+    bytes += frame.message().length();
+  }
+
+  /**
+   * @return the number of queued bytes.
+   */
+  long bytes() {
+    return bytes;
+  }
+
+  @Override
+  public Buffer get(int index) {
+    final Object element = element(index);
+    return element instanceof SharedFrame ? ((SharedFrame) element).message() : (Buffer) element;
+  }
+
+  /**
+   * @return the broadcast frame at the given index or {@code null} when it is a plain message.
+   */
+  SharedFrame shared(int index) {
+    final Object element = element(index);
+    return element instanceof SharedFrame ? (SharedFrame) element : null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Remove the first {@code count} messages, after a partial flush.
+   */
+  void removeFirst(int count) {
+    if (count >= size) {
+      // also covers a queue cleared by a close while flushing
+      clear();
+      return;
+    }
+    for (int i = 0; i < count; i++) {
+      bytes -= get(i).length();
+    }
+    System.arraycopy(elements, count, elements, 0, size - count);
+    Arrays.fill(elements, size - count, size, null);
+    size -= count;
+  }
+
+  @Override
+  public void clear() {
+    if (elements.length > MAX_RETAINED_CAPACITY) {
+      elements = new Object[INITIAL_CAPACITY];
+    } else {
+      Arrays.fill(elements, 0, size, null);
+    }
+    size = 0;
+    bytes = 0;
+  }
+
+  private void append(Object element) {
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, size << 1);
+    }
+    elements[size++] = element;
+  }
+
+  private Object element(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    return elements[index];
+  }
+}
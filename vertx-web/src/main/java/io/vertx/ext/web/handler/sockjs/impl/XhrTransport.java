@@ -49,6 +49,7 @@ import io.vertx.ext.web.handler.sockjs.SockJSHandlerOptions;
 import io.vertx.ext.web.handler.sockjs.SockJSSocket;
 
 import java.util.Arrays;
+import java.util.List;
 
 import static io.vertx.core.buffer.Buffer.buffer;
 
@@ -61,6 +62,7 @@ class XhrTransport extends BaseTransport {
   private static final Logger LOG = LoggerFactory.getLogger(XhrTransport.class);
 
   private static final Buffer H_BLOCK;
+  private static final FrameEncoder.Framing FRAMING = new FrameEncoder.Framing("", "\n", false);
 
   static {
     byte[] bytes = new byte[2048 + 1];
@@ -187,8 +189,22 @@ class XhrTransport extends BaseTransport {
 
     @Override
     public void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+      send(FRAMING.frame(body), handler);
+    }
+
+    @Override
+    public void sendMessages(List<Buffer> messages, Handler<AsyncResult<Void>> handler) {
+      send(FRAMING.messages(messages), handler);
+    }
+
+    @Override
+    public void sendShared(SharedFrame frame, Handler<AsyncResult<Void>> handler) {
+      send(frame.encode(FRAMING), handler);
+    }
+
+    private void send(Buffer frame, Handler<AsyncResult<Void>> handler) {
       super.beforeSend();
-      rc.response().write(body + "\n", handler);
+      rc.response().write(frame, handler);
       close();
     }
 
@@ -220,13 +236,25 @@ class XhrTransport extends BaseTransport {
 
     @Override
     public void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+      send(FRAMING.frame(body), handler);
+    }
+
+    @Override
+    public void sendMessages(List<Buffer> messages, Handler<AsyncResult<Void>> handler) {
+      send(FRAMING.messages(messages), handler);
+    }
+
+    @Override
+    public void sendShared(SharedFrame frame, Handler<AsyncResult<Void>> handler) {
+      send(frame.encode(FRAMING), handler);
+    }
+
+    private void send(Buffer buff, Handler<AsyncResult<Void>> handler) {
       boolean hr = headersWritten;
       super.beforeSend();
       if (!hr) {
         rc.response().write(H_BLOCK);
       }
-      String sbody = body + "\n";
-      Buffer buff = buffer(sbody);
       rc.response().write(buff, handler);
       bytesSent += buff.length();
       if (bytesSent >= maxBytesStreaming) {
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread safe, size bounded, least recently used cache where each entry carries its own expiration time.
+ *
+ * Besides plain get/put operations, the cache can load missing values asynchronously. Concurrent loads of the same
+ * key are coalesced, only the first caller triggers the loader while the remaining ones wait for its result.
+ */
+public class ExpiringLRUCache<K, V> {
+
+  private static final class Entry<V> {
+    final V value;
+    final long expiresAt;
+
+    Entry(V value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  private final LRUCache<K, Entry<V>> cache;
+  private final Map<K, Future<V>> loading = new ConcurrentHashMap<>();
+
+  public ExpiringLRUCache(int maxSize) {
+    // access ordered, so the eldest entry is the least recently used
+    this.cache = new LRUCache<>(16, 0.75f, true, maxSize);
+  }
+
+  /**
+   * Get a value from the cache.
+   *
+   * @param key the key
+   * @return the value or {@code null} when absent or expired.
+   */
+  public V get(K key) {
+    synchronized (cache) {
+      final Entry<V> entry = cache.get(key);
+      if (entry == null) {
+        return null;
+      }
+      if (entry.expiresAt <= System.currentTimeMillis()) {
+        cache.remove(key);
+        return null;
+      }
+      return entry.value;
+    }
+  }
+
+  /**
+   * Put a value in the cache, values that are already expired are not stored.
+   *
+   * @param key the key
+   * @param value the value
+   * @param expiresAt the absolute expiration time in ms since epoch.
+   */
+  public void put(K key, V value, long expiresAt) {
+    if (expiresAt <= System.currentTimeMillis()) {
+      return;
+    }
+    synchronized (cache) {
+      cache.put(key, new Entry<>(value, expiresAt));
+    }
+  }
+
+  public V remove(K key) {
+    synchronized (cache) {
+      final Entry<V> entry = cache.remove(key);
+      return entry == null ? null : entry.value;
+    }
+  }
+
+  /**
+   * Remove all entries matching the given filter.
+   *
+   * @param filter the filter
+   * @return the number of removed entries.
+   */
+  public int removeIf(BiPredicate<K, V> filter) {
+    int count = 0;
+    synchronized (cache) {
+      final Iterator<Map.Entry<K, Entry<V>>> it = cache.entrySet().iterator();
+      while (it.hasNext()) {
+        final Map.Entry<K, Entry<V>> kv = it.next();
+        if (filter.test(kv.getKey(), kv.getValue().value)) {
+          it.remove();
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  public void clear() {
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  public int size() {
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  /**
+   * Get a value from the cache or load it when missing. Concurrent loads of the same key share a single call to the
+   * loader. Successful results are stored with the expiration computed by {@code expiresAt}, failures are never
+   * stored.
+   *
+   * The returned future is bound to the caller context, so callbacks are always executed on the caller event loop,
+   * regardless of which caller triggered the load.
+   *
+   * @param vertx the vertx instance
+   * @param key the key
+   * @param loader the function loading the value
+   * @param expiresAt function computing the absolute expiration time (ms since epoch) of a loaded value
+   * @return future result
+   */
+  public Future<V> getOrLoad(Vertx vertx, K key, Function<K, Future<V>> loader, ToLongFunction<V> expiresAt) {
+    final V cached = get(key);
+    if (cached != null) {
+      return Future.succeededFuture(cached);
+    }
+
+    final Promise<V> promise = ((VertxInternal) vertx).promise();
+
+    Future<V> inflight = loading.get(key);
+    if (inflight == null) {
+      final Promise<V> load = Promise.promise();
+      inflight = loading.putIfAbsent(key, load.future());
+      if (inflight == null) {
+        inflight = load.future();
+        Future<V> fut;
+        try {
+          fut = loader.apply(key);
+        } catch (RuntimeException e) {
+          // callers that already joined the load must be released too
+          fut = Future.failedFuture(e);
+        }
+        fut.onComplete(res -> {
+          if (res.succeeded() && res.result() != null) {
+            put(key, res.result(), expiresAt.applyAsLong(res.result()));
+          }
+          // new callers will now hit the cache
+          loading.remove(key, load.future());
+          load.handle(res);
+        });
+      }
+    }
+
+    inflight.onComplete(promise);
+    return promise.future();
+  }
+}
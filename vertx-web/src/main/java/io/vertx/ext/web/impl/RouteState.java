@@ -16,6 +16,7 @@
 package io.vertx.ext.web.impl;
 
 import io.vertx.core.Handler;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.net.impl.URIDecoder;
@@ -23,6 +24,7 @@ import io.vertx.ext.web.MIMEHeader;
 import io.vertx.ext.web.RoutingContext;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -35,6 +37,11 @@ import java.util.regex.Pattern;
  */
 final class RouteState {
 
+  // bound of the memoized content negotiations per route, unseen Accept headers are still negotiated once full
+  private static final int MAX_NEGOTIATIONS = 64;
+  // a negotiated type is never empty, so the empty string marks the headers no produced type is acceptable for
+  private static final String NOT_ACCEPTABLE = "";
+
   private final RouteImpl route;
 
   private final String path;
@@ -57,6 +64,9 @@ final class RouteState {
   private final boolean exclusive;
   private final boolean exactPath;
 
+  // negotiated content type per raw Accept header, the produces set of a state never changes once it serves requests
+  private final Map<String, String> negotiations;
+
   private RouteState(RouteImpl route, String path, String name, int order, boolean enabled, Set<HttpMethod> methods, Set<MIMEHeader> consumes, boolean emptyBodyPermittedWithConsumes, Set<MIMEHeader> produces, List<Handler<RoutingContext>> contextHandlers, List<Handler<RoutingContext>> failureHandlers, boolean added, Pattern pattern, List<String> groups, boolean useNormalizedPath, Set<String> namedGroupsInRegex, Pattern virtualHostPattern, boolean pathEndsWithSlash, boolean exclusive, boolean exactPath) {
     this.route = route;
     this.path = path;
@@ -78,6 +88,7 @@ final class RouteState {
     this.pathEndsWithSlash = pathEndsWithSlash;
     this.exclusive = exclusive;
     this.exactPath = exactPath;
+    this.negotiations = produces == null ? null : new ConcurrentHashMap<>();
   }
 
   RouteState(RouteImpl route, int order) {
@@ -965,14 +976,27 @@ final class RouteState {
       }
     }
     if (!isEmpty(produces)) {
-      List<MIMEHeader> acceptableTypes = context.parsedHeaders().accept();
-      if(!acceptableTypes.isEmpty()) {
-        MIMEHeader selectedAccept = context.parsedHeaders().findBestUserAcceptedIn(acceptableTypes, produces);
-        if (selectedAccept != null) {
-          context.setAcceptableContentType(selectedAccept.rawValue());
-        } else {
+      final String accept = context.request().headers().get(HttpHeaders.ACCEPT);
+      // only a few distinct Accept headers are seen in practice, so the result is memoized
+      final String negotiated = accept == null ? null : negotiations.get(accept);
+      if (negotiated != null) {
+        if (negotiated.isEmpty()) {
           return 406;
         }
+        context.setAcceptableContentType(negotiated);
+      } else {
+        List<MIMEHeader> acceptableTypes = context.parsedHeaders().accept();
+        if(!acceptableTypes.isEmpty()) {
+          MIMEHeader selectedAccept = context.parsedHeaders().findBestUserAcceptedIn(acceptableTypes, produces);
+          if (accept != null && negotiations.size() < MAX_NEGOTIATIONS) {
+            negotiations.put(accept, selectedAccept != null ? selectedAccept.rawValue() : NOT_ACCEPTABLE);
+          }
+          if (selectedAccept != null) {
+            context.setAcceptableContentType(selectedAccept.rawValue());
+          } else {
+            return 406;
+          }
+        }
       }
     }
     if (!virtualHostMatches(context.request())) {
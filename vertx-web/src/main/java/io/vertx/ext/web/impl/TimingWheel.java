@@ -0,0 +1,228 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.impl;
+
+import io.netty.channel.EventLoop;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.impl.ContextInternal;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A hashed timing wheel owned by an event loop, for the many coarse grained timeouts (request deadlines, idle
+ * sessions, heartbeats...) that are almost always cancelled before they fire.
+ *
+ * Scheduling and cancelling are O(1) list operations on the event loop thread, instead of a timer being created and
+ * cancelled in the vert.x timer infrastructure each time. Timeouts fire at the first tick after their deadline, so
+ * they are never early and at most one {@link #TICK} late. The wheel only ticks while timeouts are pending.
+ *
+ * The wheel state is only ever touched from the thread of its event loop, scheduling or cancelling from another
+ * thread hands the operation over to the event loop.
+ */
+public final class TimingWheel {
+
+  /**
+   * The granularity of the wheel, in ms.
+   */
+  public static final long TICK = 10;
+
+  private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(TICK);
+  // must be a power of 2, a full turn covers ~5s, longer timeouts wait for more turns
+  private static final int WHEEL_SIZE = 512;
+  private static final int MASK = WHEEL_SIZE - 1;
+
+  // event loops are bound to a single thread
+  private static final ThreadLocal<TimingWheel> WHEELS = new ThreadLocal<>();
+
+  /**
+   * A pending timeout.
+   */
+  public final class Timeout {
+
+    private final ContextInternal context;
+    private final Handler<Void> handler;
+    private long deadline;
+    private boolean cancelled;
+
+    private Timeout prev;
+    private Timeout next;
+    private int bucket = -1;
+
+    private Timeout(ContextInternal context, Handler<Void> handler, long deadline) {
+      this.context = context;
+      this.handler = handler;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Cancel the timeout, does nothing when it already fired or was cancelled.
+     */
+    public void cancel() {
+      cancelled = true;
+      if (eventLoop.inEventLoop()) {
+        unlink(this);
+      } else {
+        eventLoop.execute(() -> unlink(this));
+      }
+    }
+  }
+
+  private final EventLoop eventLoop;
+  private final Timeout[] buckets = new Timeout[WHEEL_SIZE];
+  private final long start = System.nanoTime();
+
+  // last processed tick
+  private long tick;
+  private int pending;
+  private ScheduledFuture<?> ticker;
+
+  private TimingWheel(EventLoop eventLoop) {
+    this.eventLoop = eventLoop;
+  }
+
+  /**
+   * Get the wheel of the calling event loop thread.
+   *
+   * @return the wheel or {@code null} when not called from an event loop context.
+   */
+  public static TimingWheel current() {
+    final ContextInternal context = ContextInternal.current();
+    if (context == null || !context.isEventLoopContext() || !Context.isOnEventLoopThread()) {
+      return null;
+    }
+    final EventLoop eventLoop = context.nettyEventLoop();
+    if (!eventLoop.inEventLoop()) {
+      return null;
+    }
+    TimingWheel wheel = WHEELS.get();
+    if (wheel == null || wheel.eventLoop != eventLoop) {
+      wheel = new TimingWheel(eventLoop);
+      WHEELS.set(wheel);
+    }
+    return wheel;
+  }
+
+  /**
+   * Schedule a handler to run on the given context once the delay elapses.
+   *
+   * @param context the context the handler is dispatched on
+   * @param delay the delay in ms
+   * @param handler the handler
+   * @return the timeout, to cancel it
+   */
+  public Timeout schedule(ContextInternal context, long delay, Handler<Void> handler) {
+    // round up, timeouts never fire early
+    final long deadline = (System.nanoTime() - start + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay)) + TICK_NANOS - 1) / TICK_NANOS;
+    final Timeout timeout = new Timeout(context, handler, deadline);
+    if (eventLoop.inEventLoop()) {
+      add(timeout);
+    } else {
+      eventLoop.execute(() -> add(timeout));
+    }
+    return timeout;
+  }
+
+  /**
+   * @return the number of pending timeouts.
+   */
+  public int size() {
+    return pending;
+  }
+
+  private long currentTick() {
+    return (System.nanoTime() - start) / TICK_NANOS;
+  }
+
+  private void add(Timeout timeout) {
+    if (timeout.cancelled) {
+      // cancelled before the event loop got to it
+      return;
+    }
+    if (pending == 0) {
+      // the wheel was idle, catch up with the clock before scheduling
+      tick = currentTick();
+      ticker = eventLoop.scheduleAtFixedRate(this::advance, TICK, TICK, TimeUnit.MILLISECONDS);
+    }
+    if (timeout.deadline <= tick) {
+      timeout.deadline = tick + 1;
+    }
+    link(timeout);
+  }
+
+  private void link(Timeout timeout) {
+    final int bucket = (int) (timeout.deadline & MASK);
+    final Timeout head = buckets[bucket];
+    timeout.bucket = bucket;
+    timeout.next = head;
+    if (head != null) {
+      head.prev = timeout;
+    }
+    buckets[bucket] = timeout;
+    pending++;
+  }
+
+  private void unlink(Timeout timeout) {
+    if (timeout.bucket == -1) {
+      return;
+    }
+    if (timeout.prev != null) {
+      timeout.prev.next = timeout.next;
+    } else {
+      buckets[timeout.bucket] = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.prev = timeout.prev;
+    }
+    timeout.prev = null;
+    timeout.next = null;
+    timeout.bucket = -1;
+    if (--pending == 0 && ticker != null) {
+      ticker.cancel(false);
+      ticker = null;
+    }
+  }
+
+  private void advance() {
+    final long now = currentTick();
+    // when lagging more than a full turn, visiting each bucket once is enough
+    final long from = Math.max(tick + 1, now - MASK);
+    Timeout expired = null;
+    for (long t = from; t <= now && pending > 0; t++) {
+      Timeout timeout = buckets[(int) (t & MASK)];
+      while (timeout != null) {
+        final Timeout next = timeout.next;
+        if (timeout.deadline <= now) {
+          unlink(timeout);
+          // collect first, handlers may cancel or schedule timeouts
+          timeout.next = expired;
+          expired = timeout;
+        }
+        timeout = next;
+      }
+    }
+    tick = now;
+
+    while (expired != null) {
+      final Timeout next = expired.next;
+      expired.next = null;
+      expired.context.dispatch(expired.handler);
+      expired = next;
+    }
+  }
+}
@@ -118,6 +118,11 @@ public abstract class AbstractSession implements Session, SessionInternal {
     }
   }
 
+  @Override
+  public boolean isModified() {
+    return crc != checksum();
+  }
+
   @Override
   public String id() {
     return id;
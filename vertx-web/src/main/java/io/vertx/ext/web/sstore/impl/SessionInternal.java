@@ -28,4 +28,14 @@ public interface SessionInternal {
    *                which is unnecessary.
    */
   void flushed(boolean skipCrc);
+
+  /**
+   * Verifies if the session data changed since it was last stored, by comparing the current checksum with the last
+   * known one.
+   *
+   * @return true if the data differs from the last stored state.
+   */
+  default boolean isModified() {
+    return true;
+  }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.ext.web.impl.ExpiringLRUCache;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ExpiringLRUCacheTest extends VertxTestBase {
+
+  @Test
+  public void testMaxSize() {
+    ExpiringLRUCache<String, String> cache = new ExpiringLRUCache<>(10);
+    long expiresAt = System.currentTimeMillis() + 60_000;
+    for (int i = 0; i < 20; i++) {
+      cache.put("key" + i, "value" + i, expiresAt);
+    }
+    assertEquals(10, cache.size());
+    assertNull(cache.get("key0"));
+    assertEquals("value19", cache.get("key19"));
+  }
+
+  @Test
+  public void testExpiration() throws Exception {
+    ExpiringLRUCache<String, String> cache = new ExpiringLRUCache<>(10);
+    cache.put("expired", "value", System.currentTimeMillis() - 1);
+    assertEquals(0, cache.size());
+    cache.put("key", "value", System.currentTimeMillis() + 50);
+    assertEquals("value", cache.get("key"));
+    Thread.sleep(100);
+    assertNull(cache.get("key"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testRemoveIf() {
+    ExpiringLRUCache<String, String> cache = new ExpiringLRUCache<>(10);
+    long expiresAt = System.currentTimeMillis() + 60_000;
+    cache.put("a", "x", expiresAt);
+    cache.put("b", "y", expiresAt);
+    cache.put("c", "x", expiresAt);
+    assertEquals(2, cache.removeIf((k, v) -> v.equals("x")));
+    assertEquals(1, cache.size());
+    assertEquals("y", cache.get("b"));
+  }
+
+  @Test
+  public void testCoalescedLoad() {
+    ExpiringLRUCache<String, String> cache = new ExpiringLRUCache<>(10);
+    AtomicInteger loads = new AtomicInteger();
+    Promise<String> pending = Promise.promise();
+
+    vertx.runOnContext(v -> {
+      Future<String> f1 = cache.getOrLoad(vertx, "key", k -> {
+        loads.incrementAndGet();
+        return pending.future();
+      }, value -> System.currentTimeMillis() + 60_000);
+      Future<String> f2 = cache.getOrLoad(vertx, "key", k -> {
+        loads.incrementAndGet();
+        return Future.succeededFuture("other");
+      }, value -> System.currentTimeMillis() + 60_000);
+
+      pending.complete("value");
+
+      f1.compose(r1 -> f2.map(r2 -> {
+        assertEquals("value", r1);
+        assertEquals("value", r2);
+        assertEquals(1, loads.get());
+        // now served from the cache
+        assertEquals("value", cache.get("key"));
+        return r2;
+      })).onComplete(onSuccess(r -> testComplete()));
+    });
+    await();
+  }
+
+  @Test
+  public void testFailuresAreNotCached() {
+    ExpiringLRUCache<String, String> cache = new ExpiringLRUCache<>(10);
+    vertx.runOnContext(v -> cache
+      .getOrLoad(vertx, "key", k -> Future.failedFuture("boom"), value -> System.currentTimeMillis() + 60_000)
+      .onComplete(onFailure(err -> {
+        assertEquals(0, cache.size());
+        testComplete();
+      })));
+    await();
+  }
+
+  @Test
+  public void testThrowingLoader() {
+    ExpiringLRUCache<String, String> cache = new ExpiringLRUCache<>(10);
+    vertx.runOnContext(v -> {
+      AtomicReference<Future<String>> joined = new AtomicReference<>();
+      Future<String> f1 = cache.getOrLoad(vertx, "key", k -> {
+        // a concurrent caller joins the load before the loader fails
+        joined.set(cache.getOrLoad(vertx, "key", k2 -> Future.succeededFuture("other"), value -> System.currentTimeMillis() + 60_000));
+        throw new IllegalStateException("boom");
+      }, value -> System.currentTimeMillis() + 60_000);
+
+      f1.onComplete(onFailure(err1 -> joined.get().onComplete(onFailure(err2 -> {
+        assertEquals("boom", err1.getMessage());
+        assertSame(err1, err2);
+        assertEquals(0, cache.size());
+        testComplete();
+      }))));
+    });
+    await();
+  }
+}
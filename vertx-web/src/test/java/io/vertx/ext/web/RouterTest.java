@@ -1168,6 +1168,24 @@ public class RouterTest extends WebTestBase {
     testRequestWithAccepts(HttpMethod.GET, "/foo", "application/blah", 406, "Not Acceptable");
   }
 
+  @Test
+  public void testProducesNegotiationMemoized() throws Exception {
+    router.route("/html").produces("text/html").produces("application/json").handler(rc -> {
+      rc.response().setStatusMessage(rc.getAcceptableContentType());
+      rc.response().end();
+    });
+    router.route("/json").produces("application/json").handler(rc -> {
+      rc.response().setStatusMessage(rc.getAcceptableContentType());
+      rc.response().end();
+    });
+    // the same Accept header negotiates per route, repeatedly
+    for (int i = 0; i < 3; i++) {
+      testRequestWithAccepts(HttpMethod.GET, "/html", "application/json;q=0.5, text/html", 200, "text/html");
+      testRequestWithAccepts(HttpMethod.GET, "/json", "application/json;q=0.5, text/html", 200, "application/json");
+      testRequestWithAccepts(HttpMethod.GET, "/json", "text/plain", 406, "Not Acceptable");
+    }
+  }
+
   @Test
   public void testProducesWithQParameterIgnored() throws Exception {
     router.route().produces("text/html;q").produces("text/html;q=0.1").handler(rc -> rc.response().end());
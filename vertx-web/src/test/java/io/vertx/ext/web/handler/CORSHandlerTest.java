@@ -503,4 +503,34 @@ public class CORSHandlerTest extends WebTestBase {
     testRequest(HttpMethod.GET, "/", req -> req.headers().add("origin", "null"), resp -> checkHeaders(resp, "*", null, null, null), 200, "OK", null);
   }
 
+  @Test
+  public void testAcceptWildcardSubdomainMultiOrigins() throws Exception {
+    router.route().handler(CorsHandler.create().addOrigins(Arrays.asList("http://www.example.com", "https://*.vertx.io")));
+    router.route().handler(context -> context.response().end());
+    testRequest(HttpMethod.GET, "/", req -> req.headers().add("origin", "https://www.vertx.io"), resp -> checkHeaders(resp, "https://www.vertx.io", null, null, null), 200, "OK", null);
+    testRequest(HttpMethod.GET, "/", req -> req.headers().add("origin", "https://a.b.vertx.io"), resp -> checkHeaders(resp, "https://a.b.vertx.io", null, null, null), 200, "OK", null);
+    // the wildcard requires a subdomain
+    testRequest(HttpMethod.GET, "/", req -> req.headers().add("origin", "https://vertx.io"), resp -> checkHeaders(resp, null, null, null, null), 403, "CORS Rejected - Invalid origin", null);
+    // scheme and port must match
+    testRequest(HttpMethod.GET, "/", req -> req.headers().add("origin", "http://www.vertx.io"), resp -> checkHeaders(resp, null, null, null, null), 403, "CORS Rejected - Invalid origin", null);
+    testRequest(HttpMethod.GET, "/", req -> req.headers().add("origin", "https://www.vertx.io:8443"), resp -> checkHeaders(resp, null, null, null, null), 403, "CORS Rejected - Invalid origin", null);
+    testRequest(HttpMethod.GET, "/", req -> req.headers().add("origin", "https://www.vertx.io.evil.com"), resp -> checkHeaders(resp, null, null, null, null), 403, "CORS Rejected - Invalid origin", null);
+  }
+
+  @Test
+  public void testAcceptConstantOriginDefaultPortMultiOrigins() throws Exception {
+    router.route().handler(CorsHandler.create().addOrigins(Arrays.asList("http://www.example.com", "https://www.vertx.io")));
+    router.route().handler(context -> context.response().end());
+    testRequest(HttpMethod.GET, "/", req -> req.headers().add("origin", "https://WWW.vertx.io:443"), resp -> checkHeaders(resp, "https://WWW.vertx.io:443", null, null, null), 200, "OK", null);
+  }
+
+  @Test
+  public void testOriginCache() throws Exception {
+    router.route().handler(CorsHandler.create("http://www\\.example\\.com").originCache(1));
+    router.route().handler(context -> context.response().end());
+    for (int i = 0; i < 2; i++) {
+      testRequest(HttpMethod.GET, "/", req -> req.headers().add("origin", "http://www.example.com"), resp -> checkHeaders(resp, "http://www.example.com", null, null, null), 200, "OK", null);
+      testRequest(HttpMethod.GET, "/", req -> req.headers().add("origin", "http://wwwxexample.com"), resp -> checkHeaders(resp, null, null, null, null), 403, "CORS Rejected - Invalid origin", null);
+    }
+  }
 }
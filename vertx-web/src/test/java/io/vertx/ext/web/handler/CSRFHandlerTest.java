@@ -331,4 +331,80 @@ public class CSRFHandlerTest extends WebTestBase {
     testRequest(HttpMethod.GET, "/xsrf", req -> req.putHeader("Origin", "http://myserver.com/"), null, 200, "OK", null);
     testRequest(HttpMethod.GET, "/xsrf", req -> req.putHeader("Origin", "http://myserver.com:80"), null, 200, "OK", null);
   }
+
+  @Test
+  public void testStatelessPostWithHeader() throws Exception {
+
+    router.route().handler(SessionHandler.create(SessionStore.create(vertx)));
+    router.route("/xsrf").handler(CSRFHandler.create(vertx, "Abracadabra").setStateless(true));
+    router.route("/xsrf").handler(rc -> {
+      // the session is never touched
+      assertTrue(rc.session().isEmpty());
+      rc.response().end();
+    });
+
+    testRequest(HttpMethod.GET, "/xsrf", null, resp -> {
+      for (String cookie : resp.headers().getAll("set-cookie")) {
+        if (cookie.startsWith(CSRFHandler.DEFAULT_COOKIE_NAME + "=")) {
+          rawCookie = cookie.substring(0, cookie.indexOf(';'));
+          tmpCookie = cookie.substring(cookie.indexOf('=') + 1, cookie.indexOf(';'));
+        }
+      }
+      // fixed size, url safe
+      assertEquals(76, tmpCookie.length());
+    }, 200, "OK", null);
+
+    // a valid token is not reissued
+    testRequest(HttpMethod.GET, "/xsrf", req -> req.putHeader("Cookie", rawCookie), resp -> {
+      for (String cookie : resp.headers().getAll("set-cookie")) {
+        assertFalse(cookie.startsWith(CSRFHandler.DEFAULT_COOKIE_NAME + "="));
+      }
+    }, 200, "OK", null);
+
+    testRequest(HttpMethod.POST, "/xsrf", req -> {
+      req.putHeader(CSRFHandler.DEFAULT_HEADER_NAME, tmpCookie);
+      req.putHeader("Cookie", rawCookie);
+    }, null, 200, "OK", null);
+  }
+
+  @Test
+  public void testStatelessPostWithTamperedToken() throws Exception {
+
+    router.route("/xsrf").handler(CSRFHandler.create(vertx, "Abracadabra").setStateless(true));
+    router.route("/xsrf").handler(rc -> rc.response().end());
+
+    testRequest(HttpMethod.GET, "/xsrf", null, resp -> {
+      String cookie = resp.headers().getAll("set-cookie").get(0);
+      tmpCookie = cookie.substring(cookie.indexOf('=') + 1, cookie.indexOf(';'));
+    }, 200, "OK", null);
+
+    // flip the issued at time
+    final char[] chars = tmpCookie.toCharArray();
+    chars[30] = chars[30] == 'A' ? 'B' : 'A';
+    final String tampered = new String(chars);
+
+    testRequest(HttpMethod.POST, "/xsrf", req -> {
+      req.putHeader(CSRFHandler.DEFAULT_HEADER_NAME, tampered);
+      req.putHeader("Cookie", CSRFHandler.DEFAULT_COOKIE_NAME + "=" + tampered);
+    }, null, 403, "Forbidden", null);
+  }
+
+  @Test
+  public void testStatelessPostWithExpiredToken() throws Exception {
+
+    router.route("/xsrf").handler(CSRFHandler.create(vertx, "Abracadabra").setStateless(true).setTimeout(1));
+    router.route("/xsrf").handler(rc -> rc.response().end());
+
+    testRequest(HttpMethod.GET, "/xsrf", null, resp -> {
+      String cookie = resp.headers().getAll("set-cookie").get(0);
+      tmpCookie = cookie.substring(cookie.indexOf('=') + 1, cookie.indexOf(';'));
+    }, 200, "OK", null);
+
+    Thread.sleep(10);
+
+    testRequest(HttpMethod.POST, "/xsrf", req -> {
+      req.putHeader(CSRFHandler.DEFAULT_HEADER_NAME, tmpCookie);
+      req.putHeader("Cookie", CSRFHandler.DEFAULT_COOKIE_NAME + "=" + tmpCookie);
+    }, null, 403, "Forbidden", null);
+  }
 }
@@ -34,7 +34,6 @@ import java.util.concurrent.atomic.AtomicReference;
 public class DigestAuthHandlerTest extends WebTestBase {
 
   private static final MessageDigest MD5;
-  private static final String DEFAULT_NONCE_MAP_NAME = "htdigest.nonces";
 
   static {
     try {
@@ -50,23 +49,64 @@ public class DigestAuthHandlerTest extends WebTestBase {
   }
 
   @Test
-  public void checkNoncesCleanup() throws Exception {
+  public void checkNoncesExpire() throws Exception {
     router.clear();
     HtdigestAuth authProvider = HtdigestAuth.create(vertx);
-    /* set nonceExpireTimeout to a negative value so the cached nonces must be deleted as soon as a new request
-     * is done
-     */
+    // set nonceExpireTimeout to a negative value so the issued nonces are expired right away
     router.route("/dir/*").handler(DigestAuthHandler.create(vertx, authProvider, -100));
-    int initialNoncesSize = vertx.sharedData().getLocalMap(DEFAULT_NONCE_MAP_NAME).size();
-    /* Now make some new requests without authentication: for each new request a new nonce is generated
-     * and the old one is expired so the final nonces size must be equal to the initial one + 1
-     */
-    int numRequests = 5;
-    for (int i = 0; i < numRequests; ++i) {
-      testRequest(HttpMethod.GET, "/dir/index.html", null, null, 401, "Unauthorized", null);
-    }
-    int finalNoncesSize = vertx.sharedData().getLocalMap(DEFAULT_NONCE_MAP_NAME).size();
-    assertEquals(initialNoncesSize + 1, finalNoncesSize);
+    router.route("/dir/index.html").handler(rc -> fail("should not get here"));
+
+    final String[] challenge = challenge();
+    testRequest(HttpMethod.GET, "/dir/index.html", req -> req.putHeader("Authorization", authorization(challenge, "00000001")), 401, "Unauthorized", null);
+  }
+
+  @Test
+  public void testNonceReplay() throws Exception {
+    router.clear();
+    HtdigestAuth authProvider = HtdigestAuth.create(vertx);
+    router.route("/dir/*").handler(DigestAuthHandler.create(vertx, authProvider));
+    router.route("/dir/index.html").handler(rc -> rc.response().end("Welcome to the protected resource!"));
+
+    final String[] challenge = challenge();
+    testRequest(HttpMethod.GET, "/dir/index.html", req -> req.putHeader("Authorization", authorization(challenge, "00000001")), 200, "OK", "Welcome to the protected resource!");
+    // the same nonce count cannot be used twice
+    testRequest(HttpMethod.GET, "/dir/index.html", req -> req.putHeader("Authorization", authorization(challenge, "00000001")), 401, "Unauthorized", null);
+    // but the nonce can be used again with a greater count
+    testRequest(HttpMethod.GET, "/dir/index.html", req -> req.putHeader("Authorization", authorization(challenge, "00000002")), 200, "OK", "Welcome to the protected resource!");
+  }
+
+  @Test
+  public void testSharedNonceStore() throws Exception {
+    router.clear();
+    HtdigestAuth authProvider = HtdigestAuth.create(vertx);
+    // two handlers, as if they were running on different nodes
+    router.route("/dir/*").handler(DigestAuthHandler.create(vertx, authProvider).sharedNonceStore("test.nonces"));
+    router.route("/dir/index.html").handler(rc -> rc.response().end("Welcome to the protected resource!"));
+    router.route("/other/*").handler(DigestAuthHandler.create(vertx, authProvider).sharedNonceStore("test.nonces"));
+    router.route("/other/index.html").handler(rc -> rc.response().end("Welcome to the protected resource!"));
+
+    final String[] challenge = challenge();
+    testRequest(HttpMethod.GET, "/other/index.html", req -> req.putHeader("Authorization", authorization(challenge, "00000001")), 200, "OK", "Welcome to the protected resource!");
+    // the count was used on the other handler
+    testRequest(HttpMethod.GET, "/dir/index.html", req -> req.putHeader("Authorization", authorization(challenge, "00000001")), 401, "Unauthorized", null);
+  }
+
+  private String[] challenge() throws Exception {
+    final String[] challenge = new String[2];
+    testRequest(HttpMethod.GET, "/dir/index.html", null, resp -> {
+      String wwwAuth = resp.headers().get("WWW-Authenticate");
+      // extract nonce + opaque from the response
+      int pos = wwwAuth.indexOf("nonce=\"") + 7;
+      challenge[0] = wwwAuth.substring(pos, endOfVariable(wwwAuth, pos, '\"'));
+      pos = wwwAuth.indexOf("opaque=\"") + 8;
+      challenge[1] = wwwAuth.substring(pos, endOfVariable(wwwAuth, pos, '\"'));
+    }, 401, "Unauthorized", null);
+    return challenge;
+  }
+
+  private static String authorization(String[] challenge, String nc) {
+    String response = md5("939e7578ed9e3c518a452acee763bce9:" + challenge[0] + ":" + nc + ":0a4f113b:auth:39aff3a2bab6126f332b942af96d3366");
+    return "Digest username=\"Mufasa\", realm=\"testrealm@host.com\", nonce=\"" + challenge[0] + "\", uri=\"/dir/index.html\", qop=auth, nc=" + nc + ", cnonce=\"0a4f113b\", response=\"" + response + "\", opaque=\"" + challenge[1] + "\"";
   }
 
   private void doLogin(String realm) throws Exception {
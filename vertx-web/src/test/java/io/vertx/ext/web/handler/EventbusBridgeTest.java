@@ -1282,6 +1282,118 @@ public class EventbusBridgeTest extends WebTestBase {
     awaitLatch(latch);
   }
 
+  @Test
+  public void testMultiplexedConsumers() throws Exception {
+    sockJSHandler.bridge(new SockJSBridgeOptions(allAccessOptions).setMultiplexConsumers(true));
+    int numClients = 3;
+    CountDownLatch registered = new CountDownLatch(numClients);
+    CountDownLatch first = new CountDownLatch(numClients);
+    CountDownLatch second = new CountDownLatch(numClients - 1);
+    for (int i = 0; i < numClients; i++) {
+      boolean unregisters = i == 0;
+      client.webSocket(websocketURI, onSuccess(ws -> {
+        ws.writeFrame(io.vertx.core.http.WebSocketFrame.textFrame(new JsonObject().put("type", "register").put("address", addr).encode(), true));
+        ws.handler(buff -> {
+          JsonObject received = new JsonObject(buff.toString());
+          assertEquals("rec", received.getString("type"));
+          assertEquals(addr, received.getString("address"));
+          if ("first".equals(received.getString("body"))) {
+            if (unregisters) {
+              ws.writeFrame(io.vertx.core.http.WebSocketFrame.textFrame(new JsonObject().put("type", "unregister").put("address", addr).encode(), true));
+            }
+            first.countDown();
+          } else {
+            assertEquals("second", received.getString("body"));
+            assertFalse(unregisters);
+            second.countDown();
+          }
+        });
+        registered.countDown();
+      }));
+    }
+    awaitLatch(registered);
+    // Wait a bit to allow the handlers to be setup on the server, then publish from the eventbus
+    Thread.sleep(200);
+    vertx.eventBus().publish(addr, "first");
+    awaitLatch(first);
+    Thread.sleep(200);
+    vertx.eventBus().publish(addr, "second");
+    awaitLatch(second);
+  }
+
+  @Test
+  public void testMultiplexedConsumersSend() throws Exception {
+    sockJSHandler.bridge(new SockJSBridgeOptions(allAccessOptions).setMultiplexConsumers(true));
+    int numClients = 2;
+    int numRequests = 4;
+    CountDownLatch registered = new CountDownLatch(numClients);
+    AtomicInteger[] received = new AtomicInteger[numClients];
+    for (int i = 0; i < numClients; i++) {
+      AtomicInteger count = received[i] = new AtomicInteger();
+      client.webSocket(websocketURI, onSuccess(ws -> {
+        ws.writeFrame(io.vertx.core.http.WebSocketFrame.textFrame(new JsonObject().put("type", "register").put("address", addr).encode(), true));
+        ws.handler(buff -> {
+          JsonObject msg = new JsonObject(buff.toString());
+          count.incrementAndGet();
+          // reply, only one socket must do it for each request
+          JsonObject reply = new JsonObject().put("type", "send").put("address", msg.getString("replyAddress")).put("body", msg.getString("body"));
+          ws.writeFrame(io.vertx.core.http.WebSocketFrame.textFrame(reply.encode(), true));
+        });
+        registered.countDown();
+      }));
+    }
+    awaitLatch(registered);
+    // Wait a bit to allow the handlers to be setup on the server
+    Thread.sleep(200);
+    CountDownLatch replies = new CountDownLatch(numRequests);
+    for (int i = 0; i < numRequests; i++) {
+      String body = "req" + i;
+      vertx.eventBus().request(addr, body, onSuccess(reply -> {
+        assertEquals(body, reply.body());
+        replies.countDown();
+      }));
+    }
+    awaitLatch(replies);
+    Thread.sleep(200);
+    // each request reached a single socket, in round robin
+    for (AtomicInteger count : received) {
+      assertEquals(numRequests / numClients, count.get());
+    }
+  }
+
+  @Test
+  public void testMultiplexedConsumersDuplicateRegister() throws Exception {
+    sockJSHandler.bridge(new SockJSBridgeOptions(allAccessOptions).setMultiplexConsumers(true).setMaxHandlersPerSocket(2));
+    String other = addr + ".other";
+    CountDownLatch latch = new CountDownLatch(1);
+    client.webSocket(websocketURI, onSuccess(ws -> {
+      // registering the same address twice must not count against the handlers limit
+      for (int i = 0; i < 2; i++) {
+        ws.writeFrame(io.vertx.core.http.WebSocketFrame.textFrame(new JsonObject().put("type", "register").put("address", addr).encode(), true));
+      }
+      ws.writeFrame(io.vertx.core.http.WebSocketFrame.textFrame(new JsonObject().put("type", "register").put("address", other).encode(), true));
+      AtomicInteger cnt = new AtomicInteger();
+      ws.handler(buff -> {
+        JsonObject received = new JsonObject(buff.toString());
+        assertEquals("rec", received.getString("type"));
+        switch (cnt.getAndIncrement()) {
+          case 0:
+            assertEquals(addr, received.getString("address"));
+            vertx.eventBus().publish(other, "bar");
+            break;
+          case 1:
+            assertEquals(other, received.getString("address"));
+            vertx.setTimer(200, tid -> latch.countDown());
+            break;
+          default:
+            fail("Called too many times");
+        }
+      });
+      vertx.setTimer(200, tid -> vertx.eventBus().publish(addr, "foo"));
+    }));
+    awaitLatch(latch);
+  }
+
   private void testReceive(Object body) throws Exception {
     testReceive("someaddress", body);
   }
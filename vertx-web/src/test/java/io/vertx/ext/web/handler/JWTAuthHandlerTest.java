@@ -16,12 +16,15 @@
 
 package io.vertx.ext.web.handler;
 
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.JWTOptions;
 import io.vertx.ext.auth.KeyStoreOptions;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.auth.authentication.Credentials;
 import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.auth.jwt.JWTAuthOptions;
 import io.vertx.ext.web.RoutingContext;
@@ -30,6 +33,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Paulo Lopes
@@ -160,4 +164,64 @@ public class JWTAuthHandlerTest extends WebTestBase {
 
     testRequest(HttpMethod.GET, "/", req -> req.putHeader("Authorization", "Bearer " + authProvider.generateToken(payloadB)), 200, "OK", null);
   }
+
+  @Test
+  public void testTokenCache() throws Exception {
+    final AtomicInteger verifications = new AtomicInteger();
+    final JWTAuth counting = new JWTAuth() {
+      @Override
+      public String generateToken(JsonObject claims, JWTOptions options) {
+        return authProvider.generateToken(claims, options);
+      }
+
+      @Override
+      public String generateToken(JsonObject claims) {
+        return authProvider.generateToken(claims);
+      }
+
+      @Override
+      public void authenticate(JsonObject credentials, Handler<AsyncResult<User>> resultHandler) {
+        verifications.incrementAndGet();
+        authProvider.authenticate(credentials, resultHandler);
+      }
+
+      @Override
+      public void authenticate(Credentials credentials, Handler<AsyncResult<User>> resultHandler) {
+        verifications.incrementAndGet();
+        authProvider.authenticate(credentials, resultHandler);
+      }
+    };
+
+    router.route("/protected/*").handler(JWTAuthHandler.create(counting).tokenCache(16, 60_000));
+    router.route("/protected/somepage").handler(rc -> {
+      // changes to the user must not leak into the cache
+      rc.user().principal().put("mutated", true);
+      rc.response().end(rc.user().principal().getString("sub"));
+    });
+
+    final String token = authProvider.generateToken(new JsonObject().put("sub", "paulo"), new JWTOptions());
+
+    for (int i = 0; i < 3; i++) {
+      testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Bearer " + token), 200, "OK", "paulo");
+    }
+    assertEquals(1, verifications.get());
+
+    // a bad token is never cached
+    testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Bearer x" + token), 401, "Unauthorized", null);
+    testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Bearer x" + token), 401, "Unauthorized", null);
+    assertEquals(3, verifications.get());
+  }
+
+  @Test
+  public void testTokenCacheHonorsExpiration() throws Exception {
+    router.route("/protected/*").handler(JWTAuthHandler.create(authProvider).tokenCache(16, 60_000));
+    router.route("/protected/somepage").handler(rc -> rc.response().end());
+
+    // token expires in 1 second
+    final String token = authProvider.generateToken(new JsonObject().put("sub", "paulo"), new JWTOptions().setExpiresInSeconds(1));
+
+    testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Bearer " + token), 200, "OK", null);
+    Thread.sleep(2000);
+    testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Bearer " + token), 401, "Unauthorized", null);
+  }
 }
@@ -17,9 +17,16 @@
 package io.vertx.ext.web.handler;
 
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.WebTestBase;
 import org.junit.Test;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
 /**
@@ -76,6 +83,105 @@ public class LoggerHandlerTest extends WebTestBase {
     latch.await();
   }
 
+  @Test
+  public void testAsyncWriter() throws Exception {
+    File file = File.createTempFile("access", ".log");
+    file.deleteOnExit();
+
+    LoggerHandler logger = LoggerHandler.create(LoggerFormat.TINY).writeAsync(vertx, file.getAbsolutePath(), 16);
+    testLogger(logger);
+    testLogger(logger);
+
+    waitUntil(() -> logger.logStats().getLong("written") == 2);
+    List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    assertEquals(2, lines.size());
+    assertTrue(lines.get(0).startsWith("GET /somedir 200 0 - "));
+
+    JsonObject stats = logger.logStats();
+    assertEquals(2L, (long) stats.getLong("accepted"));
+    assertEquals(0L, (long) stats.getLong("dropped"));
+  }
+
+  @Test
+  public void testAsyncWriterShared() throws Exception {
+    File file = File.createTempFile("access", ".log");
+    file.deleteOnExit();
+
+    LoggerHandler logger1 = LoggerHandler.create(LoggerFormat.TINY).writeAsync(vertx, file.getAbsolutePath(), 16);
+    LoggerHandler logger2 = LoggerHandler.create(LoggerFormat.SHORT).writeAsync(vertx, file.getAbsolutePath(), 16);
+    router.route("/a").handler(logger1);
+    router.route("/b").handler(logger2);
+    router.route().handler(rc -> rc.response().end());
+    testRequest(HttpMethod.GET, "/a", 200, "OK");
+    testRequest(HttpMethod.GET, "/b", 200, "OK");
+
+    // both handlers report the counters of the shared writer
+    waitUntil(() -> logger1.logStats().getLong("written") == 2);
+    assertEquals(logger1.logStats(), logger2.logStats());
+    assertEquals(2, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size());
+  }
+
+  @Test
+  public void testJsonFormat() throws Exception {
+    File file = File.createTempFile("access", ".log");
+    file.deleteOnExit();
+
+    LoggerHandler logger = LoggerHandler.create(LoggerFormat.JSON).writeAsync(vertx, file.getAbsolutePath(), 16);
+    router.route().handler(logger);
+    router.get("/users/:id").handler(rc -> rc.response().end("OK"));
+    testRequest(HttpMethod.GET, "/users/123?a=b", req -> {
+      req.putHeader("User-Agent", "test \"agent\" \u00e9");
+      req.putHeader("traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+    }, 200, "OK", "OK");
+
+    waitUntil(() -> logger.logStats().getLong("written") == 1);
+    JsonObject json = new JsonObject(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).get(0));
+    assertNotNull(json.getString("@timestamp"));
+    assertEquals("GET", json.getString("http.request.method"));
+    assertEquals("/users/123", json.getString("url.path"));
+    assertEquals("/users/:id", json.getString("http.route"));
+    assertEquals(200, (int) json.getInteger("http.response.status_code"));
+    assertEquals(2L, (long) json.getLong("http.response.body.bytes"));
+    assertTrue(json.getLong("event.duration") > 0);
+    assertNotNull(json.getString("client.address"));
+    assertEquals("test \"agent\" \u00e9", json.getString("user_agent.original"));
+    assertEquals("0af7651916cd43dd8448eb211c80319c", json.getString("trace.id"));
+    assertEquals("b7ad6b7169203331", json.getString("span.id"));
+  }
+
+  @Test
+  public void testJsonFields() throws Exception {
+    File file = File.createTempFile("access", ".log");
+    file.deleteOnExit();
+
+    LoggerHandler logger = LoggerHandler.create(LoggerFormat.JSON)
+      .jsonFields(Arrays.asList("http.response.status_code", "http.request.method", "trace.id"))
+      .writeAsync(vertx, file.getAbsolutePath(), 16);
+    testLogger(logger);
+
+    waitUntil(() -> logger.logStats().getLong("written") == 1);
+    // missing values are omitted
+    assertEquals("{\"http.response.status_code\":200,\"http.request.method\":\"GET\"}", Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).get(0));
+
+    try {
+      LoggerHandler.create(LoggerFormat.JSON).jsonFields(Collections.singletonList("unknown"));
+      fail();
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      LoggerHandler.create(LoggerFormat.TINY).jsonFields(Collections.singletonList("url.path"));
+      fail();
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testJsonFormatLogger() throws Exception {
+    testLogger(LoggerHandler.create(LoggerFormat.JSON));
+  }
+
   private void testLogger(LoggerHandler logger) throws Exception {
     router.route().handler(logger);
     router.route().handler(rc -> rc.response().end());
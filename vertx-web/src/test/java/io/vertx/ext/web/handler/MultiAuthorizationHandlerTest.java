@@ -4,6 +4,7 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.KeyStoreOptions;
 import io.vertx.ext.auth.JWTOptions;
@@ -13,12 +14,14 @@ import io.vertx.ext.auth.authorization.AuthorizationProvider;
 import io.vertx.ext.auth.authorization.RoleBasedAuthorization;
 import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.auth.jwt.JWTAuthOptions;
+import io.vertx.ext.auth.jwt.authorization.MicroProfileAuthorization;
 import io.vertx.ext.web.WebTestBase;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class MultiAuthorizationHandlerTest extends WebTestBase {
 
@@ -163,6 +166,105 @@ public class MultiAuthorizationHandlerTest extends WebTestBase {
       403, "Forbidden", "Forbidden");
   }
 
+  @Test
+  public void testAuthorizationCache() throws Exception {
+    final AtomicInteger fetches = new AtomicInteger();
+    final AuthorizationProvider provider = createProvider("authzProvider1", RoleBasedAuthorization.create("role1"));
+    final AuthorizationHandler authzHandler = AuthorizationHandler.create(RoleBasedAuthorization.create("role1"))
+      .addAuthorizationProvider(new AuthorizationProvider() {
+        @Override
+        public String getId() {
+          return provider.getId();
+        }
+
+        @Override
+        public void getAuthorizations(User user, Handler<AsyncResult<Void>> handler) {
+          fetches.incrementAndGet();
+          provider.getAuthorizations(user, handler);
+        }
+      })
+      .authorizationCache(16, 60_000);
+
+    router.route("/protected/*").handler(JWTAuthHandler.create(authProvider));
+    router.route("/protected/*").handler(authzHandler);
+    router.route("/protected/page1").handler(rc -> rc.response().end("Welcome"));
+
+    final String token = authProvider.generateToken(new JsonObject().put("sub", "paulo"), new JWTOptions());
+
+    for (int i = 0; i < 3; i++) {
+      testRequest(HttpMethod.GET, "/protected/page1", req -> req.putHeader("Authorization", "Bearer " + token), 200, "OK", "Welcome");
+    }
+    assertEquals(1, fetches.get());
+
+    // a permission change evicts the entries of the provider
+    authzHandler.evictAuthorizations((providerId, principal) -> "authzProvider1".equals(providerId));
+    testRequest(HttpMethod.GET, "/protected/page1", req -> req.putHeader("Authorization", "Bearer " + token), 200, "OK", "Welcome");
+    assertEquals(2, fetches.get());
+  }
+
+  @Test
+  public void testAuthorizationCachePerSubject() throws Exception {
+    final AtomicInteger fetches = new AtomicInteger();
+    final AuthorizationProvider provider = createProvider("authzProvider1", RoleBasedAuthorization.create("role1"));
+    final AuthorizationHandler authzHandler = AuthorizationHandler.create(RoleBasedAuthorization.create("role1"))
+      .addAuthorizationProvider(new AuthorizationProvider() {
+        @Override
+        public String getId() {
+          return provider.getId();
+        }
+
+        @Override
+        public void getAuthorizations(User user, Handler<AsyncResult<Void>> handler) {
+          fetches.incrementAndGet();
+          provider.getAuthorizations(user, handler);
+        }
+      })
+      .authorizationCache(16, 60_000);
+
+    router.route("/protected/*").handler(JWTAuthHandler.create(authProvider));
+    router.route("/protected/*").handler(authzHandler);
+    router.route("/protected/page1").handler(rc -> rc.response().end("Welcome"));
+
+    // tokens issued to the same subject share the cached authorizations
+    for (int i = 0; i < 3; i++) {
+      final String token = authProvider.generateToken(new JsonObject().put("sub", "paulo").put("jti", "token" + i), new JWTOptions().setExpiresInSeconds(2));
+      testRequest(HttpMethod.GET, "/protected/page1", req -> req.putHeader("Authorization", "Bearer " + token), 200, "OK", "Welcome");
+    }
+    assertEquals(1, fetches.get());
+
+    // the entry does not outlive the token it was fetched for
+    Thread.sleep(2500);
+    final String token = authProvider.generateToken(new JsonObject().put("sub", "paulo"), new JWTOptions());
+    testRequest(HttpMethod.GET, "/protected/page1", req -> req.putHeader("Authorization", "Bearer " + token), 200, "OK", "Welcome");
+    assertEquals(2, fetches.get());
+
+    // other subjects have their own entries
+    final String other = authProvider.generateToken(new JsonObject().put("sub", "julien"), new JWTOptions());
+    testRequest(HttpMethod.GET, "/protected/page1", req -> req.putHeader("Authorization", "Bearer " + other), 200, "OK", "Welcome");
+    assertEquals(3, fetches.get());
+  }
+
+  @Test
+  public void testAuthorizationCachePerClaims() throws Exception {
+    final AuthorizationHandler authzHandler = AuthorizationHandler.create(RoleBasedAuthorization.create("admin"))
+      .addAuthorizationProvider(MicroProfileAuthorization.create())
+      .authorizationCache(16, 60_000);
+
+    router.route("/protected/*").handler(JWTAuthHandler.create(authProvider));
+    router.route("/protected/*").handler(authzHandler);
+    router.route("/protected/page1").handler(rc -> rc.response().end("Welcome"));
+
+    final String admin = authProvider.generateToken(new JsonObject().put("sub", "paulo").put("groups", new JsonArray().add("admin")), new JWTOptions());
+    testRequest(HttpMethod.GET, "/protected/page1", req -> req.putHeader("Authorization", "Bearer " + admin), 200, "OK", "Welcome");
+
+    // a token of the same subject without the admin group does not get the cached authorizations
+    final String user = authProvider.generateToken(new JsonObject().put("sub", "paulo").put("groups", new JsonArray().add("user")), new JWTOptions());
+    testRequest(HttpMethod.GET, "/protected/page1", req -> req.putHeader("Authorization", "Bearer " + user), 403, "Forbidden", "Forbidden");
+
+    // and does not spoil them
+    testRequest(HttpMethod.GET, "/protected/page1", req -> req.putHeader("Authorization", "Bearer " + admin), 200, "OK", "Welcome");
+  }
+
   private AuthorizationProvider createProvider(String id, Authorization authorization) {
     Set<Authorization> _authorizations = new HashSet<>();
     _authorizations.add(authorization);
@@ -17,10 +17,14 @@
 package io.vertx.ext.web.handler;
 
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.WebTestBase;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
@@ -184,4 +188,85 @@ public class MultiTenantHandlerTest extends WebTestBase {
       200,
       "OK", "No valid tenant supplied");
   }
+
+  @Test
+  public void testHost() throws Exception {
+    router.clear();
+
+    router.route().handler(
+      MultiTenantHandler.createForHost()
+        .addTenantHandler("acme", ctx -> ctx.end("Hello from " + ctx.get(MultiTenantHandler.TENANT)))
+        .addDefaultHandler(ctx -> ctx.end("No valid tenant supplied"))
+    );
+
+    testRequest(
+      HttpMethod.GET,
+      "/",
+      req -> req.putHeader("Host", "acme.example.com:8080"),
+      null,
+      200,
+      "OK", "Hello from acme");
+
+    testRequest(
+      HttpMethod.GET,
+      "/",
+      req -> req.putHeader("Host", "acme2.example.com"),
+      null,
+      200,
+      "OK", "No valid tenant supplied");
+  }
+
+  @Test
+  public void testPathSegment() throws Exception {
+    router.clear();
+
+    router.route().handler(
+      MultiTenantHandler.createForPathSegment(1)
+        .addTenantHandler("t1", ctx -> ctx.end("Hello from tenant-1"))
+        .addTenantHandler("t2", ctx -> ctx.end("Hello from tenant-2"))
+        .removeTenant("t2")
+    );
+
+    testRequest(HttpMethod.GET, "/api/t1/users", 200, "OK", "Hello from tenant-1");
+    testRequest(HttpMethod.GET, "/api/t1", 200, "OK", "Hello from tenant-1");
+    testRequest(HttpMethod.GET, "/api/t2/users", 404, "Not Found", "<html><body><h1>Resource not found</h1></body></html>");
+    testRequest(HttpMethod.GET, "/api", 404, "Not Found", "<html><body><h1>Resource not found</h1></body></html>");
+    testRequest(HttpMethod.GET, "/api//t1", 404, "Not Found", "<html><body><h1>Resource not found</h1></body></html>");
+  }
+
+  @Test
+  public void testConcurrencyLimitAndStats() throws Exception {
+    router.clear();
+
+    List<RoutingContext> pending = new CopyOnWriteArrayList<>();
+    MultiTenantHandler handler = MultiTenantHandler.create("X-Tenant")
+      .addTenantHandler("slow", pending::add, 1)
+      .addTenantHandler("fast", ctx -> ctx.end("fast"));
+    router.route().handler(handler);
+
+    CountDownLatch latch = new CountDownLatch(1);
+    client.request(HttpMethod.GET, "/")
+      .onComplete(onSuccess(req -> req
+        .putHeader("X-Tenant", "slow")
+        .send(onSuccess(resp -> {
+          assertEquals(200, resp.statusCode());
+          latch.countDown();
+        }))));
+    waitUntil(() -> pending.size() == 1);
+
+    // the slow tenant is at its limit, the other tenants are not affected
+    testRequest(HttpMethod.GET, "/", req -> req.putHeader("X-Tenant", "slow"), null, 429, "Too Many Requests", null);
+    testRequest(HttpMethod.GET, "/", req -> req.putHeader("X-Tenant", "fast"), null, 200, "OK", "fast");
+
+    pending.get(0).end();
+    awaitLatch(latch);
+    waitUntil(() -> handler.stats().getJsonObject("slow").getInteger("active") == 0);
+
+    JsonObject stats = handler.stats();
+    assertEquals(2L, (long) stats.getJsonObject("slow").getLong("requests"));
+    assertEquals(1L, (long) stats.getJsonObject("slow").getLong("rejected"));
+    assertTrue(stats.getJsonObject("slow").getLong("timeNanos") > 0);
+    assertEquals(1L, (long) stats.getJsonObject("fast").getLong("requests"));
+    assertEquals(0L, (long) stats.getJsonObject("fast").getLong("rejected"));
+  }
 }
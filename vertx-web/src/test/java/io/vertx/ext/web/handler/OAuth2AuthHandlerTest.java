@@ -16,8 +16,10 @@
 
 package io.vertx.ext.web.handler;
 
+import io.vertx.core.Handler;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.JWTOptions;
 import io.vertx.ext.auth.PubSecKeyOptions;
@@ -35,6 +37,7 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -465,6 +468,204 @@ public class OAuth2AuthHandlerTest extends WebTestBase {
     testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Bearer 4adc339e0"), 401, "Unauthorized", "Unauthorized");
   }
 
+  @Test
+  public void testBearerOnlyTokenCache() throws Exception {
+    final AtomicInteger introspections = new AtomicInteger();
+    final CountDownLatch latch = new CountDownLatch(1);
+
+    // mock the IdP introspection endpoint
+    HttpServer server = vertx.createHttpServer().requestHandler(req -> {
+      if (req.method() == HttpMethod.POST && "/oauth/introspect".equals(req.path())) {
+        introspections.incrementAndGet();
+        req.setExpectMultipart(true).endHandler(v -> {
+          final boolean active = "4adc339e0".equals(req.getFormAttribute("token"));
+          final JsonObject body = active ?
+            new JsonObject()
+              .put("active", true)
+              .put("client_id", "client-id")
+              .put("username", "paulo")
+              .put("exp", System.currentTimeMillis() / 1000 + 3600) :
+            new JsonObject().put("active", false);
+          req.response().putHeader("Content-Type", "application/json").end(body.encode());
+        });
+      } else {
+        req.response().setStatusCode(400).end();
+      }
+    }).listen(10000, ready -> {
+      if (ready.failed()) {
+        throw new RuntimeException(ready.cause());
+      }
+      latch.countDown();
+    });
+
+    latch.await();
+
+    OAuth2Auth oauth2 = OAuth2Auth.create(vertx, new OAuth2Options()
+      .setFlow(OAuth2FlowType.AUTH_CODE)
+      .setClientId("client-id")
+      .setClientSecret("client-secret")
+      .setIntrospectionPath("/oauth/introspect")
+      .setSite("http://localhost:10000"));
+
+    router.route("/protected/*").handler(OAuth2AuthHandler.create(vertx, oauth2).tokenCache(16, 60_000, 60_000));
+    router.route("/protected/somepage").handler(rc -> {
+      assertNotNull(rc.user());
+      rc.response().end("Welcome to the protected resource!");
+    });
+
+    for (int i = 0; i < 3; i++) {
+      testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Bearer 4adc339e0"), 200, "OK", "Welcome to the protected resource!");
+    }
+    assertEquals(1, introspections.get());
+
+    // failures are cached too
+    for (int i = 0; i < 3; i++) {
+      testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Bearer 1234567"), 401, "Unauthorized", "Unauthorized");
+    }
+    assertEquals(2, introspections.get());
+
+    server.close();
+  }
+
+  @Test
+  public void testBearerOnlyTokenCacheServerError() throws Exception {
+    final AtomicInteger introspections = new AtomicInteger();
+    final CountDownLatch latch = new CountDownLatch(1);
+
+    // mock the IdP introspection endpoint, failing the first call
+    HttpServer server = vertx.createHttpServer().requestHandler(req -> {
+      if (introspections.getAndIncrement() == 0) {
+        req.response().setStatusCode(503).end();
+        return;
+      }
+      req.setExpectMultipart(true).endHandler(v -> req.response()
+        .putHeader("Content-Type", "application/json")
+        .end(new JsonObject()
+          .put("active", true)
+          .put("client_id", "client-id")
+          .put("username", "paulo")
+          .put("exp", System.currentTimeMillis() / 1000 + 3600).encode()));
+    }).listen(10000, ready -> {
+      if (ready.failed()) {
+        throw new RuntimeException(ready.cause());
+      }
+      latch.countDown();
+    });
+
+    latch.await();
+
+    router.route("/protected/*").handler(OAuth2AuthHandler.create(vertx, introspectingOAuth2(10000)).tokenCache(16, 60_000, 60_000));
+    router.route("/protected/somepage").handler(rc -> rc.response().end("Welcome to the protected resource!"));
+
+    testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Bearer 4adc339e0"), 401, "Unauthorized", "Unauthorized");
+    // the server error is not cached, so the token is validated again
+    testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Bearer 4adc339e0"), 200, "OK", "Welcome to the protected resource!");
+    assertEquals(2, introspections.get());
+
+    server.close();
+  }
+
+  @Test
+  public void testBearerOnlyTokenCacheConnectionError() throws Exception {
+    router.route("/protected/*").handler(OAuth2AuthHandler.create(vertx, introspectingOAuth2(10000)).tokenCache(16, 60_000, 60_000));
+    router.route("/protected/somepage").handler(rc -> rc.response().end("Welcome to the protected resource!"));
+
+    // the IdP is not listening yet
+    testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Bearer 4adc339e0"), 401, "Unauthorized", "Unauthorized");
+
+    final CountDownLatch latch = new CountDownLatch(1);
+    HttpServer server = vertx.createHttpServer().requestHandler(req -> req.setExpectMultipart(true).endHandler(v -> req.response()
+      .putHeader("Content-Type", "application/json")
+      .end(new JsonObject()
+        .put("active", true)
+        .put("client_id", "client-id")
+        .put("username", "paulo")
+        .put("exp", System.currentTimeMillis() / 1000 + 3600).encode()))
+    ).listen(10000, ready -> {
+      if (ready.failed()) {
+        throw new RuntimeException(ready.cause());
+      }
+      latch.countDown();
+    });
+
+    latch.await();
+
+    // the connection error is not cached
+    testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Bearer 4adc339e0"), 200, "OK", "Welcome to the protected resource!");
+
+    server.close();
+  }
+
+  @Test
+  public void testBearerOnlyTokenCacheExpired() throws Exception {
+    testBearerOnlyTokenRejectionCached(req -> req.response()
+      .putHeader("Content-Type", "application/json")
+      .end(new JsonObject()
+        .put("active", true)
+        .put("client_id", "client-id")
+        .put("username", "paulo")
+        .put("exp", System.currentTimeMillis() / 1000 - 3600).encode()));
+  }
+
+  @Test
+  public void testBearerOnlyTokenCacheInvalidToken() throws Exception {
+    testBearerOnlyTokenRejectionCached(req -> req.response()
+      .setStatusCode(400)
+      .putHeader("Content-Type", "application/json")
+      .end(new JsonObject()
+        .put("error", "invalid_token")
+        .put("error_description", "The access token was revoked").encode()));
+  }
+
+  @Test
+  public void testBearerOnlyTokenCacheInvalidTokenNoDescription() throws Exception {
+    testBearerOnlyTokenRejectionCached(req -> req.response()
+      .setStatusCode(401)
+      .putHeader("Content-Type", "application/json")
+      .end(new JsonObject().put("error", "invalid_token").encode()));
+  }
+
+  /**
+   * Asserts that the rejection of the token by the IdP is negative cached. This pins the messages the provider reports
+   * the rejections with.
+   */
+  private void testBearerOnlyTokenRejectionCached(Handler<HttpServerRequest> introspection) throws Exception {
+    final AtomicInteger introspections = new AtomicInteger();
+    final CountDownLatch latch = new CountDownLatch(1);
+
+    // mock the IdP introspection endpoint
+    HttpServer server = vertx.createHttpServer().requestHandler(req -> {
+      introspections.incrementAndGet();
+      req.setExpectMultipart(true).endHandler(v -> introspection.handle(req));
+    }).listen(10000, ready -> {
+      if (ready.failed()) {
+        throw new RuntimeException(ready.cause());
+      }
+      latch.countDown();
+    });
+
+    latch.await();
+
+    router.route("/protected/*").handler(OAuth2AuthHandler.create(vertx, introspectingOAuth2(10000)).tokenCache(16, 60_000, 60_000));
+    router.route("/protected/somepage").handler(rc -> rc.response().end("Welcome to the protected resource!"));
+
+    for (int i = 0; i < 3; i++) {
+      testRequest(HttpMethod.GET, "/protected/somepage", req -> req.putHeader("Authorization", "Bearer 4adc339e0"), 401, "Unauthorized", "Unauthorized");
+    }
+    assertEquals(1, introspections.get());
+
+    server.close();
+  }
+
+  private OAuth2Auth introspectingOAuth2(int port) {
+    return OAuth2Auth.create(vertx, new OAuth2Options()
+      .setFlow(OAuth2FlowType.AUTH_CODE)
+      .setClientId("client-id")
+      .setClientSecret("client-secret")
+      .setIntrospectionPath("/oauth/introspect")
+      .setSite("http://localhost:" + port));
+  }
+
   @Test
   public void testBearerOnlyWithJWT() throws Exception {
 
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler;
+
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.WebTestBase;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SecurityHeadersHandlerTest extends WebTestBase {
+
+  @Test
+  public void testDefault() throws Exception {
+    router.route().handler(SecurityHeadersHandler.create());
+    router.route().handler(context -> context.response().end());
+    testRequest(HttpMethod.GET, "/", null, resp -> {
+      assertEquals("default-src 'self'", resp.getHeader("Content-Security-Policy"));
+      assertNull(resp.getHeader("Strict-Transport-Security"));
+      assertNull(resp.getHeader("X-Frame-Options"));
+    }, 200, "OK", null);
+  }
+
+  @Test
+  public void testAllHeaders() throws Exception {
+    router.route().handler(
+      SecurityHeadersHandler.create()
+        .addDirective("img-src", "*")
+        .setHSTS(3600, true)
+        .setXFrame("deny"));
+    router.route().handler(context -> context.response().end());
+
+    // HSTS only applies to secure requests
+    testRequest(HttpMethod.GET, "/", null, resp -> {
+      assertEquals("default-src 'self'; img-src *", resp.getHeader("Content-Security-Policy"));
+      assertNull(resp.getHeader("Strict-Transport-Security"));
+      assertEquals("DENY", resp.getHeader("X-Frame-Options"));
+    }, 200, "OK", null);
+
+    testRequest(HttpMethod.GET, "/", req -> req.putHeader("Front-End-Https", "on"), resp -> {
+      assertEquals("max-age=3600; includeSubdomains", resp.getHeader("Strict-Transport-Security"));
+    }, 200, "OK", null);
+  }
+
+  @Test
+  public void testDownstreamOverride() throws Exception {
+    router.route().handler(
+      SecurityHeadersHandler.create()
+        .setHSTS(3600, true)
+        .setXFrame("deny"));
+    router.route("/embed").handler(context -> {
+      context.response()
+        .putHeader("Content-Security-Policy", "default-src 'self'; frame-ancestors 'self'")
+        .putHeader("X-Frame-Options", "SAMEORIGIN")
+        .end();
+    });
+    router.route().handler(context -> context.response().end());
+
+    testRequest(HttpMethod.GET, "/embed", req -> req.putHeader("Front-End-Https", "on"), resp -> {
+      assertEquals("default-src 'self'; frame-ancestors 'self'", resp.getHeader("Content-Security-Policy"));
+      assertEquals("SAMEORIGIN", resp.getHeader("X-Frame-Options"));
+      // not overridden
+      assertEquals("max-age=3600; includeSubdomains", resp.getHeader("Strict-Transport-Security"));
+    }, 200, "OK", null);
+
+    testRequest(HttpMethod.GET, "/", null, resp -> {
+      assertEquals("default-src 'self'", resp.getHeader("Content-Security-Policy"));
+      assertEquals("DENY", resp.getHeader("X-Frame-Options"));
+    }, 200, "OK", null);
+  }
+
+  @Test
+  public void testNonce() throws Exception {
+    final AtomicReference<String> nonce = new AtomicReference<>();
+
+    router.route().handler(
+      SecurityHeadersHandler.create()
+        .addDirective("img-src", "*")
+        .setCSPNonce(true));
+    router.route().handler(context -> {
+      nonce.set(context.get(SecurityHeadersHandler.CSP_NONCE));
+      context.response().end();
+    });
+
+    testRequest(HttpMethod.GET, "/", null, resp -> {
+      assertNotNull(nonce.get());
+      assertEquals("default-src 'self'; img-src *; script-src 'self' 'nonce-" + nonce.get() + "'", resp.getHeader("Content-Security-Policy"));
+    }, 200, "OK", null);
+
+    final String first = nonce.get();
+
+    testRequest(HttpMethod.GET, "/", null, resp -> {
+      assertFalse(first.equals(nonce.get()));
+      assertEquals("default-src 'self'; img-src *; script-src 'self' 'nonce-" + nonce.get() + "'", resp.getHeader("Content-Security-Policy"));
+    }, 200, "OK", null);
+  }
+
+  @Test
+  public void testReportingWithoutUri() throws Exception {
+    router.route().handler(SecurityHeadersHandler.create().setReportOnly(true));
+    router.route().handler(context -> context.response().end());
+    testRequest(HttpMethod.GET, "/", 500, "Internal Server Error");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidXFrame() {
+    SecurityHeadersHandler.create().setXFrame("ALLOW-FROM");
+  }
+}
@@ -203,7 +203,7 @@ public abstract class SessionHandlerTestBase extends WebTestBase {
     waitUntil(() -> testSessionBlocking(rid.get(), Objects::isNull));
   }
 
-  private boolean testSessionBlocking(String sessionId, Function<Session, Boolean> test) {
+  protected boolean testSessionBlocking(String sessionId, Function<Session, Boolean> test) {
     CompletableFuture<Boolean> cf = new CompletableFuture<>();
     store.get(sessionId, ar -> {
       if (ar.succeeded()) {
@@ -66,5 +66,38 @@ public class TimeoutHandlerTest extends WebTestBase {
     Thread.sleep(1000); // Let timer kick in, if it's going to
   }
 
+  @Test
+  public void testRemainingTime() throws Exception {
+    router.route().handler(rc -> {
+      assertEquals(-1L, TimeoutHandler.remainingTime(rc));
+      rc.next();
+    });
+    router.route().handler(TimeoutHandler.create(5000));
+    // a nested handler can only shorten the deadline
+    router.route().handler(TimeoutHandler.create(10000));
+    router.route().handler(TimeoutHandler.create(1000));
+    router.route().handler(rc -> {
+      long remaining = TimeoutHandler.remainingTime(rc);
+      assertTrue(remaining > 0 && remaining <= 1000);
+      rc.response().end();
+    });
+    testRequest(HttpMethod.GET, "/", 200, "OK");
+  }
 
+  @Test
+  public void testManyTimeouts() throws Exception {
+    router.route().handler(TimeoutHandler.create(200));
+    router.route("/fast").handler(rc -> rc.response().end());
+    router.route("/slow").handler(rc -> {
+      // Don't end it
+    });
+    for (int i = 0; i < 20; i++) {
+      testRequest(HttpMethod.GET, "/fast", 200, "OK");
+    }
+    long start = System.currentTimeMillis();
+    testRequest(HttpMethod.GET, "/slow", 503, "Service Unavailable");
+    assertTrue(System.currentTimeMillis() - start >= 200);
+    // cancelled timeouts must not fire
+    Thread.sleep(300);
+  }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.test.core.TestUtils;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class AccessLogWriterTest extends VertxTestBase {
+
+  @Test
+  public void testDrainOnClose() throws Exception {
+    File file = File.createTempFile("access", ".log");
+    file.deleteOnExit();
+
+    int lines = 10_000;
+    Vertx vertx = Vertx.vertx();
+    AccessLogWriter writer = AccessLogWriter.get(vertx, file.getAbsolutePath(), lines);
+    for (int i = 0; i < lines; i++) {
+      assertTrue(writer.offer("line " + i));
+    }
+    CountDownLatch closed = new CountDownLatch(1);
+    vertx.close(onSuccess(v -> closed.countDown()));
+    awaitLatch(closed);
+
+    // closing waits for the queued lines to be written
+    List<String> written = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    assertEquals(lines, written.size());
+    assertEquals("line " + (lines - 1), written.get(lines - 1));
+    assertEquals(lines, (long) writer.stats().getLong("written"));
+    assertFalse(writer.offer("too late"));
+  }
+
+  @Test
+  public void testReopenAfterFailure() throws Exception {
+    File dir = new File(System.getProperty("java.io.tmpdir"), TestUtils.randomAlphaString(16));
+    File file = new File(dir, "access.log");
+    file.deleteOnExit();
+    dir.deleteOnExit();
+
+    AccessLogWriter writer = AccessLogWriter.get(vertx, file.getAbsolutePath(), 16);
+    // the directory does not exist yet, so the output cannot be opened and the line stays queued
+    writer.offer("first");
+    Thread.sleep(100);
+    assertEquals(0L, (long) writer.stats().getLong("written"));
+    assertEquals(1, (int) writer.stats().getInteger("pending"));
+
+    assertTrue(dir.mkdirs());
+    writer.offer("second");
+    waitUntil(() -> writer.stats().getLong("written") == 2);
+    assertEquals(0L, (long) writer.stats().getLong("failed"));
+    assertEquals(Arrays.asList("first", "second"), Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+  }
+}
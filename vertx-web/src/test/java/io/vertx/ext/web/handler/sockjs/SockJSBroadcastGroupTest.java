@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs;
+
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SockJSBroadcastGroupTest extends SockJSTestBase {
+
+  @Test
+  public void testBroadcast() throws Exception {
+    int numClients = 3;
+    SockJSBroadcastGroup group = SockJSBroadcastGroup.create();
+    CountDownLatch joined = new CountDownLatch(numClients);
+    socketHandler = () -> socket -> {
+      group.add(socket);
+      joined.countDown();
+    };
+    startServers();
+    waitFor(numClients);
+    for (int i = 0; i < numClients; i++) {
+      client.webSocket("/test/400/8ne8e94" + i + "/websocket", onSuccess(ws -> {
+        AtomicInteger frames = new AtomicInteger();
+        ws.textMessageHandler(msg -> {
+          if (frames.incrementAndGet() == 1) {
+            assertEquals("o", msg);
+          } else {
+            assertEquals("a[\"h\\u00e9llo \\\"world\\\"\"]", msg);
+            complete();
+          }
+        });
+      }));
+    }
+    awaitLatch(joined);
+    assertEquals(numClients, group.size());
+    assertEquals(numClients, group.broadcast("h\u00e9llo \"world\""));
+    await();
+    assertEquals(new JsonObject().put("broadcasts", 1L).put("delivered", 3L).put("dropped", 0L).put("disconnected", 0L), group.stats());
+  }
+
+  @Test
+  public void testDropSlowConsumer() throws Exception {
+    testSlowConsumer(SlowConsumerPolicy.DROP, "a[\"hello\"]\n");
+  }
+
+  @Test
+  public void testDisconnectSlowConsumer() throws Exception {
+    testSlowConsumer(SlowConsumerPolicy.DISCONNECT, "c[3000,\"Go away!\"]\n");
+  }
+
+  private void testSlowConsumer(SlowConsumerPolicy policy, String expected) throws Exception {
+    SockJSBroadcastGroup group = SockJSBroadcastGroup.create(policy);
+    socketHandler = () -> socket -> {
+      // the polling transport has no listener now, so the messages are queued until the next poll
+      socket.setWriteQueueMaxSize(5);
+      group.add(socket);
+      assertEquals(1, group.broadcast("hello"));
+      assertEquals(0, group.broadcast("world"));
+      client.request(HttpMethod.POST, "/test/400/8ne8e94a/xhr", onSuccess(req -> {
+        req.send(onSuccess(resp -> resp.body(onSuccess(body -> {
+          assertEquals(expected, body.toString());
+          assertEquals(policy == SlowConsumerPolicy.DROP ? 1 : 0, group.size());
+          testComplete();
+        }))));
+      }));
+    };
+    startServers();
+    client.request(HttpMethod.POST, "/test/400/8ne8e94a/xhr", onSuccess(req -> {
+      req.send(onSuccess(resp -> resp.body(onSuccess(body -> assertEquals("o\n", body.toString())))));
+    }));
+    await();
+  }
+}
@@ -17,9 +17,14 @@ package io.vertx.ext.web.handler.sockjs;
 
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.WebSocketConnectOptions;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
 import io.vertx.test.core.TestUtils;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
@@ -61,6 +66,30 @@ public class SockJSSessionTest extends SockJSTestBase {
     await();
   }
 
+  @Test
+  public void testDirectFlushFromTransportEventLoop() throws Exception {
+    String data = TestUtils.randomAlphaString(64);
+    socketHandler = () -> socket -> {
+      // another context bound to the event loop of the transport, e.g. a verticle deployed on it
+      ContextInternal transport = (ContextInternal) vertx.getOrCreateContext();
+      ContextInternal sibling = ((VertxInternal) vertx).createEventLoopContext(transport.nettyEventLoop(), null, Thread.currentThread().getContextClassLoader());
+      assertNotSame(transport, sibling);
+      sibling.runOnContext(v -> {
+        socket.setWriteQueueMaxSize(16);
+        socket.write(Buffer.buffer(data));
+        // written to the connection right away, without a hand-off to the transport context
+        assertFalse(socket.writeQueueFull());
+      });
+    };
+    startServers();
+    client.webSocket("/test/400/8ne8e94a/websocket", onSuccess(ws -> ws.handler(buff -> {
+      if (buff.toString().equals("a[\"" + data + "\"]")) {
+        testComplete();
+      }
+    })));
+    await();
+  }
+
   @Test
   public void testNoDeadlockWhenWritingFromAnotherThreadWithWebsocketTransport() throws Exception {
     int numMsg = 1000;
@@ -118,4 +147,102 @@ public class SockJSSessionTest extends SockJSTestBase {
     }));
     await();
   }
+
+  @Test
+  public void testWriteQueueMeasuredInBytes() throws Exception {
+    maxQueuedBytes = 16;
+    String message = "\u00e9\u00e9\u00e9\u00e9\u00e9";
+    socketHandler = () -> socket -> {
+      // the polling transport has no listener now, so the writes are queued
+      socket.setWriteQueueMaxSize(10);
+      socket.write(Buffer.buffer(message), onSuccess(v -> {}));
+      // 5 characters but 10 bytes
+      assertTrue(socket.writeQueueFull());
+      socket.write(Buffer.buffer(message), onFailure(err -> {
+        assertEquals("SockJS session write queue is full", err.getMessage());
+        client.request(HttpMethod.POST, "/test/400/8ne8e94a/xhr", onSuccess(req -> {
+          req.send(onSuccess(resp -> resp.body(onSuccess(body -> {
+            assertEquals("a[\"\\u00e9\\u00e9\\u00e9\\u00e9\\u00e9\"]\n", body.toString());
+            testComplete();
+          }))));
+        }));
+      }));
+    };
+    startServers();
+    client.request(HttpMethod.POST, "/test/400/8ne8e94a/xhr", onSuccess(req -> {
+      req.send(onSuccess(resp -> resp.body(onSuccess(body -> assertEquals("o\n", body.toString())))));
+    }));
+    await();
+  }
+
+  @Test
+  public void testHeartbeatOnlyWhenIdle() throws Exception {
+    heartbeatInterval = 200;
+    AtomicInteger writes = new AtomicInteger();
+    socketHandler = () -> socket -> vertx.setPeriodic(50, id -> {
+      if (writes.incrementAndGet() == 20) {
+        vertx.cancelTimer(id);
+      } else {
+        socket.write("tick");
+      }
+    });
+    startServers();
+    client.webSocket("/test/400/8ne8e94a/websocket", onSuccess(ws -> ws.textMessageHandler(msg -> {
+      if ("h".equals(msg)) {
+        // the session was busy until now
+        assertEquals(20, writes.get());
+        testComplete();
+      }
+    })));
+    await();
+  }
+
+  @Test
+  public void testBinarySubProtocol() throws Exception {
+    binarySubProtocol = "binary.sockjs";
+    Buffer payload = Buffer.buffer(new byte[] { 0, 1, (byte) 0xFF, '"', '\\' });
+    socketHandler = () -> socket -> socket.handler(msg -> {
+      // received as is
+      assertEquals(payload, msg);
+      socket.write(msg);
+      socket.write("ok");
+    });
+    startServers();
+    WebSocketConnectOptions options = new WebSocketConnectOptions()
+      .setURI("/test/400/8ne8e94a/websocket")
+      .addSubProtocol(binarySubProtocol);
+    client.webSocket(options, onSuccess(ws -> {
+      assertEquals(binarySubProtocol, ws.subProtocol());
+      // control frames keep the SockJS format
+      ws.textMessageHandler(msg -> assertEquals("o", msg));
+      List<Buffer> received = new ArrayList<>();
+      ws.binaryMessageHandler(msg -> {
+        received.add(msg);
+        if (received.size() == 2) {
+          assertEquals(payload, received.get(0));
+          assertEquals(Buffer.buffer("ok"), received.get(1));
+          testComplete();
+        }
+      });
+      ws.writeBinaryMessage(payload);
+    }));
+    await();
+  }
+
+  @Test
+  public void testBinarySubProtocolNotNegotiated() throws Exception {
+    binarySubProtocol = "binary.sockjs";
+    socketHandler = () -> socket -> socket.write("hello");
+    startServers();
+    client.webSocket("/test/400/8ne8e94a/websocket", onSuccess(ws -> {
+      ws.binaryMessageHandler(msg -> fail("plain SockJS clients only get text frames"));
+      ws.textMessageHandler(msg -> {
+        if (msg.startsWith("a")) {
+          assertEquals("a[\"hello\"]", msg);
+          testComplete();
+        }
+      });
+    }));
+    await();
+  }
 }
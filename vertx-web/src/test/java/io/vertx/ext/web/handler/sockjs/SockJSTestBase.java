@@ -38,6 +38,9 @@ import java.util.function.Supplier;
 abstract class SockJSTestBase extends VertxTestBase {
 
   int numServers = 1;
+  long maxQueuedBytes = SockJSHandlerOptions.DEFAULT_MAX_QUEUED_BYTES;
+  long heartbeatInterval = 2000;
+  String binarySubProtocol;
   HttpClient client;
   Consumer<Router> preSockJSHandlerSetup;
   Supplier<Handler<SockJSSocket>> socketHandler;
@@ -65,13 +68,19 @@ abstract class SockJSTestBase extends VertxTestBase {
         }
 
         SockJSHandlerOptions options = new SockJSHandlerOptions();
-        options.setHeartbeatInterval(2000);
+        options.setHeartbeatInterval(heartbeatInterval);
         options.setRegisterWriteHandler(true);
+        options.setMaxQueuedBytes(maxQueuedBytes);
+        options.setBinarySubProtocol(binarySubProtocol);
         SockJSHandler sockJSHandler = SockJSHandler.create(vertx, options);
         sockJSHandler.socketHandler(socketHandler.get());
         router.route("/test/*").handler(sockJSHandler);
 
-        vertx.createHttpServer(new HttpServerOptions().setPort(8080).setHost("localhost"))
+        HttpServerOptions serverOptions = new HttpServerOptions().setPort(8080).setHost("localhost");
+        if (binarySubProtocol != null) {
+          serverOptions.addWebSocketSubProtocol(binarySubProtocol);
+        }
+        vertx.createHttpServer(serverOptions)
           .requestHandler(router)
           .listen(ar -> {
             if (ar.succeeded()) {
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.buffer.Buffer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class FrameEncoderTest {
+
+  private static final List<String> MESSAGES = Arrays.asList(
+    "hello",
+    "",
+    "quotes \" and \\ and / and '",
+    "control \n\r\t\b\f\u0000\u001f\u007f",
+    "unicode é€😀 ",
+    "<script>alert(1)</script>");
+
+  private static List<Buffer> buffers(List<String> messages) {
+    return messages.stream().map(Buffer::buffer).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testMessages() throws Exception {
+    FrameEncoder.Framing framing = new FrameEncoder.Framing("data: ", "\r\n\r\n", false);
+    String expected = "data: a" + JsonCodec.encode(MESSAGES.toArray(new String[0])) + "\r\n\r\n";
+    assertEquals(Buffer.buffer(expected), framing.messages(buffers(MESSAGES)));
+  }
+
+  @Test
+  public void testMessagesEscapedForJavaScript() throws Exception {
+    FrameEncoder.Framing framing = new FrameEncoder.Framing("p(\"", "\");", true);
+    String expected = "p(\"" + StringEscapeUtils.escapeJavaScript("a" + JsonCodec.encode(MESSAGES.toArray(new String[0]))) + "\");";
+    assertEquals(Buffer.buffer(expected), framing.messages(buffers(MESSAGES)));
+  }
+
+  @Test
+  public void testControlFrames() throws Exception {
+    FrameEncoder.Framing framing = new FrameEncoder.Framing("p(\"", "\");", true);
+    String close = "c[3000,\"Go away!\"]";
+    assertEquals(Buffer.buffer("p(\"" + StringEscapeUtils.escapeJavaScript(close) + "\");"), framing.frame(close));
+    assertEquals(Buffer.buffer("o\n"), new FrameEncoder.Framing("", "\n", false).frame("o"));
+  }
+
+  @Test
+  public void testMalformedUtf8() throws Exception {
+    FrameEncoder.Framing framing = new FrameEncoder.Framing("", "", false);
+    byte[][] malformed = {
+      { 'a', (byte) 0x80, 'b' },
+      { (byte) 0xC0, (byte) 0xAF },
+      { (byte) 0xE2, (byte) 0x82 },
+      { (byte) 0xED, (byte) 0xA0, (byte) 0x80 },
+      { (byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80 }
+    };
+    for (byte[] bytes : malformed) {
+      Buffer message = Buffer.buffer(bytes);
+      String expected = "a" + JsonCodec.encode(new String[] { message.toString() });
+      assertEquals(Buffer.buffer(expected), framing.messages(Collections.singletonList(message)));
+    }
+  }
+
+  @Test
+  public void testEmpty() {
+    assertEquals(Buffer.buffer("a[]"), new FrameEncoder.Framing("", "", false).messages(Collections.emptyList()));
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.authorization.PermissionBasedAuthorization;
+import io.vertx.ext.bridge.PermittedOptions;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PermissionsTest {
+
+  private static String authority(EventBusBridgeImpl.Match match) {
+    assertTrue(match.doesMatch);
+    return match.requiredAuthority == null ? null : ((PermissionBasedAuthorization) match.requiredAuthority).getPermission();
+  }
+
+  @Test
+  public void testDeclarationOrder() {
+    Permissions permissions = new Permissions(Arrays.asList(
+      new PermittedOptions().setAddressRegex("prices\\..+").setMatch(new JsonObject().put("venue", "xnys")).setRequiredAuthority("regex"),
+      new PermittedOptions().setAddress("prices.ibm").setRequiredAuthority("exact"),
+      new PermittedOptions().setMatch(new JsonObject().put("public", true)).setRequiredAuthority("any")));
+
+    assertEquals("regex", authority(permissions.check("prices.ibm", new JsonObject().put("venue", "xnys"))));
+    assertEquals("exact", authority(permissions.check("prices.ibm", new JsonObject().put("venue", "xlon"))));
+    // the memoized address gives the same verdicts
+    assertEquals("regex", authority(permissions.check("prices.ibm", new JsonObject().put("venue", "xnys"))));
+    assertEquals("regex", authority(permissions.check("prices.aapl", new JsonObject().put("venue", "xnys"))));
+    assertFalse(permissions.check("prices.aapl", new JsonObject().put("venue", "xlon")).doesMatch);
+    assertEquals("any", authority(permissions.check("news", new JsonObject().put("public", true))));
+    assertFalse(permissions.check("news", "not json").doesMatch);
+    // address only checks
+    assertEquals("regex", authority(permissions.check("prices.aapl", null)));
+    assertEquals("any", authority(permissions.check("news", null)));
+  }
+
+  @Test
+  public void testDeepMatch() {
+    Permissions permissions = new Permissions(Collections.singletonList(
+      new PermittedOptions().setAddress("orders").setMatch(new JsonObject().put("user", new JsonObject().put("role", "admin")))));
+    assertNull(authority(permissions.check("orders", new JsonObject().put("user", new JsonObject().put("role", "admin").put("id", 1)))));
+    assertFalse(permissions.check("orders", new JsonObject().put("user", new JsonObject().put("role", "guest"))).doesMatch);
+    assertFalse(permissions.check("other", null).doesMatch);
+  }
+
+  @Test
+  public void testRejectEverythingByDefault() {
+    Permissions permissions = new Permissions(Collections.emptyList());
+    for (int i = 0; i < 10_000; i++) {
+      assertFalse(permissions.check("address-" + i, null).doesMatch);
+    }
+  }
+}
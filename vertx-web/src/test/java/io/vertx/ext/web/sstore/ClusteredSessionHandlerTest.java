@@ -16,6 +16,13 @@
 
 package io.vertx.ext.web.sstore;
 
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.*;
 import io.vertx.core.json.JsonObject;
@@ -29,7 +36,15 @@ import io.vertx.test.core.TestUtils;
 import io.vertx.test.fakecluster.FakeClusterManager;
 import org.junit.Test;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -192,4 +207,237 @@ public class ClusteredSessionHandlerTest extends SessionHandlerTestBase {
     client.webSocket(options, onSuccess(ws -> ws.writeTextMessage("foo")));
     await();
   }
+
+  @Test
+  public void testCoalesceRequests() throws Exception {
+    final int requests = 10;
+    CountingSessionStore counting = new CountingSessionStore(store);
+
+    router.route().handler(SessionHandler.create(counting).setCoalesceRequests(true).setFlushWindow(200));
+    router.route().handler(rc -> {
+      rc.session().put("foo", "bar");
+      rc.response().end();
+    });
+
+    AtomicReference<String> rSetCookie = new AtomicReference<>();
+    testRequest(HttpMethod.GET, "/", null, resp -> rSetCookie.set(resp.headers().get("set-cookie")), 200, "OK", null);
+    // wait for the initial merged write to reach the store
+    waitUntil(() -> counting.puts.get() == 1);
+
+    counting.gets.set(0);
+    counting.puts.set(0);
+
+    CountDownLatch latch = new CountDownLatch(requests);
+    for (int i = 0; i < requests; i++) {
+      client.request(HttpMethod.GET, 8080, "localhost", "/", onSuccess(req -> {
+        req.putHeader("cookie", rSetCookie.get());
+        req.send(onSuccess(resp -> {
+          assertEquals(200, resp.statusCode());
+          latch.countDown();
+        }));
+      }));
+    }
+    awaitLatch(latch);
+
+    waitUntil(() -> counting.puts.get() > 0);
+    assertTrue("gets: " + counting.gets.get(), counting.gets.get() < requests);
+    assertTrue("puts: " + counting.puts.get(), counting.puts.get() < requests);
+  }
+
+  @Test
+  public void testCoalesceRequestsAcrossEventLoops() throws Exception {
+    final int requests = 20;
+    CountingSessionStore counting = new CountingSessionStore(store);
+    // the threads each session instance was handed to
+    Map<Session, Set<Thread>> owners = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    router.route().handler(SessionHandler.create(counting).setCoalesceRequests(true));
+    router.route().handler(rc -> {
+      final Session session = rc.session();
+      owners.computeIfAbsent(session, s -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread());
+      // mutate the session, concurrent requests sharing the instance would corrupt it
+      for (int i = 0; i < 100; i++) {
+        session.put("key" + i, i);
+        session.remove("key" + (i - 1));
+      }
+      rc.response().end();
+    });
+
+    // serve the router from several event loops
+    CountDownLatch deployed = new CountDownLatch(1);
+    vertx.deployVerticle(() -> new AbstractVerticle() {
+      @Override
+      public void start(Promise<Void> startPromise) {
+        vertx.createHttpServer().requestHandler(router).listen(8081, "localhost", listen -> startPromise.handle(listen.mapEmpty()));
+      }
+    }, new DeploymentOptions().setInstances(4), onSuccess(id -> deployed.countDown()));
+    awaitLatch(deployed);
+
+    AtomicReference<String> rSetCookie = new AtomicReference<>();
+    testRequest(HttpMethod.GET, "/", null, resp -> rSetCookie.set(resp.headers().get("set-cookie")), 200, "OK", null);
+    waitUntil(() -> counting.puts.get() == 1);
+    owners.clear();
+    counting.gets.set(0);
+
+    HttpClient concurrent = vertx.createHttpClient(new HttpClientOptions().setMaxPoolSize(requests));
+    CountDownLatch latch = new CountDownLatch(requests);
+    for (int i = 0; i < requests; i++) {
+      concurrent.request(HttpMethod.GET, 8081, "localhost", "/", onSuccess(req -> {
+        req.putHeader("cookie", rSetCookie.get());
+        req.send(onSuccess(resp -> {
+          assertEquals(200, resp.statusCode());
+          latch.countDown();
+        }));
+      }));
+    }
+    awaitLatch(latch);
+
+    // requests were served on several event loops, but no session instance was shared between them
+    Set<Thread> threads = new HashSet<>();
+    synchronized (owners) {
+      for (Set<Thread> sessionThreads : owners.values()) {
+        assertEquals(1, sessionThreads.size());
+        threads.addAll(sessionThreads);
+      }
+    }
+    assertTrue("threads: " + threads.size(), threads.size() > 1);
+    assertTrue("gets: " + counting.gets.get(), counting.gets.get() < requests);
+    concurrent.close();
+  }
+
+  @Test
+  public void testFlushWindowDestroy() throws Exception {
+    router.route().handler(SessionHandler.create(store).setFlushWindow(200));
+    AtomicReference<String> rid = new AtomicReference<>();
+    router.route("/").handler(rc -> {
+      rid.set(rc.session().id());
+      rc.session().put("foo", "bar");
+      rc.response().end();
+    });
+    router.route("/destroy").handler(rc -> {
+      assertEquals(rid.get(), rc.session().id());
+      rc.session().destroy();
+      rc.response().end();
+    });
+
+    AtomicReference<String> rSetCookie = new AtomicReference<>();
+    testRequest(HttpMethod.GET, "/", null, resp -> rSetCookie.set(resp.headers().get("set-cookie")), 200, "OK", null);
+    // destroy while the first write is still waiting for the flush window
+    testRequest(HttpMethod.GET, "/destroy", req -> req.putHeader("cookie", rSetCookie.get()), null, 200, "OK", null);
+    // the merged write must not resurrect the session
+    Thread.sleep(400);
+    assertTrue(testSessionBlocking(rid.get(), Objects::isNull));
+  }
+
+  @Test
+  public void testFlushWindowRegenerate() throws Exception {
+    router.route().handler(SessionHandler.create(store).setFlushWindow(200));
+    AtomicReference<String> rid = new AtomicReference<>();
+    AtomicReference<String> regenerated = new AtomicReference<>();
+    router.route("/").handler(rc -> {
+      if (rid.get() == null) {
+        rid.set(rc.session().id());
+        rc.session().put("foo", "bar");
+      } else {
+        // the old id must not resolve to the regenerated session
+        assertFalse(rc.session().id().equals(regenerated.get()));
+        assertNull(rc.session().get("foo"));
+      }
+      rc.response().end();
+    });
+    router.route("/regenerate").handler(rc -> {
+      assertEquals("bar", rc.session().get("foo"));
+      rc.session().regenerateId();
+      regenerated.set(rc.session().id());
+      rc.response().end();
+    });
+
+    AtomicReference<String> rSetCookie = new AtomicReference<>();
+    testRequest(HttpMethod.GET, "/", null, resp -> rSetCookie.set(resp.headers().get("set-cookie")), 200, "OK", null);
+    // regenerate and reuse the old id while the first write is still waiting for the flush window
+    testRequest(HttpMethod.GET, "/regenerate", req -> req.putHeader("cookie", rSetCookie.get()), null, 200, "OK", null);
+    testRequest(HttpMethod.GET, "/", req -> req.putHeader("cookie", rSetCookie.get()), null, 200, "OK", null);
+
+    Thread.sleep(400);
+    assertFalse(rid.get().equals(regenerated.get()));
+    assertTrue(testSessionBlocking(rid.get(), Objects::isNull));
+    assertTrue(testSessionBlocking(regenerated.get(), sess -> sess != null && "bar".equals(sess.get("foo"))));
+  }
+
+  /**
+   * Delays and counts the lookups and writes to the delegate store.
+   */
+  private static class CountingSessionStore implements SessionStore {
+
+    private final SessionStore delegate;
+    private final AtomicInteger gets = new AtomicInteger();
+    private final AtomicInteger puts = new AtomicInteger();
+
+    CountingSessionStore(SessionStore delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public SessionStore init(Vertx vertx, JsonObject options) {
+      return this;
+    }
+
+    @Override
+    public long retryTimeout() {
+      return 0;
+    }
+
+    @Override
+    public Session createSession(long timeout) {
+      return delegate.createSession(timeout);
+    }
+
+    @Override
+    public Session createSession(long timeout, int length) {
+      return delegate.createSession(timeout, length);
+    }
+
+    @Override
+    public void get(String cookieValue, Handler<AsyncResult<Session>> resultHandler) {
+      gets.incrementAndGet();
+      Vertx.currentContext().owner().setTimer(50, t -> delegate.get(cookieValue, get -> {
+        if (get.succeeded() && get.result() != null) {
+          // like a remote store, return a new instance for each lookup
+          Buffer buffer = Buffer.buffer();
+          ((SharedDataSessionImpl) get.result()).writeToBuffer(buffer);
+          SharedDataSessionImpl copy = (SharedDataSessionImpl) delegate.createSession(0);
+          copy.readFromBuffer(0, buffer);
+          resultHandler.handle(Future.succeededFuture(copy));
+        } else {
+          resultHandler.handle(get);
+        }
+      }));
+    }
+
+    @Override
+    public void delete(String id, Handler<AsyncResult<Void>> resultHandler) {
+      delegate.delete(id, resultHandler);
+    }
+
+    @Override
+    public void put(Session session, Handler<AsyncResult<Void>> resultHandler) {
+      puts.incrementAndGet();
+      delegate.put(session, resultHandler);
+    }
+
+    @Override
+    public void clear(Handler<AsyncResult<Void>> resultHandler) {
+      delegate.clear(resultHandler);
+    }
+
+    @Override
+    public void size(Handler<AsyncResult<Integer>> resultHandler) {
+      delegate.size(resultHandler);
+    }
+
+    @Override
+    public void close() {
+      delegate.close();
+    }
+  }
 }
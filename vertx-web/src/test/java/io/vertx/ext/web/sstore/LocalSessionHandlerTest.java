@@ -16,9 +16,19 @@
 
 package io.vertx.ext.web.sstore;
 
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Session;
+import io.vertx.ext.web.handler.SessionHandler;
 import io.vertx.ext.web.handler.SessionHandlerTestBase;
+import io.vertx.ext.web.sstore.impl.LocalSessionStoreImpl;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
@@ -34,4 +44,70 @@ public class LocalSessionHandlerTest extends SessionHandlerTestBase {
   public void testRetryTimeout() throws Exception {
     assertTrue(doTestSessionRetryTimeout() < 3000);
   }
+
+  @Test
+  public void testStoreMetrics() throws Exception {
+    SessionHandler sessionHandler = SessionHandler.create(store);
+    router.route().handler(sessionHandler);
+    router.route().handler(rc -> {
+      rc.session().put("foo", "bar");
+      rc.response().end();
+    });
+
+    AtomicReference<String> rSetCookie = new AtomicReference<>();
+    testRequest(HttpMethod.GET, "/", null, resp -> rSetCookie.set(resp.headers().get("set-cookie")), 200, "OK", null);
+    testRequest(HttpMethod.GET, "/", req -> req.putHeader("cookie", rSetCookie.get()), 200, "OK", null);
+    testRequest(HttpMethod.GET, "/", req -> req.putHeader("cookie", "vertx-web.session=0123456789abcdef0123456789abcdef"), 200, "OK", null);
+
+    JsonObject metrics = sessionHandler.storeMetrics();
+    assertEquals(2L, (long) metrics.getJsonObject("get").getLong("count"));
+    assertEquals(1L, (long) metrics.getJsonObject("get").getLong("hits"));
+    assertEquals(1L, (long) metrics.getJsonObject("get").getLong("misses"));
+    assertEquals(3L, (long) metrics.getJsonObject("put").getLong("count"));
+    // the second request did not change the session data
+    assertEquals(1L, (long) metrics.getJsonObject("put").getLong("unchanged"));
+    assertEquals("CLOSED", metrics.getString("circuit"));
+  }
+
+  @Test
+  public void testStoreCircuitBreaker() throws Exception {
+    SessionHandler sessionHandler = SessionHandler.create(new FailingSessionStore().init(vertx, new JsonObject()))
+      .setStoreCircuitBreaker(2, 1000, 60_000);
+    router.route().handler(sessionHandler);
+    router.route().handler(rc -> rc.response().end());
+
+    final String cookie = "vertx-web.session=0123456789abcdef0123456789abcdef";
+    testRequest(HttpMethod.GET, "/", req -> req.putHeader("cookie", cookie), 500, "Internal Server Error", null);
+    testRequest(HttpMethod.GET, "/", req -> req.putHeader("cookie", cookie), 500, "Internal Server Error", null);
+    // the circuit is now open, the store is not called anymore
+    testRequest(HttpMethod.GET, "/", req -> req.putHeader("cookie", cookie), 503, "Service Unavailable", null);
+
+    JsonObject metrics = sessionHandler.storeMetrics();
+    assertEquals(2L, (long) metrics.getJsonObject("get").getLong("failures"));
+    assertEquals(1L, (long) metrics.getLong("rejected"));
+    assertEquals("OPEN", metrics.getString("circuit"));
+  }
+
+  @Test
+  public void testDegradeOnStoreFailure() throws Exception {
+    router.route().handler(SessionHandler.create(new FailingSessionStore().init(vertx, new JsonObject()))
+      .setDegradeOnStoreFailure(true));
+    router.route().handler(rc -> {
+      assertNotNull(rc.session());
+      rc.response().end();
+    });
+
+    testRequest(HttpMethod.GET, "/", req -> req.putHeader("cookie", "vertx-web.session=0123456789abcdef0123456789abcdef"), resp -> {
+      String setCookie = resp.headers().get("set-cookie");
+      assertNotNull(setCookie);
+      assertFalse(setCookie.contains("0123456789abcdef0123456789abcdef"));
+    }, 200, "OK", null);
+  }
+
+  private static class FailingSessionStore extends LocalSessionStoreImpl {
+    @Override
+    public void get(String id, Handler<AsyncResult<Session>> resultHandler) {
+      resultHandler.handle(Future.failedFuture("store is down"));
+    }
+  }
 }